@@ -0,0 +1,433 @@
+package net.sympower.parser.sdv.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates <code>SdvRowBinder</code> implementations for classes annotated with <code>@SdvRow</code> and
+ * <code>SdvDocumentBinder</code> implementations for classes annotated with <code>@SdvDocument</code>.
+ * The generated classes call the row constructors and document handlers directly, so the parser does not
+ * have to use reflection for them. Row binders also supply the column plans of the constructors, so the parser
+ * does not have to inspect the constructors and their parameters either.
+ * <p>
+ * Document handlers are resolved by the same rules as the reflection based collector (setter/adder methods,
+ * collection fields, simple fields, honouring <code>@SdvIgnore</code>). If a handler is not accessible from
+ * generated code (e.g. a private method), no binder is generated and the parser falls back to reflection.
+ */
+@SupportedAnnotationTypes({SdvBinderProcessor.SDV_ROW, SdvBinderProcessor.SDV_DOCUMENT})
+public class SdvBinderProcessor extends AbstractProcessor {
+
+  static final String PACKAGE = "net.sympower.parser.sdv";
+  static final String SDV_ROW = PACKAGE + ".SdvRow";
+  static final String SDV_DOCUMENT = PACKAGE + ".SdvDocument";
+  static final String SDV_IGNORE = PACKAGE + ".SdvIgnore";
+  static final String SDV_COLUMN = PACKAGE + ".SdvColumn";
+  static final String SDV_LAZY = PACKAGE + ".SdvLazy";
+
+  /**
+   * Has to match the naming convention used by the parser when looking up binders.
+   */
+  static final String BINDER_SUFFIX = "_SdvBinder";
+
+  private static final String SETTER_PREFIX = "set";
+  private static final String ADD_PREFIX = "add";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      boolean rowAnnotation = annotation.getQualifiedName().contentEquals(SDV_ROW);
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.CLASS) {
+          error(element, "@%s can only be used on classes", annotation.getSimpleName());
+          continue;
+        }
+        TypeElement type = (TypeElement) element;
+        if (!isAccessible(type) || type.getModifiers().contains(Modifier.ABSTRACT)) {
+          warning(type, "No binder generated for %s, class is abstract or not accessible", type.getQualifiedName());
+          continue;
+        }
+        if (rowAnnotation) {
+          writeRowBinder(type);
+        }
+        else {
+          writeDocumentBinder(type);
+        }
+      }
+    }
+    return false;
+  }
+
+  private void writeRowBinder(TypeElement type) {
+    Map<Integer, ExecutableElement> constructors = new LinkedHashMap<>();
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (constructor.getModifiers().contains(Modifier.PUBLIC)
+          && constructors.put(constructor.getParameters().size(), constructor) != null) {
+        // the binder is selected by the number of values, which would be ambiguous
+        warning(type, "No binder generated for %s, it has more than one public constructor with %s parameters",
+          type.getQualifiedName(), constructor.getParameters().size());
+        return;
+      }
+    }
+    String typeName = typeName(type.asType());
+    StringBuilder src = new StringBuilder();
+    src.append("  @Override\n");
+    src.append("  public ").append(typeName).append(" newRow(Object[] values) {\n");
+    src.append("    switch (values.length) {\n");
+    for (Map.Entry<Integer, ExecutableElement> entry : constructors.entrySet()) {
+      src.append("      case ").append(entry.getKey()).append(":\n");
+      src.append("        return new ").append(typeName).append("(");
+      List<? extends VariableElement> parameters = entry.getValue().getParameters();
+      for (int i = 0; i < parameters.size(); i++) {
+        if (i > 0) {
+          src.append(",\n          ");
+        }
+        src.append("(").append(boxedTypeName(parameters.get(i).asType())).append(") values[").append(i).append("]");
+      }
+      src.append(");\n");
+    }
+    src.append("      default:\n");
+    src.append("        return null;\n");
+    src.append("    }\n");
+    src.append("  }\n");
+    writePlans(type, constructors, src);
+    writeBinder(type, "SdvRowBinder", src);
+  }
+
+  /**
+   * Writes the column plans of the constructors, chosen by the same rules as the parser: the constructor with
+   * <code>@SdvColumn</code> parameters for any number of columns, otherwise the constructor with a parameter for
+   * each column. Constructors the parser would reject get no plan, so the parser reports the error.
+   */
+  private void writePlans(TypeElement type, Map<Integer, ExecutableElement> constructors, StringBuilder src) {
+    List<ExecutableElement> projected = new ArrayList<>();
+    for (ExecutableElement constructor : constructors.values()) {
+      for (VariableElement parameter : constructor.getParameters()) {
+        if (hasAnnotation(parameter, SDV_COLUMN)) {
+          projected.add(constructor);
+          break;
+        }
+      }
+    }
+    if (projected.size() > 1) {
+      // the parser would pick one of them in an unspecified order
+      return;
+    }
+    Map<Integer, String> plans = new LinkedHashMap<>();
+    for (ExecutableElement constructor : projected.isEmpty() ? constructors.values() : projected) {
+      String plan = plan(constructor, !projected.isEmpty());
+      if (plan != null) {
+        plans.put(constructor.getParameters().size(), plan);
+      }
+    }
+    if (plans.isEmpty()) {
+      return;
+    }
+    src.append("\n");
+    for (Map.Entry<Integer, String> plan : plans.entrySet()) {
+      src.append("  private static final ").append(PACKAGE).append(".SdvRowPlan PLAN_").append(plan.getKey())
+        .append(" = ").append(plan.getValue()).append(";\n\n");
+    }
+    src.append("  @Override\n");
+    src.append("  public ").append(PACKAGE).append(".SdvRowPlan getPlan(int columnCount) {\n");
+    if (!projected.isEmpty()) {
+      src.append("    return PLAN_").append(plans.keySet().iterator().next()).append(";\n");
+    }
+    else {
+      src.append("    switch (columnCount) {\n");
+      for (Integer columnCount : plans.keySet()) {
+        src.append("      case ").append(columnCount).append(":\n");
+        src.append("        return PLAN_").append(columnCount).append(";\n");
+      }
+      src.append("      default:\n");
+      src.append("        return null;\n");
+      src.append("    }\n");
+    }
+    src.append("  }\n");
+  }
+
+  /**
+   * @return expression creating the plan of the constructor, or <code>null</code> if the parser would reject it
+   */
+  private String plan(ExecutableElement constructor, boolean projected) {
+    StringBuilder parameterTypes = new StringBuilder();
+    StringBuilder valueTypes = new StringBuilder();
+    StringBuilder columnIndexes = new StringBuilder();
+    boolean annotated = false;
+    List<? extends VariableElement> parameters = constructor.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      VariableElement parameter = parameters.get(i);
+      String separator = i > 0 ? ", " : "";
+      String parameterType = typeName(parameter.asType());
+      String valueType = parameterType;
+      if (parameterType.equals(SDV_LAZY)) {
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) parameter.asType()).getTypeArguments();
+        if (typeArguments.size() != 1 || !(typeArguments.get(0) instanceof DeclaredType)) {
+          return null;
+        }
+        valueType = typeName(typeArguments.get(0));
+      }
+      int columnIndex = i;
+      for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+        if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SDV_COLUMN)) {
+          columnIndex = (Integer) annotation.getElementValues().values().iterator().next().getValue();
+        }
+        else {
+          annotated = true;
+        }
+      }
+      if (projected && (!hasAnnotation(parameter, SDV_COLUMN) || columnIndex < 0)) {
+        return null;
+      }
+      parameterTypes.append(separator).append(parameterType).append(".class");
+      valueTypes.append(separator).append(valueType).append(".class");
+      columnIndexes.append(separator).append(columnIndex);
+    }
+    return "new " + PACKAGE + ".SdvRowPlan(\n"
+      + "    new Class<?>[] {" + parameterTypes + "},\n"
+      + "    new Class<?>[] {" + valueTypes + "},\n"
+      + "    new int[] {" + columnIndexes + "},\n"
+      + "    " + annotated + ")";
+  }
+
+  private void writeDocumentBinder(TypeElement type) {
+    if (!hasNoArgsConstructor(type)) {
+      warning(type, "No binder generated for %s, it has no accessible no-args constructor", type.getQualifiedName());
+      return;
+    }
+    Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+    Map<String, VariableElement> simpleFields = new LinkedHashMap<>();
+    Map<String, VariableElement> collections = new LinkedHashMap<>();
+    List<Element> members = new ArrayList<>();
+    // Same order as the reflection based collector: public (also inherited) members first, then declared ones
+    for (Element member : processingEnv.getElementUtils().getAllMembers(type)) {
+      if (member.getEnclosingElement() != type && member.getModifiers().contains(Modifier.PUBLIC)
+          && !((TypeElement) member.getEnclosingElement()).getQualifiedName().contentEquals(Object.class.getName())) {
+        members.add(member);
+      }
+    }
+    members.addAll(type.getEnclosedElements());
+    for (Element member : members) {
+      if (hasAnnotation(member, SDV_IGNORE)) {
+        continue;
+      }
+      if (member.getKind() == ElementKind.METHOD) {
+        ExecutableElement method = (ExecutableElement) member;
+        String name = method.getSimpleName().toString();
+        if ((name.startsWith(SETTER_PREFIX) || name.startsWith(ADD_PREFIX)) && method.getParameters().size() == 1) {
+          methods.put(typeName(method.getParameters().get(0).asType()), method);
+        }
+      }
+      else if (member.getKind() == ElementKind.FIELD) {
+        VariableElement field = (VariableElement) member;
+        TypeMirror collectionType = processingEnv.getTypeUtils().erasure(
+          processingEnv.getElementUtils().getTypeElement("java.util.Collection").asType());
+        if (processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(field.asType()), collectionType)) {
+          List<? extends TypeMirror> typeArguments = ((DeclaredType) field.asType()).getTypeArguments();
+          if (typeArguments.isEmpty()) {
+            error(field, "Collection field %s has to declare its element type", field.getSimpleName());
+            return;
+          }
+          collections.put(typeName(typeArguments.get(0)), field);
+        }
+        else {
+          simpleFields.put(typeName(field.asType()), field);
+        }
+      }
+    }
+
+    Set<String> rowTypes = new LinkedHashSet<>();
+    rowTypes.addAll(methods.keySet());
+    rowTypes.addAll(simpleFields.keySet());
+    rowTypes.addAll(collections.keySet());
+    for (String rowType : rowTypes) {
+      TypeElement rowElement = processingEnv.getElementUtils().getTypeElement(rowType);
+      if (rowElement == null || !hasAnnotation(rowElement, SDV_ROW)) {
+        error(type, "Document %s handles type %s which is not annotated with @SdvRow", type.getQualifiedName(), rowType);
+        return;
+      }
+    }
+    List<Element> handlers = new ArrayList<>();
+    handlers.addAll(methods.values());
+    handlers.addAll(simpleFields.values());
+    handlers.addAll(collections.values());
+    for (Element handler : handlers) {
+      if (handler.getModifiers().contains(Modifier.PRIVATE)) {
+        warning(handler, "No binder generated for %s, %s is private", type.getQualifiedName(), handler.getSimpleName());
+        return;
+      }
+    }
+    for (VariableElement field : simpleFields.values()) {
+      if (field.getModifiers().contains(Modifier.FINAL)) {
+        warning(field, "No binder generated for %s, field %s is final", type.getQualifiedName(), field.getSimpleName());
+        return;
+      }
+    }
+
+    String typeName = typeName(type.asType());
+    StringBuilder src = new StringBuilder();
+    src.append("  private static final java.util.List<Class<?>> ROW_TYPES = java.util.Collections.unmodifiableList(java.util.Arrays.asList(");
+    boolean first = true;
+    for (String rowType : rowTypes) {
+      src.append(first ? "\n" : ",\n").append("    ").append(rowType).append(".class");
+      first = false;
+    }
+    src.append("));\n\n");
+
+    src.append("  @Override\n");
+    src.append("  public ").append(typeName).append(" newDocument() {\n");
+    src.append("    return new ").append(typeName).append("();\n");
+    src.append("  }\n\n");
+
+    src.append("  @Override\n");
+    src.append("  public java.util.List<Class<?>> getRowTypes() {\n");
+    src.append("    return ROW_TYPES;\n");
+    src.append("  }\n\n");
+
+    src.append("  @Override\n");
+    src.append("  public void bind(").append(typeName).append(" document) {\n");
+    for (VariableElement field : collections.values()) {
+      if (!field.getModifiers().contains(Modifier.FINAL)) {
+        String target = target(type, field);
+        src.append("    if (").append(target).append(" == null) {\n");
+        src.append("      ").append(target).append(" = new java.util.ArrayList<>();\n");
+        src.append("    }\n");
+      }
+    }
+    src.append("  }\n\n");
+
+    src.append("  @Override\n");
+    src.append("  public boolean newRow(").append(typeName).append(" document, Object row) {\n");
+    src.append("    Class<?> rowType = row.getClass();\n");
+    for (String rowType : rowTypes) {
+      src.append("    if (rowType == ").append(rowType).append(".class) {\n");
+      if (methods.containsKey(rowType)) {
+        ExecutableElement method = methods.get(rowType);
+        src.append("      ").append(target(type, method)).append("((").append(rowType).append(") row);\n");
+      }
+      else if (collections.containsKey(rowType)) {
+        src.append("      ").append(target(type, collections.get(rowType))).append(".add((").append(rowType).append(") row);\n");
+      }
+      else {
+        src.append("      ").append(target(type, simpleFields.get(rowType))).append(" = (").append(rowType).append(") row;\n");
+      }
+      src.append("      return true;\n");
+      src.append("    }\n");
+    }
+    src.append("    return false;\n");
+    src.append("  }\n");
+    writeBinder(type, "SdvDocumentBinder", src);
+  }
+
+  private void writeBinder(TypeElement type, String binderInterface, StringBuilder body) {
+    PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+    String packageName = pkg.getQualifiedName().toString();
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    String binderName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+      .replace('$', '_') + BINDER_SUFFIX;
+    try {
+      JavaFileObject file = processingEnv.getFiler().createSourceFile(
+        packageName.isEmpty() ? binderName : packageName + "." + binderName, type);
+      try (Writer writer = file.openWriter()) {
+        if (!packageName.isEmpty()) {
+          writer.write("package " + packageName + ";\n\n");
+        }
+        writer.write("/**\n * Generated by " + getClass().getName() + " from {@link " + typeName(type.asType()) + "}, do not edit.\n */\n");
+        writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        writer.write("public final class " + binderName + " implements " + PACKAGE + "." + binderInterface
+          + "<" + typeName(type.asType()) + "> {\n\n");
+        writer.write(body.toString());
+        writer.write("\n}\n");
+      }
+    }
+    catch (IOException e) {
+      error(type, "Could not write binder %s: %s", binderName, e.getMessage());
+    }
+  }
+
+  private String target(TypeElement type, Element member) {
+    String owner = member.getModifiers().contains(Modifier.STATIC) ? typeName(type.asType()) : "document";
+    return owner + "." + member.getSimpleName();
+  }
+
+  private boolean hasNoArgsConstructor(TypeElement type) {
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isAccessible(TypeElement type) {
+    Element element = type;
+    while (element.getKind() != ElementKind.PACKAGE) {
+      if (element.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+      Element enclosing = element.getEnclosingElement();
+      if (enclosing.getKind() != ElementKind.PACKAGE && !element.getModifiers().contains(Modifier.STATIC)) {
+        return false;
+      }
+      element = enclosing;
+    }
+    return true;
+  }
+
+  private static boolean hasAnnotation(Element element, String annotationName) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String typeName(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type).toString();
+  }
+
+  private String boxedTypeName(TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+    }
+    return typeName(type);
+  }
+
+  private void error(Element element, String format, Object... args) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+  }
+
+  private void warning(Element element, String format, Object... args) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, String.format(format, args), element);
+  }
+
+}
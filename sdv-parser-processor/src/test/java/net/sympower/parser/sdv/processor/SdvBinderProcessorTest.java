@@ -0,0 +1,191 @@
+package net.sympower.parser.sdv.processor;
+
+import net.sympower.parser.sdv.SdvDocumentBinder;
+import net.sympower.parser.sdv.SdvLazy;
+import net.sympower.parser.sdv.SdvReader;
+import net.sympower.parser.sdv.SdvRowBinder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SdvBinderProcessorTest {
+
+  private static final String ROW_SOURCE = "package test;\n" +
+    "import net.sympower.parser.sdv.*;\n" +
+    "import java.time.LocalDate;\n" +
+    "@SdvRow(\"DT\")\n" +
+    "public class DateRow {\n" +
+    "  public final int day;\n" +
+    "  public final LocalDate date;\n" +
+    "  public DateRow(int day, @SdvColumnFormat(\"dd.MM.yyyy\") LocalDate date) {\n" +
+    "    this.day = day;\n" +
+    "    this.date = date;\n" +
+    "  }\n" +
+    "}\n";
+
+  private static final String COUNT_ROW_SOURCE = "package test;\n" +
+    "import net.sympower.parser.sdv.*;\n" +
+    "@SdvRow(\"AL\")\n" +
+    "public class CountRow {\n" +
+    "  public final int count;\n" +
+    "  public CountRow(int count) {\n" +
+    "    this.count = count;\n" +
+    "  }\n" +
+    "}\n";
+
+  private static final String DOCUMENT_SOURCE = "package test;\n" +
+    "import net.sympower.parser.sdv.*;\n" +
+    "import java.util.List;\n" +
+    "@SdvDocument\n" +
+    "public class DateDocument {\n" +
+    "  List<DateRow> dates;\n" +
+    "  CountRow count;\n" +
+    "  @SdvIgnore public int ignored;\n" +
+    "}\n";
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void generatesRowAndDocumentBinders() throws Exception {
+    ClassLoader classLoader = compile(ROW_SOURCE, COUNT_ROW_SOURCE, DOCUMENT_SOURCE);
+    Class<?> rowBinder = classLoader.loadClass("test.DateRow_SdvBinder");
+    assertThat(SdvRowBinder.class.isAssignableFrom(rowBinder)).isTrue();
+    Class<?> documentBinder = classLoader.loadClass("test.DateDocument_SdvBinder");
+    assertThat(SdvDocumentBinder.class.isAssignableFrom(documentBinder)).isTrue();
+
+    Class<?> documentType = classLoader.loadClass("test.DateDocument");
+    SdvReader reader = new SdvReader();
+    Object document = reader.parseDocument(new StringReader("DT;1;22.03.2017\nDT;2;23.03.2017\nAL;2\n"), documentType);
+    Field dates = documentType.getDeclaredField("dates");
+    dates.setAccessible(true);
+    assertThat((List<?>) dates.get(document)).hasSize(2);
+    Field count = documentType.getDeclaredField("count");
+    count.setAccessible(true);
+    assertThat(count.get(document)).isNotNull();
+  }
+
+  @Test
+  public void generatesRowPlans() throws Exception {
+    String source = "package test;\n" +
+      "import net.sympower.parser.sdv.*;\n" +
+      "import java.math.BigDecimal;\n" +
+      "@SdvRow(\"PJ\")\n" +
+      "public class ProjectedRow {\n" +
+      "  public final String unit;\n" +
+      "  public final SdvLazy<BigDecimal> amount;\n" +
+      "  public ProjectedRow(String unit, SdvLazy<BigDecimal> amount, String note) {\n" +
+      "    this(amount, unit);\n" +
+      "  }\n" +
+      "  public ProjectedRow(@SdvColumn(2) SdvLazy<BigDecimal> amount, @SdvColumn(0) String unit) {\n" +
+      "    this.unit = unit;\n" +
+      "    this.amount = amount;\n" +
+      "  }\n" +
+      "}\n";
+    ClassLoader classLoader = compile(ROW_SOURCE, source);
+    SdvRowBinder<?> dateBinder = (SdvRowBinder<?>) classLoader.loadClass("test.DateRow_SdvBinder").getConstructor().newInstance();
+    assertThat(dateBinder.getPlan(2)).isNotNull();
+    assertThat(dateBinder.getPlan(3)).isNull();
+    SdvRowBinder<?> projectedBinder = (SdvRowBinder<?>) classLoader.loadClass("test.ProjectedRow_SdvBinder").getConstructor().newInstance();
+    assertThat(projectedBinder.getPlan(3)).isNotNull().isSameAs(projectedBinder.getPlan(5));
+
+    Class<?> rowType = classLoader.loadClass("test.ProjectedRow");
+    SdvReader reader = new SdvReader();
+    reader.setDefaultLocale(Locale.ENGLISH);
+    reader.registerRowType(rowType);
+    List<?> rows = reader.parse(new StringReader("PJ;EUR;2.5;1.5\n"), rowType);
+    assertThat(rows).hasSize(1);
+    assertThat(rowType.getField("unit").get(rows.get(0))).isEqualTo("EUR");
+    assertThat(((SdvLazy<?>) rowType.getField("amount").get(rows.get(0))).get()).isEqualTo(new BigDecimal("1.5"));
+  }
+
+  @Test
+  public void skipsDocumentWithPrivateHandler() throws Exception {
+    String source = "package test;\n" +
+      "import net.sympower.parser.sdv.*;\n" +
+      "@SdvDocument\n" +
+      "public class PrivateDocument {\n" +
+      "  private CountRow count;\n" +
+      "}\n";
+    ClassLoader classLoader = compile(COUNT_ROW_SOURCE, source);
+    assertThat(classLoader.getResource("test/CountRow_SdvBinder.class")).isNotNull();
+    assertThat(classLoader.getResource("test/PrivateDocument_SdvBinder.class")).isNull();
+  }
+
+  @Test
+  public void skipsRowWithSameArityConstructors() throws Exception {
+    String source = "package test;\n" +
+      "import net.sympower.parser.sdv.*;\n" +
+      "@SdvRow(\"AM\")\n" +
+      "public class AmbiguousRow {\n" +
+      "  public AmbiguousRow(String name) {\n" +
+      "  }\n" +
+      "  public AmbiguousRow(int count) {\n" +
+      "  }\n" +
+      "}\n";
+    ClassLoader classLoader = compile(source);
+    assertThat(classLoader.getResource("test/AmbiguousRow_SdvBinder.class")).isNull();
+  }
+
+  private ClassLoader compile(String... sources) throws IOException, URISyntaxException {
+    Path sourceDir = Files.createDirectories(tempDir.resolve("src/test"));
+    Path classesDir = Files.createDirectories(tempDir.resolve("classes"));
+    List<Path> files = new ArrayList<>();
+    for (String source : sources) {
+      String name = source.substring(source.indexOf("public class ") + 13, source.indexOf(" {"));
+      Path file = sourceDir.resolve(name + ".java");
+      Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+      files.add(file);
+    }
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+      List<String> options = Arrays.asList(
+        "-classpath", Paths.get(SdvReader.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString(),
+        "-d", classesDir.toString(),
+        "-s", classesDir.toString());
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+        fileManager.getJavaFileObjectsFromFiles(toFiles(files)));
+      task.setProcessors(Collections.singletonList(new SdvBinderProcessor()));
+      Boolean success = task.call();
+      for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+        System.out.println(diagnostic);
+      }
+      assertThat(success).as("Compilation should succeed").isTrue();
+    }
+    return new URLClassLoader(new URL[] { classesDir.toUri().toURL() }, getClass().getClassLoader());
+  }
+
+  private static List<java.io.File> toFiles(List<Path> paths) {
+    List<java.io.File> files = new ArrayList<>();
+    for (Path path : paths) {
+      files.add(path.toFile());
+    }
+    return files;
+  }
+
+}
@@ -0,0 +1,14 @@
+package net.sympower.parser.sdv;
+
+@SdvRow("BE")
+public class AreaRow {
+
+  public final String alias;
+  public final String description;
+
+  public AreaRow(String alias, String description) {
+    this.alias = alias;
+    this.description = description;
+  }
+
+}
@@ -0,0 +1,114 @@
+package net.sympower.parser.sdv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of single values, through the string converters (with and without a format annotation) and
+ * through the character fast paths used by the parser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+  private static final String DECIMAL = "-289,70";
+  private static final String GROUPED_DECIMAL = "12 289,70";
+  private static final String ISO_DATE = "2017-03-22";
+  private static final String DATE = "22.03.2017";
+
+  private final char[] decimalChars = DECIMAL.toCharArray();
+  private final char[] dateChars = DATE.toCharArray();
+
+  private BigDecimalConverter bigDecimalConverter;
+  private NumberConverter<Double> doubleConverter;
+  private DateTimeConverter<LocalDate> dateConverter;
+  private SdvDecimalFormat decimalFormat;
+  private SdvColumnFormat dateFormat;
+  private SdvCharTypeConverter<BigDecimal> bigDecimalChars;
+  private SdvCharTypeConverter<Double> doubleChars;
+  private SdvCharTypeConverter<LocalDate> dateFormatChars;
+
+  @SuppressWarnings("unused")
+  private static void formats(@SdvDecimalFormat(value = "#,##0.00", groupingSeparator = " ", decimalSeparator = ",") BigDecimal decimal,
+                              @SdvColumnFormat("dd.MM.yyyy") LocalDate date) {
+  }
+
+  @Setup
+  public void setUp() throws NoSuchMethodException {
+    Annotation[][] annotations = ConverterBenchmark.class.getDeclaredMethod("formats", BigDecimal.class, LocalDate.class).getParameterAnnotations();
+    this.decimalFormat = (SdvDecimalFormat) annotations[0][0];
+    this.dateFormat = (SdvColumnFormat) annotations[1][0];
+    this.bigDecimalConverter = new BigDecimalConverter();
+    this.bigDecimalConverter.setDefaultDecimalFormat(new DecimalFormat());
+    this.doubleConverter = new NumberConverter<>(Double::valueOf, Number::doubleValue);
+    this.doubleConverter.setDefaultDecimalFormat(new DecimalFormat());
+    this.dateConverter = new DateTimeConverter<>(LocalDate.class, LocalDate::parse, LocalDate::parse);
+    this.bigDecimalChars = bigDecimalConverter.getCharConverter(null, PricesFile.LOCALE);
+    this.doubleChars = doubleConverter.getCharConverter(null, PricesFile.LOCALE);
+    this.dateFormatChars = dateConverter.getCharConverter(dateFormat, PricesFile.LOCALE);
+  }
+
+  @Benchmark
+  public BigDecimal bigDecimal() {
+    return bigDecimalConverter.convert(DECIMAL, null, PricesFile.LOCALE);
+  }
+
+  @Benchmark
+  public BigDecimal bigDecimalWithFormat() {
+    return bigDecimalConverter.convert(GROUPED_DECIMAL, decimalFormat, PricesFile.LOCALE);
+  }
+
+  @Benchmark
+  public BigDecimal bigDecimalChars() {
+    return bigDecimalChars.convert(decimalChars, 0, decimalChars.length);
+  }
+
+  @Benchmark
+  public Double doubleValue() {
+    return doubleConverter.convert(DECIMAL, null, PricesFile.LOCALE);
+  }
+
+  @Benchmark
+  public Double doubleWithFormat() {
+    return doubleConverter.convert(GROUPED_DECIMAL, decimalFormat, PricesFile.LOCALE);
+  }
+
+  @Benchmark
+  public Double doubleChars() {
+    return doubleChars.convert(decimalChars, 0, decimalChars.length);
+  }
+
+  @Benchmark
+  public LocalDate date() {
+    return dateConverter.convert(ISO_DATE, null, PricesFile.LOCALE);
+  }
+
+  @Benchmark
+  public LocalDate dateWithFormat() {
+    return dateConverter.convert(DATE, dateFormat, PricesFile.LOCALE);
+  }
+
+  @Benchmark
+  public LocalDate dateWithFormatChars() {
+    return dateFormatChars.convert(dateChars, 0, dateChars.length);
+  }
+
+}
@@ -0,0 +1,12 @@
+package net.sympower.parser.sdv;
+
+@SdvRow("AL")
+public class CountRow {
+
+  public final int count;
+
+  public CountRow(int count) {
+    this.count = count;
+  }
+
+}
@@ -0,0 +1,103 @@
+package net.sympower.parser.sdv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end parsing of generated price files. Benchmarks collecting all rows need a heap of roughly 1.5 kB per
+ * row; the streaming benchmark runs in constant memory, also for 10 million rows (<code>-Pjmh.rows=10000000</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParseBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  public int rows;
+
+  private SdvReader reader;
+  private SdvReader projectedReader;
+  private Path file;
+
+  @Setup
+  public void setUp() throws IOException {
+    this.reader = PricesFile.newReader();
+    this.projectedReader = new SdvReader();
+    this.projectedReader.setDefaultLocale(PricesFile.LOCALE);
+    this.projectedReader.registerRowType(PriceSummaryRow.class);
+    this.file = PricesFile.create(rows);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.delete(file);
+  }
+
+  @Benchmark
+  public List<?> parsePath() throws IOException {
+    return reader.parse(file);
+  }
+
+  @Benchmark
+  public List<?> parseReader() throws IOException {
+    return reader.parse(Files.newBufferedReader(file, StandardCharsets.UTF_8), Object.class);
+  }
+
+  @Benchmark
+  public List<PriceSummaryRow> parsePathProjected() throws IOException {
+    return projectedReader.parse(file, PriceSummaryRow.class);
+  }
+
+  @Benchmark
+  public SdvColumnBatch<PriceSummaryRow> parseColumns() throws IOException {
+    return projectedReader.parseColumns(file, PriceSummaryRow.class);
+  }
+
+  @Benchmark
+  public List<PriceRow> parseParallel() throws IOException {
+    return reader.parseParallel(file, PriceRow.class);
+  }
+
+  @Benchmark
+  public PriceDocument parseDocument() throws IOException {
+    return reader.parseDocument(file, PriceDocument.class);
+  }
+
+  @Benchmark
+  public double streamAverage() throws IOException {
+    try (Stream<PriceRow> prices = reader.stream(file, PriceRow.class)) {
+      return prices.map(row -> row.hours[0]).filter(Objects::nonNull).mapToDouble(BigDecimal::doubleValue).average().orElse(0);
+    }
+  }
+
+  @Benchmark
+  public double streamAverageParallel() throws IOException {
+    try (Stream<PriceRow> prices = reader.stream(file, PriceRow.class)) {
+      return prices.parallel().map(row -> row.hours[0]).filter(Objects::nonNull).mapToDouble(BigDecimal::doubleValue).average().orElse(0);
+    }
+  }
+
+}
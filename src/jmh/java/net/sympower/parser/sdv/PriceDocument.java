@@ -0,0 +1,13 @@
+package net.sympower.parser.sdv;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PriceDocument {
+
+  public StatusRow status;
+  public List<AreaRow> areas;
+  public final List<PriceRow> prices = new ArrayList<>();
+  public CountRow count;
+
+}
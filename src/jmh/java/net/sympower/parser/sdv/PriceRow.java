@@ -0,0 +1,39 @@
+package net.sympower.parser.sdv;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@SdvRow("PR")
+public class PriceRow {
+
+  public final String code;
+  public final int year;
+  public final int week;
+  public final int day;
+  public final LocalDate date;
+  public final String alias;
+  public final String unit;
+  public final BigDecimal[] hours;
+  public final BigDecimal total;
+
+  public PriceRow(String code, int year, int week, int day,
+                  @SdvColumnFormat("dd.MM.yyyy") LocalDate date, String alias, String unit,
+                  BigDecimal hour1, BigDecimal hour2, BigDecimal hour3a, BigDecimal hour3b,
+                  BigDecimal hour4, BigDecimal hour5, BigDecimal hour6, BigDecimal hour7, BigDecimal hour8,
+                  BigDecimal hour9, BigDecimal hour10, BigDecimal hour11, BigDecimal hour12, BigDecimal hour13,
+                  BigDecimal hour14, BigDecimal hour15, BigDecimal hour16, BigDecimal hour17, BigDecimal hour18,
+                  BigDecimal hour19, BigDecimal hour20, BigDecimal hour21, BigDecimal hour22, BigDecimal hour23,
+                  BigDecimal hour24, BigDecimal total) {
+    this.code = code;
+    this.year = year;
+    this.week = week;
+    this.day = day;
+    this.date = date;
+    this.alias = alias;
+    this.unit = unit;
+    this.hours = new BigDecimal[] {hour1, hour2, hour3a, hour3b, hour4, hour5, hour6, hour7, hour8, hour9, hour10,
+      hour11, hour12, hour13, hour14, hour15, hour16, hour17, hour18, hour19, hour20, hour21, hour22, hour23, hour24};
+    this.total = total;
+  }
+
+}
@@ -0,0 +1,20 @@
+package net.sympower.parser.sdv;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Price row with only the date and total columns.
+ */
+@SdvRow("PR")
+public class PriceSummaryRow {
+
+  public final LocalDate date;
+  public final BigDecimal total;
+
+  public PriceSummaryRow(@SdvColumn(4) @SdvColumnFormat("dd.MM.yyyy") LocalDate date, @SdvColumn(32) BigDecimal total) {
+    this.date = date;
+    this.total = total;
+  }
+
+}
@@ -0,0 +1,121 @@
+package net.sympower.parser.sdv;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates synthetic Elspot price files shaped like <code>prices.sdv</code> of the tests: a status row,
+ * area descriptions, price rows with 25 hourly prices (Finnish decimals, some empty) and a line count row.
+ */
+class PricesFile {
+
+  static final Locale LOCALE = new Locale("fi");
+
+  private static final String[] AREAS = {"FI", "SE1", "SE2", "SE3", "SE4", "NO1", "NO2", "DK1", "DK2", "EE"};
+  private static final String[] UNITS = {"EUR", "NOK", "SEK", "DKK"};
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+  private PricesFile() {
+  }
+
+  /**
+   * @return reader with the row types of the price files registered
+   */
+  static SdvReader newReader() {
+    SdvReader reader = new SdvReader();
+    reader.setDefaultLocale(LOCALE);
+    reader.registerRowType(StatusRow.class);
+    reader.registerRowType(AreaRow.class);
+    reader.registerRowType(PriceRow.class);
+    reader.registerRowType(CountRow.class);
+    return reader;
+  }
+
+  static Path create(int rows) throws IOException {
+    Path file = Files.createTempFile("prices-" + rows + "-", ".sdv");
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      write(writer, rows);
+    }
+    return file;
+  }
+
+  static String text(int rows) {
+    StringWriter writer = new StringWriter();
+    try {
+      write(writer, rows);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * @return a single price row
+   */
+  static String priceLine() {
+    return text(1).split("\n")[4 + AREAS.length];
+  }
+
+  private static void write(Writer out, int rows) throws IOException {
+    Random random = new Random(rows);
+    BufferedWriter writer = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out);
+    writer.write("# Synthetic prices and turnover at Elspot\n");
+    writer.write("# Data type;Code;Year;Week;Day;Date(dd.mm.yyyy);Alias;Unit;Hour1;Hour2;Hour3A;Hour3B;Hour4;...;Hour24;Total\n");
+    writer.write("#\n");
+    writer.write("ST;2017;12;7;23;167;11:58;22.03.2017\n");
+    for (String area : AREAS) {
+      writer.write("BE;" + area + ";Bidding area " + area + "\n");
+    }
+    LocalDate date = LocalDate.of(2017, 1, 2);
+    StringBuilder line = new StringBuilder(256);
+    for (int i = 0; i < rows; i++) {
+      if (i > 0 && i % (AREAS.length * UNITS.length) == 0) {
+        date = date.plusDays(1);
+      }
+      line.setLength(0);
+      line.append("PR;SO;").append(date.getYear()).append(';').append(date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR))
+        .append(';').append(date.getDayOfWeek().getValue()).append(';').append(DATE_FORMAT.format(date))
+        .append(';').append(AREAS[i / UNITS.length % AREAS.length]).append(';').append(UNITS[i % UNITS.length]);
+      long total = 0;
+      for (int hour = 0; hour < 25; hour++) {
+        line.append(';');
+        // hour 3B only has a value on the day daylight saving time ends
+        if (hour != 3) {
+          long cents = random.nextInt(40000) - 2000;
+          total += cents;
+          appendDecimal(line, cents);
+        }
+      }
+      line.append(';');
+      appendDecimal(line, total);
+      writer.append(line).append('\n');
+    }
+    writer.write("AL;" + (rows + AREAS.length + 5) + "\n");
+    writer.flush();
+  }
+
+  private static void appendDecimal(StringBuilder line, long cents) {
+    if (cents < 0) {
+      line.append('-');
+      cents = -cents;
+    }
+    line.append(cents / 100).append(',');
+    if (cents % 100 < 10) {
+      line.append('0');
+    }
+    line.append(cents % 100);
+  }
+
+}
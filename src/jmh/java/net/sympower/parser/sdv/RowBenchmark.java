@@ -0,0 +1,77 @@
+package net.sympower.parser.sdv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instantiation of a price row from an already split line (conversion included, and constructor call only)
+ * and assembly of a document from already parsed rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowBenchmark {
+
+  private static final int DOCUMENT_ROWS = 10000;
+
+  private SdvTokenizer tokenizer;
+  private SdvRowBinding<PriceRow> binding;
+  private SdvRowFactory<PriceRow> factory;
+  private Object[] params;
+  private List<?> rows;
+
+  @Setup
+  public void setUp() throws IOException, NoSuchMethodException {
+    SdvReader reader = PricesFile.newReader();
+    this.tokenizer = new SdvCharTokenizer(new StringReader(PricesFile.priceLine()), ';', "#");
+    this.tokenizer.nextLine();
+    int paramCount = this.tokenizer.split() - 1;
+    this.binding = reader.getRowBinding(PriceRow.class, paramCount);
+    Constructor<PriceRow> constructor = PriceRow.class.getConstructor(PriceRow.class.getConstructors()[0].getParameterTypes());
+    this.factory = new SdvRowFactory<>(constructor);
+    this.params = new Object[paramCount];
+    for (int i = 0; i < paramCount; i++) {
+      SdvColumnBinding column = new SdvColumnBinding(reader, i, constructor.getParameterTypes()[i], false,
+        constructor.getParameterAnnotations()[i], PriceRow.class);
+      this.params[i] = column.convert(tokenizer, i + 1, PricesFile.LOCALE);
+    }
+    this.rows = reader.parse(new StringReader(PricesFile.text(DOCUMENT_ROWS)), Object.class);
+  }
+
+  @Benchmark
+  public PriceRow convertAndInstantiate() {
+    return binding.newRow(tokenizer, 1, PricesFile.LOCALE);
+  }
+
+  @Benchmark
+  public PriceRow instantiate() {
+    return factory.newRow(params);
+  }
+
+  @Benchmark
+  public PriceDocument collectDocument() {
+    SdvRowCollector<PriceDocument> collector = new SdvRowCollector<>(PriceDocument.class);
+    for (Object row : rows) {
+      collector.newRow(row);
+    }
+    return collector.getDocument();
+  }
+
+}
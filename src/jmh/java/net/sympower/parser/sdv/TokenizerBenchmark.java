@@ -0,0 +1,76 @@
+package net.sympower.parser.sdv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting lines into columns, without converting them. Returns the number of columns seen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizerBenchmark {
+
+  @Param({"10000", "1000000"})
+  public int rows;
+
+  private String text;
+  private Path file;
+
+  @Setup
+  public void setUp() throws IOException {
+    this.text = PricesFile.text(rows);
+    this.file = PricesFile.create(rows);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.delete(file);
+  }
+
+  @Benchmark
+  public long chars() throws IOException {
+    return tokenize(new SdvCharTokenizer(new StringReader(text), ';', "#"));
+  }
+
+  @Benchmark
+  public long mappedBytes() throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    return tokenize(new SdvByteTokenizer(channel, 0, channel.size(), true, SdvByteTokenizer.DEFAULT_WINDOW_SIZE, 0,
+      StandardCharsets.UTF_8, ';', "#"));
+  }
+
+  private static long tokenize(SdvTokenizer tokenizer) throws IOException {
+    long columns = 0;
+    try (SdvTokenizer t = tokenizer) {
+      while (t.nextLine()) {
+        t.rowType();
+        columns += t.split();
+      }
+    }
+    return columns;
+  }
+
+}
@@ -3,8 +3,12 @@ package net.sympower.parser.sdv;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.Temporal;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
 
-public abstract class AbstractDateTimeConverter<T extends Temporal> extends SdvTypeConverterWithFormatBase<T, SdvColumnFormat> {
+public abstract class AbstractDateTimeConverter<T extends Temporal> extends SdvTypeConverterWithFormatBase<T, SdvColumnFormat>
+  implements SdvCharTypeConverterWithFormat<T, SdvColumnFormat> {
+
+  private final ConcurrentHashMap<String, ConcurrentHashMap<Locale, DateTimeFormatter>> formatters = new ConcurrentHashMap<>();
 
   protected AbstractDateTimeConverter() {
     super(SdvColumnFormat.class);
@@ -13,16 +17,57 @@ public abstract class AbstractDateTimeConverter<T extends Temporal> extends SdvT
   @Override
   public T convert(String value, SdvColumnFormat pattern, Locale locale) {
     if (pattern != null) {
-      DateTimeFormatter fmt = DateTimeFormatter.ofPattern(pattern.value(), locale);
-      return parse(value, fmt);
+      return parse(value, getFormatter(pattern.value(), locale != null ? locale : Locale.getDefault()));
     }
     else {
       return parseDefault(value);
     }
   }
 
+  @Override
+  public void format(T value, SdvColumnFormat pattern, Locale locale, StringBuilder out) {
+    if (pattern != null) {
+      getFormatter(pattern.value(), locale != null ? locale : Locale.getDefault()).formatTo(value, out);
+    }
+    else {
+      formatDefault(value, out);
+    }
+  }
+
+  private DateTimeFormatter getFormatter(String pattern, Locale locale) {
+    ConcurrentHashMap<Locale, DateTimeFormatter> byLocale = formatters.get(pattern);
+    if (byLocale == null) {
+      ConcurrentHashMap<Locale, DateTimeFormatter> created = new ConcurrentHashMap<>();
+      byLocale = formatters.putIfAbsent(pattern, created);
+      if (byLocale == null) {
+        byLocale = created;
+      }
+    }
+    DateTimeFormatter fmt = byLocale.get(locale);
+    if (fmt == null) {
+      fmt = DateTimeFormatter.ofPattern(pattern, locale);
+      byLocale.putIfAbsent(locale, fmt);
+    }
+    return fmt;
+  }
+
+  /**
+   * No fast path by default.
+   */
+  @Override
+  public SdvCharTypeConverter<T> getCharConverter(SdvColumnFormat format, Locale locale) {
+    return null;
+  }
+
   protected abstract T parseDefault(String value);
 
+  /**
+   * Appends the value in the form parsed by {@link #parseDefault(String)}, by default its string form.
+   */
+  protected void formatDefault(T value, StringBuilder out) {
+    out.append(value);
+  }
+
   protected abstract T parse(String value, DateTimeFormatter fmt);
 
 }
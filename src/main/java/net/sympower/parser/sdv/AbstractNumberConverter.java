@@ -1,13 +1,34 @@
 package net.sympower.parser.sdv;
 
+import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.ParseException;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-public abstract class AbstractNumberConverter<T extends Number> extends SdvTypeConverterWithFormatBase<T, SdvDecimalFormat> {
+/**
+ * Base class of converters parsing numbers with {@link DecimalFormat}.
+ * <p>
+ * A decimal format is resolved once for each combination of format annotation, locale and sign of the value
+ * and is then cached. Since <code>DecimalFormat</code> is not thread-safe, each conversion borrows a copy of the
+ * resolved format from a small pool, so a converter can be used by concurrent parses. The pool is bounded and
+ * held by the converter, so threads (e.g. of a pooled executor) do not retain any formats.
+ * <p>
+ * Values are formatted as plain decimals if the effective format parses them the same way, otherwise with the
+ * decimal format.
+ */
+public abstract class AbstractNumberConverter<T extends Number> extends SdvTypeConverterWithFormatBase<T, SdvDecimalFormat>
+  implements SdvCharTypeConverterWithFormat<T, SdvDecimalFormat> {
 
-  private DecimalFormat defaultDecimalFormat;
+  private static final String MINUS = "-";
+  private static final int MAX_PLAIN_DIGITS = 18;
+
+  private volatile DecimalFormat defaultDecimalFormat;
+  private final ConcurrentHashMap<FormatKey, FormatPool> formats = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<FormatKey, Character> plainDecimalSeparators = new ConcurrentHashMap<>();
 
   protected AbstractNumberConverter() {
     super(SdvDecimalFormat.class);
@@ -15,47 +36,259 @@ public abstract class AbstractNumberConverter<T extends Number> extends SdvTypeC
 
   @Override
   public T convert(String value, SdvDecimalFormat pattern, Locale locale) {
-    DecimalFormat fmt;
-    if (this.defaultDecimalFormat != null) {
-      fmt = this.defaultDecimalFormat;
+    FormatPool pool = getFormats(pattern, locale, value.startsWith(MINUS));
+    if (pool == null) {
+      return parseDefault(value);
     }
-    else {
-      fmt = new DecimalFormat(pattern.value());
+    DecimalFormat fmt = pool.borrow();
+    try {
+      return parse(value, fmt);
+    }
+    catch (ParseException e) {
+      throw new IllegalArgumentException("Can not parse value to number: " + value, e);
+    }
+    finally {
+      pool.release(fmt);
+    }
+  }
+
+  @Override
+  public void format(T value, SdvDecimalFormat pattern, Locale locale, StringBuilder out) {
+    FormatKey key = new FormatKey(pattern, locale, false);
+    Character decimalSeparator = plainDecimalSeparators.get(key);
+    if (decimalSeparator == null) {
+      decimalSeparator = getPlainDecimalSeparator(pattern, locale);
+      plainDecimalSeparators.putIfAbsent(key, decimalSeparator);
+    }
+    if (decimalSeparator == 0 || !appendPlain(value, decimalSeparator, out)) {
+      formatWithFormat(value, pattern, locale, out);
+    }
+  }
+
+  /**
+   * Formats the value with the decimal format, with all its fraction digits.
+   */
+  void formatWithFormat(T value, SdvDecimalFormat pattern, Locale locale, StringBuilder out) {
+    boolean negative = value instanceof BigDecimal ? ((BigDecimal) value).signum() < 0 : value.doubleValue() < 0;
+    FormatPool pool = getFormats(pattern, locale, negative);
+    if (pool == null) {
+      out.append(value);
+      return;
+    }
+    DecimalFormat fmt = pool.borrow();
+    try {
+      fmt.setMaximumFractionDigits(Integer.MAX_VALUE);
+      out.append(fmt.format(value));
+    }
+    finally {
+      pool.release(fmt);
+    }
+  }
+
+  /**
+   * Appends the value as a plain decimal (see {@link DecimalChars#appendDecimal(long, int, char, StringBuilder)})
+   * if it is an integer, or a decimal of at most 18 digits.
+   *
+   * @return whether the value was appended
+   */
+  static boolean appendPlain(Number value, char decimalSeparator, StringBuilder out) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      out.append(value.longValue());
+      return true;
+    }
+    BigDecimal decimal;
+    if (value instanceof BigDecimal) {
+      decimal = (BigDecimal) value;
     }
-    if (fmt != null) {
-      if (locale != null) {
-        fmt.setDecimalFormatSymbols(new DecimalFormatSymbols(locale));
+    else if (value instanceof Double || value instanceof Float) {
+      double d = value.doubleValue();
+      if (Double.isNaN(d) || Double.isInfinite(d)) {
+        return false;
       }
-      if (pattern != null) {
-        if (pattern.decimalSeparator().length() > 0) {
-          fmt.getDecimalFormatSymbols().setDecimalSeparator(pattern.decimalSeparator().charAt(0));
-        }
-        if (pattern.groupingSeparator().length() > 0) {
-          fmt.getDecimalFormatSymbols().setGroupingSeparator(pattern.groupingSeparator().charAt(0));
-        }
+      decimal = value instanceof Float ? new BigDecimal(value.toString()) : BigDecimal.valueOf(d);
+    }
+    else {
+      return false;
+    }
+    if (decimal.scale() < 0 || decimal.precision() > MAX_PLAIN_DIGITS) {
+      return false;
+    }
+    DecimalChars.appendDecimal(decimal.unscaledValue().longValue(), decimal.scale(), decimalSeparator, out);
+    return true;
+  }
+
+  /**
+   * @return copies of the decimal format, or <code>null</code> if there is neither a default decimal format nor
+   * a format annotation
+   */
+  private FormatPool getFormats(SdvDecimalFormat pattern, Locale locale, boolean negative) {
+    if (this.defaultDecimalFormat == null && pattern == null) {
+      return null;
+    }
+    FormatKey key = new FormatKey(pattern, locale, negative);
+    FormatPool pool = formats.get(key);
+    if (pool == null) {
+      pool = new FormatPool(createFormat(pattern, locale, negative));
+      FormatPool existing = formats.putIfAbsent(key, pool);
+      if (existing != null) {
+        pool = existing;
       }
-      // Workaround for similar issue https://bugs.openjdk.java.net/browse/JDK-8189097
-      if (value.startsWith("-")) {
-        fmt.setNegativePrefix("-");
+    }
+    return pool;
+  }
+
+  private DecimalFormat createFormat(SdvDecimalFormat pattern, Locale locale, boolean negative) {
+    DecimalFormat fmt;
+    DecimalFormat defaultFormat = this.defaultDecimalFormat;
+    if (defaultFormat != null) {
+      fmt = (DecimalFormat) defaultFormat.clone();
+      if (pattern != null && pattern.value().length() > 0) {
+        fmt.applyPattern(pattern.value());
       }
-      try {
-        return parse(value, fmt);
+    }
+    else {
+      fmt = new DecimalFormat(pattern.value());
+    }
+    DecimalFormatSymbols symbols = locale != null ? DecimalFormatSymbols.getInstance(locale) : fmt.getDecimalFormatSymbols();
+    if (pattern != null) {
+      if (pattern.decimalSeparator().length() > 0) {
+        symbols.setDecimalSeparator(pattern.decimalSeparator().charAt(0));
       }
-      catch (ParseException e) {
-        throw new IllegalArgumentException("Can not parse value to number: " + value, e);
+      if (pattern.groupingSeparator().length() > 0) {
+        symbols.setGroupingSeparator(pattern.groupingSeparator().charAt(0));
       }
     }
-    else {
-      return parseDefault(value);
+    fmt.setDecimalFormatSymbols(symbols);
+    // Workaround for similar issue https://bugs.openjdk.java.net/browse/JDK-8189097
+    if (negative) {
+      fmt.setNegativePrefix(MINUS);
     }
+    return fmt;
+  }
+
+  /**
+   * Provides a fast path for plain decimal values (e.g. <code>-289,70</code>) if the effective format parses
+   * them the same way as plain decimals. Values with grouping separators etc. are left to the format.
+   */
+  @Override
+  public SdvCharTypeConverter<T> getCharConverter(SdvDecimalFormat pattern, Locale locale) {
+    char decimalSeparator = getPlainDecimalSeparator(pattern, locale);
+    if (decimalSeparator == 0) {
+      return null;
+    }
+    return (chars, offset, length) -> {
+      long unscaled = DecimalChars.parseUnscaled(chars, offset, length, decimalSeparator);
+      if (unscaled == DecimalChars.NOT_PARSED) {
+        return null;
+      }
+      return fromDecimal(unscaled, DecimalChars.scale(chars, offset, length, decimalSeparator), chars[offset] == '-');
+    };
+  }
+
+  /**
+   * @return decimal separator of the effective format if it parses plain decimals the same way as
+   * {@link DecimalChars}, otherwise <code>0</code>
+   */
+  char getPlainDecimalSeparator(SdvDecimalFormat pattern, Locale locale) {
+    if (this.defaultDecimalFormat == null && pattern == null) {
+      return 0;
+    }
+    DecimalFormat fmt = createFormat(pattern, locale, true);
+    return isPlainFormat(fmt) ? fmt.getDecimalFormatSymbols().getDecimalSeparator() : 0;
+  }
+
+  private static boolean isPlainFormat(DecimalFormat fmt) {
+    return fmt.getMultiplier() == 1 && !fmt.isParseIntegerOnly()
+      && fmt.getPositivePrefix().isEmpty() && fmt.getPositiveSuffix().isEmpty() && fmt.getNegativeSuffix().isEmpty();
+  }
+
+  /**
+   * Creates the value from a parsed plain decimal, for the fast path of {@link #getCharConverter(SdvDecimalFormat, Locale)}.
+   *
+   * @param negative whether the value had a minus sign (the unscaled value does not tell that for zero)
+   * @return the value, or <code>null</code> to parse the value with the decimal format instead
+   */
+  protected T fromDecimal(long unscaled, int scale, boolean negative) {
+    return null;
   }
 
   protected abstract T parseDefault(String value);
 
+  /**
+   * @param fmt decimal format used only by the current thread during the call, it may be modified
+   */
   protected abstract T parse(String value, DecimalFormat fmt) throws ParseException;
 
+  /**
+   * Sets the format used for values without a format annotation and as the base of the annotated formats.
+   * The format is copied, later changes to it have no effect.
+   */
   public void setDefaultDecimalFormat(DecimalFormat defaultDecimalFormat) {
-    this.defaultDecimalFormat = defaultDecimalFormat;
+    this.defaultDecimalFormat = defaultDecimalFormat != null ? (DecimalFormat) defaultDecimalFormat.clone() : null;
+    this.formats.clear();
+    this.plainDecimalSeparators.clear();
+  }
+
+  /**
+   * Copies of a resolved format in slots selected by thread: a conversion takes the copy of its slot, or clones
+   * the prototype if the slot is empty, and puts it back afterwards. So a copy is used by one thread at a time, and
+   * at most one copy per slot is kept.
+   */
+  private static final class FormatPool {
+
+    private static final int SLOTS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) * 2;
+
+    private final DecimalFormat prototype;
+    private final AtomicReferenceArray<DecimalFormat> slots = new AtomicReferenceArray<>(SLOTS);
+
+    FormatPool(DecimalFormat prototype) {
+      this.prototype = prototype;
+    }
+
+    DecimalFormat borrow() {
+      DecimalFormat fmt = slots.getAndSet(slot(), null);
+      return fmt != null ? fmt : (DecimalFormat) prototype.clone();
+    }
+
+    void release(DecimalFormat fmt) {
+      slots.compareAndSet(slot(), null, fmt);
+    }
+
+    private static int slot() {
+      return (int) Thread.currentThread().getId() & (SLOTS - 1);
+    }
+
+  }
+
+  private static final class FormatKey {
+
+    private final SdvDecimalFormat pattern;
+    private final Locale locale;
+    private final boolean negative;
+
+    FormatKey(SdvDecimalFormat pattern, Locale locale, boolean negative) {
+      this.pattern = pattern;
+      this.locale = locale;
+      this.negative = negative;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof FormatKey)) {
+        return false;
+      }
+      FormatKey other = (FormatKey) o;
+      return negative == other.negative && Objects.equals(pattern, other.pattern) && Objects.equals(locale, other.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(pattern, locale, negative);
+    }
+
   }
 
 }
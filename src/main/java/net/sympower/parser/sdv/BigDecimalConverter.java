@@ -11,6 +11,11 @@ public class BigDecimalConverter extends AbstractNumberConverter<BigDecimal> {
     return new BigDecimal(value);
   }
 
+  @Override
+  protected BigDecimal fromDecimal(long unscaled, int scale, boolean negative) {
+    return BigDecimal.valueOf(unscaled, scale);
+  }
+
   protected BigDecimal parse(String value, DecimalFormat fmt) throws ParseException {
     fmt.setParseBigDecimal(true);
     return (BigDecimal) fmt.parse(value);
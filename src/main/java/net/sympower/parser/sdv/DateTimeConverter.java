@@ -1,18 +1,46 @@
 package net.sympower.parser.sdv;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.Temporal;
+import java.util.Locale;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 public class DateTimeConverter<T extends Temporal> extends AbstractDateTimeConverter<T> {
 
+  private static final String ISO_LOCAL_DATE_PATTERN = "uuuu-MM-dd";
+
+  private final Class<T> type;
   private final Function<String, T> defaultConverter;
   private final BiFunction<String, DateTimeFormatter, T> withFormatConverter;
+  private final DateTimeFormatter defaultFormatter;
 
   public DateTimeConverter(Function<String, T> defaultConverter, BiFunction<String, DateTimeFormatter, T> withFormatConverter) {
+    this(null, defaultConverter, withFormatConverter);
+  }
+
+  /**
+   * @param type if given, fixed width numeric patterns of <code>LocalDate</code>, <code>LocalTime</code> and
+   *             <code>LocalDateTime</code> values are parsed directly from characters
+   */
+  public DateTimeConverter(Class<T> type, Function<String, T> defaultConverter, BiFunction<String, DateTimeFormatter, T> withFormatConverter) {
+    this.type = type;
     this.defaultConverter = defaultConverter;
     this.withFormatConverter = withFormatConverter;
+    this.defaultFormatter = getIsoFormatter(type);
+  }
+
+  private static DateTimeFormatter getIsoFormatter(Class<?> type) {
+    if (type == LocalDate.class) {
+      return DateTimeFormatter.ISO_LOCAL_DATE;
+    }
+    if (type == LocalTime.class) {
+      return DateTimeFormatter.ISO_LOCAL_TIME;
+    }
+    return type == LocalDateTime.class ? DateTimeFormatter.ISO_LOCAL_DATE_TIME : null;
   }
 
   @Override
@@ -20,8 +48,33 @@ public class DateTimeConverter<T extends Temporal> extends AbstractDateTimeConve
     return defaultConverter.apply(value);
   }
 
+  /**
+   * Formats <code>LocalDate</code>, <code>LocalTime</code> and <code>LocalDateTime</code> values directly to
+   * the output, in the ISO format they are parsed with.
+   */
+  @Override
+  protected void formatDefault(T value, StringBuilder out) {
+    if (this.defaultFormatter != null) {
+      this.defaultFormatter.formatTo(value, out);
+    }
+    else {
+      super.formatDefault(value, out);
+    }
+  }
+
   protected T parse(String value, DateTimeFormatter fmt) {
     return withFormatConverter.apply(value, fmt);
   }
 
+  @Override
+  public SdvCharTypeConverter<T> getCharConverter(SdvColumnFormat format, Locale locale) {
+    if (this.type == null) {
+      return null;
+    }
+    if (format != null) {
+      return FixedDateTimePattern.compile(format.value(), this.type);
+    }
+    return this.type == LocalDate.class ? FixedDateTimePattern.compile(ISO_LOCAL_DATE_PATTERN, this.type) : null;
+  }
+
 }
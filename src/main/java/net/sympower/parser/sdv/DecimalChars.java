@@ -0,0 +1,159 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Parsing of plain integer and decimal numbers (optional leading minus sign, digits and an optional
+ * decimal separator) from characters, without creating intermediate objects. Anything else, including
+ * values which do not fit to 18 digits, is reported as {@link #NOT_PARSED} so the caller can fall back
+ * to the general purpose parsing. Plain decimals are also written this way (see {@link #appendDecimal}).
+ */
+final class DecimalChars {
+
+  static final long NOT_PARSED = Long.MIN_VALUE;
+
+  private static final int MAX_DIGITS = 18;
+  private static final long MAX_EXACT_DOUBLE = 1L << 53;
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  private DecimalChars() {
+  }
+
+  /**
+   * Parses an integer with an optional sign ('+' or '-').
+   */
+  static long parseLong(char[] chars, int offset, int length) {
+    int i = offset;
+    int end = offset + length;
+    boolean negative = false;
+    if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+      negative = chars[i] == '-';
+      i++;
+    }
+    if (i == end || end - i > MAX_DIGITS) {
+      return NOT_PARSED;
+    }
+    long value = 0;
+    for (; i < end; i++) {
+      int digit = chars[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return NOT_PARSED;
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Checks that the value is an integer within the range as {@link Long#parseLong(String)} would parse it: an
+   * optional sign ('+' or '-') followed by decimal digits of any script.
+   */
+  static boolean isInteger(String value, long min, long max) {
+    int i = 0;
+    int end = value.length();
+    boolean negative = false;
+    if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+      negative = value.charAt(i) == '-';
+      i++;
+    }
+    if (i == end) {
+      return false;
+    }
+    // accumulated negatively, like Long.parseLong, to cover Long.MIN_VALUE
+    long result = 0;
+    for (; i < end; i++) {
+      int digit = Character.digit(value.charAt(i), 10);
+      if (digit < 0 || result < Long.MIN_VALUE / 10) {
+        return false;
+      }
+      result *= 10;
+      if (result < Long.MIN_VALUE + digit) {
+        return false;
+      }
+      result -= digit;
+    }
+    return negative ? result >= min : result != Long.MIN_VALUE && -result <= max;
+  }
+
+  /**
+   * Parses a decimal number with an optional leading '-' and returns its unscaled value
+   * (all digits without the decimal separator). Use {@link #scale(char[], int, int, char)} to get the scale.
+   */
+  static long parseUnscaled(char[] chars, int offset, int length, char decimalSeparator) {
+    int i = offset;
+    int end = offset + length;
+    boolean negative = false;
+    if (i < end && chars[i] == '-') {
+      negative = true;
+      i++;
+    }
+    long value = 0;
+    int digits = 0;
+    int separatorIndex = -1;
+    for (; i < end; i++) {
+      char c = chars[i];
+      if (c == decimalSeparator && separatorIndex < 0) {
+        separatorIndex = i;
+        continue;
+      }
+      int digit = c - '0';
+      if (digit < 0 || digit > 9 || ++digits > MAX_DIGITS) {
+        return NOT_PARSED;
+      }
+      value = value * 10 + digit;
+    }
+    if (digits == 0 || separatorIndex == offset + (negative ? 1 : 0) || separatorIndex == end - 1) {
+      return NOT_PARSED;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Appends the plain decimal of the unscaled value and scale, the reverse of
+   * {@link #parseUnscaled(char[], int, int, char)}. Values below one get a leading zero.
+   *
+   * @param unscaled value of at most 18 digits
+   */
+  static void appendDecimal(long unscaled, int scale, char decimalSeparator, StringBuilder out) {
+    if (unscaled < 0) {
+      out.append('-');
+    }
+    int start = out.length();
+    out.append(Math.abs(unscaled));
+    if (scale > 0) {
+      for (int digits = out.length() - start; digits <= scale; digits++) {
+        out.insert(start, '0');
+      }
+      out.insert(out.length() - scale, decimalSeparator);
+    }
+  }
+
+  /**
+   * @return number of digits after the decimal separator
+   */
+  static int scale(char[] chars, int offset, int length, char decimalSeparator) {
+    for (int i = offset + length - 1; i >= offset; i--) {
+      if (chars[i] == decimalSeparator) {
+        return offset + length - 1 - i;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Converts an unscaled value and scale to the nearest double, if that can be done exactly with a single
+   * division (both operands are exactly representable).
+   *
+   * @return the value, or {@link Double#NaN} if it can not be computed exactly this way
+   */
+  static double toDouble(long unscaled, int scale, boolean negative) {
+    long abs = Math.abs(unscaled);
+    if (abs > MAX_EXACT_DOUBLE || scale >= POWERS_OF_TEN.length) {
+      return Double.NaN;
+    }
+    double value = abs / POWERS_OF_TEN[scale];
+    return negative ? -value : value;
+  }
+
+}
@@ -0,0 +1,138 @@
+package net.sympower.parser.sdv;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.Temporal;
+
+/**
+ * Parser for fixed width, numeric date/time patterns (e.g. <code>dd.MM.yyyy</code> or <code>HH:mm</code>) which
+ * reads the fields directly from characters. Supports <code>LocalDate</code>, <code>LocalTime</code> and
+ * <code>LocalDateTime</code> and the pattern letters <code>yyyy</code>, <code>uuuu</code>, <code>MM</code>,
+ * <code>dd</code>, <code>HH</code>, <code>mm</code> and <code>ss</code>; other patterns are not compiled.
+ * <p>
+ * Values which do not match the pattern exactly or are not valid dates/times return <code>null</code>,
+ * so the caller can fall back to {@link java.time.format.DateTimeFormatter} for them.
+ */
+final class FixedDateTimePattern<T extends Temporal> implements SdvCharTypeConverter<T> {
+
+  private final Class<T> type;
+  private final char[] pattern;
+
+  private FixedDateTimePattern(Class<T> type, char[] pattern) {
+    this.type = type;
+    this.pattern = pattern;
+  }
+
+  /**
+   * @return compiled pattern, or <code>null</code> if the pattern or the type is not supported
+   */
+  static <T extends Temporal> FixedDateTimePattern<T> compile(String pattern, Class<T> type) {
+    if (pattern == null || !(type == LocalDate.class || type == LocalTime.class || type == LocalDateTime.class)) {
+      return null;
+    }
+    char[] chars = pattern.toCharArray();
+    String fields = "";
+    int i = 0;
+    while (i < chars.length) {
+      char c = chars[i];
+      if (c == '\'') {
+        return null;
+      }
+      if (!Character.isLetter(c)) {
+        i++;
+        continue;
+      }
+      int count = 0;
+      while (i < chars.length && chars[i] == c) {
+        count++;
+        i++;
+      }
+      int expected = c == 'y' || c == 'u' ? 4 : 2;
+      if ("yuMdHms".indexOf(c) < 0 || count != expected || fields.indexOf(c) >= 0) {
+        return null;
+      }
+      fields += c;
+    }
+    boolean date = fields.indexOf('M') >= 0 && fields.indexOf('d') >= 0
+      && (fields.indexOf('y') >= 0 ^ fields.indexOf('u') >= 0);
+    boolean time = fields.indexOf('H') >= 0 && fields.indexOf('m') >= 0;
+    boolean anyDate = fields.indexOf('y') >= 0 || fields.indexOf('u') >= 0 || fields.indexOf('M') >= 0 || fields.indexOf('d') >= 0;
+    boolean anyTime = fields.indexOf('H') >= 0 || fields.indexOf('m') >= 0 || fields.indexOf('s') >= 0;
+    if (type == LocalDate.class && !(date && !anyTime)
+      || type == LocalTime.class && !(time && !anyDate)
+      || type == LocalDateTime.class && !(date && time)) {
+      return null;
+    }
+    return new FixedDateTimePattern<>(type, chars);
+  }
+
+  @Override
+  public T convert(char[] chars, int offset, int length) {
+    if (length != pattern.length) {
+      return null;
+    }
+    int year = 0;
+    int month = 0;
+    int day = 0;
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    boolean yearOfEra = false;
+    for (int i = 0; i < length; i++) {
+      char p = pattern[i];
+      char c = chars[offset + i];
+      if (!Character.isLetter(p)) {
+        if (c != p) {
+          return null;
+        }
+        continue;
+      }
+      int digit = c - '0';
+      if (digit < 0 || digit > 9) {
+        return null;
+      }
+      switch (p) {
+        case 'y':
+          yearOfEra = true;
+          year = year * 10 + digit;
+          break;
+        case 'u':
+          year = year * 10 + digit;
+          break;
+        case 'M':
+          month = month * 10 + digit;
+          break;
+        case 'd':
+          day = day * 10 + digit;
+          break;
+        case 'H':
+          hour = hour * 10 + digit;
+          break;
+        case 'm':
+          minute = minute * 10 + digit;
+          break;
+        default:
+          second = second * 10 + digit;
+          break;
+      }
+    }
+    if (yearOfEra && year == 0) {
+      return null;
+    }
+    try {
+      if (type == LocalDate.class) {
+        return type.cast(LocalDate.of(year, month, day));
+      }
+      if (type == LocalTime.class) {
+        return type.cast(LocalTime.of(hour, minute, second));
+      }
+      return type.cast(LocalDateTime.of(year, month, day, hour, minute, second));
+    }
+    catch (DateTimeException e) {
+      return null;
+    }
+  }
+
+}
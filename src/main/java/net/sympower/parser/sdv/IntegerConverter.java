@@ -0,0 +1,24 @@
+package net.sympower.parser.sdv;
+
+public class IntegerConverter implements SdvTypeConverter<Integer>, SdvCharTypeConverter<Integer> {
+
+  @Override
+  public Integer convert(String value) {
+    return Integer.valueOf(value);
+  }
+
+  @Override
+  public Integer convert(char[] chars, int offset, int length) {
+    long value = DecimalChars.parseLong(chars, offset, length);
+    if (value == DecimalChars.NOT_PARSED || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      return null;
+    }
+    return Integer.valueOf((int) value);
+  }
+
+  @Override
+  public void format(Integer value, StringBuilder out) {
+    out.append(value.intValue());
+  }
+
+}
@@ -0,0 +1,21 @@
+package net.sympower.parser.sdv;
+
+public class LongConverter implements SdvTypeConverter<Long>, SdvCharTypeConverter<Long> {
+
+  @Override
+  public Long convert(String value) {
+    return Long.valueOf(value);
+  }
+
+  @Override
+  public Long convert(char[] chars, int offset, int length) {
+    long value = DecimalChars.parseLong(chars, offset, length);
+    return value == DecimalChars.NOT_PARSED ? null : Long.valueOf(value);
+  }
+
+  @Override
+  public void format(Long value, StringBuilder out) {
+    out.append(value.longValue());
+  }
+
+}
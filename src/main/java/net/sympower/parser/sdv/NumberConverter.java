@@ -19,6 +19,12 @@ public class NumberConverter<T extends Number> extends AbstractNumberConverter<T
     return defaultConverter.apply(value);
   }
 
+  @Override
+  protected T fromDecimal(long unscaled, int scale, boolean negative) {
+    double value = DecimalChars.toDouble(unscaled, scale, negative);
+    return Double.isNaN(value) ? null : numberConverter.apply(value);
+  }
+
   protected T parse(String value, DecimalFormat fmt) throws ParseException {
     return numberConverter.apply(fmt.parse(value));
   }
@@ -0,0 +1,51 @@
+package net.sympower.parser.sdv;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default executor of asynchronous parses (see {@link SdvReader#defaultAsyncExecutor()}). On a JDK with virtual
+ * threads (21+), each parse runs on a new virtual thread; the executor is looked up reflectively, as the library is
+ * compiled for Java 8. Otherwise parses run on a cached pool of daemon threads, as they block on reading the input.
+ */
+final class SdvAsyncExecutors {
+
+  private static final String VIRTUAL_THREAD_EXECUTOR_METHOD = "newVirtualThreadPerTaskExecutor";
+
+  private SdvAsyncExecutors() {
+  }
+
+  static Executor getDefault() {
+    return Holder.DEFAULT;
+  }
+
+  private static ExecutorService createVirtualThreadExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR_METHOD).invoke(null);
+    }
+    catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static ExecutorService createThreadPool() {
+    AtomicInteger count = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "sdv-parser-async-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    return Executors.newCachedThreadPool(threadFactory);
+  }
+
+  private static final class Holder {
+
+    private static final ExecutorService VIRTUAL_EXECUTOR = createVirtualThreadExecutor();
+    static final Executor DEFAULT = VIRTUAL_EXECUTOR != null ? VIRTUAL_EXECUTOR : createThreadPool();
+
+  }
+
+}
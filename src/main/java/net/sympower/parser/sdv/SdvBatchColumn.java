@@ -0,0 +1,461 @@
+package net.sympower.parser.sdv;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Values of one constructor parameter in a {@link SdvColumnBatch}, stored in a growing array.
+ * Plain numbers are parsed from the characters of the tokenizer, other values go through the column binding.
+ */
+abstract class SdvBatchColumn {
+
+  static final int INITIAL_CAPACITY = 1024;
+
+  private final SdvColumnType type;
+  private final BitSet nulls = new BitSet();
+
+  SdvBatchColumn(SdvColumnType type) {
+    this.type = type;
+  }
+
+  static SdvBatchColumn create(Class<?> type) {
+    if (type == Integer.TYPE || type == Integer.class || type == Short.TYPE || type == Short.class
+      || type == Byte.TYPE || type == Byte.class) {
+      return new IntColumn();
+    }
+    if (type == Long.TYPE || type == Long.class) {
+      return new LongColumn();
+    }
+    if (type == Double.TYPE || type == Double.class) {
+      return new DoubleColumn(false);
+    }
+    if (type == Float.TYPE || type == Float.class) {
+      return new DoubleColumn(true);
+    }
+    if (type == BigDecimal.class) {
+      return new DecimalColumn();
+    }
+    if (type == LocalDate.class) {
+      return new DateColumn();
+    }
+    if (type == String.class) {
+      return new StringColumn();
+    }
+    return new ObjectColumn();
+  }
+
+  SdvColumnType getType() {
+    return type;
+  }
+
+  boolean isNull(int row) {
+    return nulls.get(row);
+  }
+
+  BitSet getNulls() {
+    return nulls;
+  }
+
+  void addNull(int row) {
+    ensureCapacity(row + 1);
+    nulls.set(row);
+  }
+
+  /**
+   * Adds a (non-empty) column of the current line of the tokenizer.
+   */
+  abstract void add(int row, SdvColumnBinding binding, SdvTokenizer tokenizer, int column, Locale locale);
+
+  abstract void ensureCapacity(int capacity);
+
+  /**
+   * Shrinks the array to the number of rows.
+   */
+  abstract void trim(int size);
+
+  /**
+   * @return value of the row as an object, or <code>null</code>
+   */
+  abstract Object get(int row);
+
+  static int grow(int length, int capacity) {
+    return Math.max(capacity, length * 2);
+  }
+
+  static final class IntColumn extends SdvBatchColumn {
+
+    int[] values = new int[INITIAL_CAPACITY];
+
+    IntColumn() {
+      super(SdvColumnType.INT);
+    }
+
+    @Override
+    void add(int row, SdvColumnBinding binding, SdvTokenizer tokenizer, int column, Locale locale) {
+      ensureCapacity(row + 1);
+      if (binding.isConvertedBy(IntegerConverter.class)) {
+        long value = tokenizer.parseColumn(column, DecimalChars::parseLong);
+        if (value != DecimalChars.NOT_PARSED && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+          values[row] = (int) value;
+          return;
+        }
+      }
+      values[row] = ((Number) binding.convertValue(tokenizer, column, locale)).intValue();
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      if (values.length < capacity) {
+        this.values = Arrays.copyOf(values, grow(values.length, capacity));
+      }
+    }
+
+    @Override
+    void trim(int size) {
+      this.values = Arrays.copyOf(values, size);
+    }
+
+    @Override
+    Object get(int row) {
+      return isNull(row) ? null : values[row];
+    }
+
+  }
+
+  static final class LongColumn extends SdvBatchColumn {
+
+    long[] values = new long[INITIAL_CAPACITY];
+
+    LongColumn() {
+      super(SdvColumnType.LONG);
+    }
+
+    @Override
+    void add(int row, SdvColumnBinding binding, SdvTokenizer tokenizer, int column, Locale locale) {
+      ensureCapacity(row + 1);
+      if (binding.isConvertedBy(LongConverter.class)) {
+        long value = tokenizer.parseColumn(column, DecimalChars::parseLong);
+        if (value != DecimalChars.NOT_PARSED) {
+          values[row] = value;
+          return;
+        }
+      }
+      values[row] = ((Number) binding.convertValue(tokenizer, column, locale)).longValue();
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      if (values.length < capacity) {
+        this.values = Arrays.copyOf(values, grow(values.length, capacity));
+      }
+    }
+
+    @Override
+    void trim(int size) {
+      this.values = Arrays.copyOf(values, size);
+    }
+
+    @Override
+    Object get(int row) {
+      return isNull(row) ? null : values[row];
+    }
+
+  }
+
+  static final class DoubleColumn extends SdvBatchColumn {
+
+    private final boolean floatPrecision;
+
+    double[] values = new double[INITIAL_CAPACITY];
+
+    /**
+     * @param floatPrecision whether the values are rounded to <code>float</code>, like the values of the converter
+     */
+    DoubleColumn(boolean floatPrecision) {
+      super(SdvColumnType.DOUBLE);
+      this.floatPrecision = floatPrecision;
+    }
+
+    @Override
+    void add(int row, SdvColumnBinding binding, SdvTokenizer tokenizer, int column, Locale locale) {
+      ensureCapacity(row + 1);
+      SdvTokenizer.LongParser unscaledParser = binding.getUnscaledParser();
+      if (unscaledParser != null) {
+        long unscaled = tokenizer.parseColumn(column, unscaledParser);
+        // zero is left to the converter, which keeps the sign of "-0"
+        if (unscaled != DecimalChars.NOT_PARSED && unscaled != 0) {
+          int scale = (int) tokenizer.parseColumn(column, binding.getScaleParser());
+          double value = DecimalChars.toDouble(unscaled, scale, unscaled < 0);
+          if (!Double.isNaN(value)) {
+            values[row] = floatPrecision ? (float) value : value;
+            return;
+          }
+        }
+      }
+      values[row] = ((Number) binding.convertValue(tokenizer, column, locale)).doubleValue();
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      if (values.length < capacity) {
+        this.values = Arrays.copyOf(values, grow(values.length, capacity));
+      }
+    }
+
+    @Override
+    void trim(int size) {
+      this.values = Arrays.copyOf(values, size);
+    }
+
+    @Override
+    Object get(int row) {
+      return isNull(row) ? null : values[row];
+    }
+
+  }
+
+  /**
+   * Decimals as unscaled values with the largest scale of the column so far; the values parsed earlier are
+   * rescaled when a value with a larger scale is added. The scale of each value is kept too, so the values are
+   * returned exactly as converted. Once a value does not fit to a long with the scale of the column, all the
+   * values are kept as <code>BigDecimal</code>s instead.
+   */
+  static final class DecimalColumn extends SdvBatchColumn {
+
+    long[] values = new long[INITIAL_CAPACITY];
+    int[] scales = new int[INITIAL_CAPACITY];
+    int scale;
+    BigDecimal[] decimals;
+
+    DecimalColumn() {
+      super(SdvColumnType.DECIMAL);
+    }
+
+    @Override
+    void add(int row, SdvColumnBinding binding, SdvTokenizer tokenizer, int column, Locale locale) {
+      ensureCapacity(row + 1);
+      SdvTokenizer.LongParser unscaledParser = binding.getUnscaledParser();
+      if (unscaledParser != null && this.decimals == null) {
+        long unscaled = tokenizer.parseColumn(column, unscaledParser);
+        if (unscaled != DecimalChars.NOT_PARSED && set(row, unscaled, (int) tokenizer.parseColumn(column, binding.getScaleParser()))) {
+          return;
+        }
+      }
+      BigDecimal value = (BigDecimal) binding.convertValue(tokenizer, column, locale);
+      if (this.decimals == null && (value.scale() < 0 || value.unscaledValue().bitLength() >= Long.SIZE
+        || !set(row, value.unscaledValue().longValue(), value.scale()))) {
+        toDecimals(row);
+      }
+      if (this.decimals != null) {
+        this.decimals[row] = value;
+      }
+    }
+
+    /**
+     * @return whether the value fits to a long with the scale of the column
+     */
+    private boolean set(int row, long unscaled, int valueScale) {
+      try {
+        if (valueScale > this.scale) {
+          long factor = powerOfTen(valueScale - this.scale);
+          long[] rescaled = new long[values.length];
+          for (int i = 0; i < row; i++) {
+            rescaled[i] = Math.multiplyExact(values[i], factor);
+          }
+          // rescaled into a copy, so the values are kept as they are if one does not fit
+          this.values = rescaled;
+          this.scale = valueScale;
+        }
+        values[row] = valueScale < this.scale ? Math.multiplyExact(unscaled, powerOfTen(this.scale - valueScale)) : unscaled;
+        scales[row] = valueScale;
+        return true;
+      }
+      catch (ArithmeticException e) {
+        return false;
+      }
+    }
+
+    private void toDecimals(int row) {
+      BigDecimal[] converted = new BigDecimal[values.length];
+      for (int i = 0; i < row; i++) {
+        converted[i] = (BigDecimal) get(i);
+      }
+      this.decimals = converted;
+      this.values = null;
+      this.scales = null;
+    }
+
+    private static long powerOfTen(int exponent) {
+      long value = 1;
+      for (int i = 0; i < exponent; i++) {
+        value = Math.multiplyExact(value, 10);
+      }
+      return value;
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      if (decimals != null) {
+        if (decimals.length < capacity) {
+          this.decimals = Arrays.copyOf(decimals, grow(decimals.length, capacity));
+        }
+      }
+      else if (values.length < capacity) {
+        this.values = Arrays.copyOf(values, grow(values.length, capacity));
+        this.scales = Arrays.copyOf(scales, values.length);
+      }
+    }
+
+    @Override
+    void trim(int size) {
+      if (decimals != null) {
+        this.decimals = Arrays.copyOf(decimals, size);
+      }
+      else {
+        this.values = Arrays.copyOf(values, size);
+        this.scales = Arrays.copyOf(scales, size);
+      }
+    }
+
+    @Override
+    Object get(int row) {
+      if (isNull(row)) {
+        return null;
+      }
+      if (decimals != null) {
+        return decimals[row];
+      }
+      BigDecimal value = BigDecimal.valueOf(values[row], scale);
+      // only zeros were appended by rescaling, so this never rounds
+      return scales[row] == scale ? value : value.setScale(scales[row]);
+    }
+
+  }
+
+  static final class DateColumn extends SdvBatchColumn {
+
+    int[] values = new int[INITIAL_CAPACITY];
+
+    DateColumn() {
+      super(SdvColumnType.DATE);
+    }
+
+    @Override
+    void add(int row, SdvColumnBinding binding, SdvTokenizer tokenizer, int column, Locale locale) {
+      ensureCapacity(row + 1);
+      values[row] = (int) ((LocalDate) binding.convertValue(tokenizer, column, locale)).toEpochDay();
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      if (values.length < capacity) {
+        this.values = Arrays.copyOf(values, grow(values.length, capacity));
+      }
+    }
+
+    @Override
+    void trim(int size) {
+      this.values = Arrays.copyOf(values, size);
+    }
+
+    @Override
+    Object get(int row) {
+      return isNull(row) ? null : LocalDate.ofEpochDay(values[row]);
+    }
+
+  }
+
+  /**
+   * Dictionary encoded strings, nulls have the code <code>-1</code>.
+   */
+  static final class StringColumn extends SdvBatchColumn {
+
+    int[] codes = new int[INITIAL_CAPACITY];
+    final List<String> dictionary = new ArrayList<>();
+    private final HashMap<String, Integer> codesByValue = new HashMap<>();
+
+    StringColumn() {
+      super(SdvColumnType.STRING);
+    }
+
+    @Override
+    void add(int row, SdvColumnBinding binding, SdvTokenizer tokenizer, int column, Locale locale) {
+      add(row, (String) binding.convertValue(tokenizer, column, locale));
+    }
+
+    void add(int row, String value) {
+      ensureCapacity(row + 1);
+      Integer code = codesByValue.get(value);
+      if (code == null) {
+        code = dictionary.size();
+        dictionary.add(value);
+        codesByValue.put(value, code);
+      }
+      codes[row] = code;
+    }
+
+    @Override
+    void addNull(int row) {
+      super.addNull(row);
+      codes[row] = -1;
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      if (codes.length < capacity) {
+        this.codes = Arrays.copyOf(codes, grow(codes.length, capacity));
+      }
+    }
+
+    @Override
+    void trim(int size) {
+      this.codes = Arrays.copyOf(codes, size);
+    }
+
+    @Override
+    Object get(int row) {
+      return isNull(row) ? null : dictionary.get(codes[row]);
+    }
+
+  }
+
+  static final class ObjectColumn extends SdvBatchColumn {
+
+    Object[] values = new Object[INITIAL_CAPACITY];
+
+    ObjectColumn() {
+      super(SdvColumnType.OBJECT);
+    }
+
+    @Override
+    void add(int row, SdvColumnBinding binding, SdvTokenizer tokenizer, int column, Locale locale) {
+      ensureCapacity(row + 1);
+      values[row] = binding.convertValue(tokenizer, column, locale);
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      if (values.length < capacity) {
+        this.values = Arrays.copyOf(values, grow(values.length, capacity));
+      }
+    }
+
+    @Override
+    void trim(int size) {
+      this.values = Arrays.copyOf(values, size);
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+  }
+
+}
@@ -0,0 +1,58 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Looks up generated binders ({@link SdvRowBinder}, {@link SdvDocumentBinder}) by naming convention:
+ * the binder of <code>com.example.Outer$Row</code> is <code>com.example.Outer_Row_SdvBinder</code>.
+ */
+final class SdvBinders {
+
+  static final String BINDER_SUFFIX = "_SdvBinder";
+
+  private static final Object NO_BINDER = new Object();
+
+  private static final ClassValue<Object> BINDERS = new ClassValue<Object>() {
+    @Override
+    protected Object computeValue(Class<?> type) {
+      return loadBinder(type);
+    }
+  };
+
+  private SdvBinders() {
+  }
+
+  static <T> SdvRowBinder<T> getRowBinder(Class<T> rowType) {
+    Object binder = BINDERS.get(rowType);
+    return binder instanceof SdvRowBinder ? (SdvRowBinder<T>) binder : null;
+  }
+
+  static <T> SdvDocumentBinder<T> getDocumentBinder(Class<T> documentType) {
+    Object binder = BINDERS.get(documentType);
+    return binder instanceof SdvDocumentBinder ? (SdvDocumentBinder<T>) binder : null;
+  }
+
+  static String getBinderName(Class<?> type) {
+    return type.getName().replace('$', '_') + BINDER_SUFFIX;
+  }
+
+  private static Object loadBinder(Class<?> type) {
+    ClassLoader classLoader = type.getClassLoader();
+    if (classLoader == null) {
+      return NO_BINDER;
+    }
+    Class<?> binderClass;
+    try {
+      binderClass = Class.forName(getBinderName(type), true, classLoader);
+    }
+    catch (ClassNotFoundException | LinkageError e) {
+      return NO_BINDER;
+    }
+    try {
+      return binderClass.getConstructor().newInstance();
+    }
+    catch (ReflectiveOperationException e) {
+      throw new SdvParsingReflectionException(
+        String.format("Error while instantiating generated binder %s", binderClass.getName()), e);
+    }
+  }
+
+}
@@ -0,0 +1,321 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tokenizer working directly on the bytes of a (range of a) file, which is memory-mapped in windows if it is at
+ * least as large as the mapping threshold, and otherwise read in windows to a buffer.
+ * <p>
+ * Mapped windows are released only when they are garbage collected (Java 8 has no API to unmap them), and until
+ * then they hold address space and keep the file open, which on Windows prevents deleting or replacing it. So small
+ * files, for which mapping does not pay off, are read instead. A mapped file which is truncated while being parsed
+ * fails the parse with an {@link IOException}.
+ * <p>
+ * Lines and columns are found on bytes, which requires an ASCII compatible charset (see
+ * {@link #isAsciiCompatible(Charset)}). Only the columns which are converted to strings are decoded,
+ * columns converted by a {@link SdvCharTypeConverter} are just widened to characters if they are ASCII.
+ */
+class SdvByteTokenizer extends SdvTokenizer {
+
+  static final long DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+  static final long DEFAULT_MAPPED_THRESHOLD = 1024 * 1024;
+  private static final int READ_WINDOW_SIZE = 64 * 1024;
+  private static final int INITIAL_SCRATCH_SIZE = 256;
+
+  private final FileChannel channel;
+  private final boolean closeChannel;
+  private final long start;
+  private final long end;
+  private final long windowSize;
+  private final boolean mapped;
+  private final Charset charset;
+  private final byte columnDelimiter;
+  private final byte[] commentPrefix;
+
+  private ByteBuffer window;
+  private long windowStart;
+  private int pos;
+  private int limit;
+  private boolean skipLineFeed;
+
+  private long lineNumber;
+  private int lineStart;
+  private int lineEnd;
+  private String rowType;
+
+  private byte[] bytes = new byte[INITIAL_SCRATCH_SIZE];
+  private char[] chars = new char[INITIAL_SCRATCH_SIZE];
+
+  /**
+   * @param closeChannel whether closing the tokenizer closes the channel
+   * @param mappedThreshold size of the smallest range which is memory-mapped
+   */
+  SdvByteTokenizer(FileChannel channel, long start, long end, boolean closeChannel, long windowSize, long mappedThreshold,
+                   Charset charset, char columnDelimiter, String commentPrefix) {
+    this.channel = channel;
+    this.closeChannel = closeChannel;
+    this.start = start;
+    this.windowStart = start;
+    this.end = end;
+    this.mapped = end - start >= mappedThreshold;
+    this.windowSize = Math.min(windowSize, this.mapped ? Integer.MAX_VALUE : READ_WINDOW_SIZE);
+    this.charset = charset;
+    this.columnDelimiter = (byte) columnDelimiter;
+    this.commentPrefix = commentPrefix.getBytes(charset);
+  }
+
+  /**
+   * @return whether text in the charset can be tokenized on bytes (UTF-8 and ASCII compatible single byte charsets)
+   */
+  static boolean isAsciiCompatible(Charset charset) {
+    return charset.equals(StandardCharsets.UTF_8) || (charset.newEncoder().maxBytesPerChar() == 1.0f
+      && Arrays.equals("\n\r;#".getBytes(charset), new byte[] {'\n', '\r', ';', '#'}));
+  }
+
+  @Override
+  boolean nextLine() throws IOException {
+    try {
+      return findNextLine();
+    }
+    catch (InternalError e) {
+      // the JVM reports a fault accessing a mapped window, e.g. of a file truncated after mapping, as an error
+      if (this.mapped) {
+        throw new IOException(String.format("Error reading mapped file, at file offset %s; the file may have been truncated", this.windowStart + this.pos), e);
+      }
+      throw e;
+    }
+  }
+
+  private boolean findNextLine() throws IOException {
+    while (readLine()) {
+      this.lineNumber++;
+      int start = this.lineStart;
+      int end = this.lineEnd;
+      while (start < end && (window.get(start) & 0xff) <= ' ') {
+        start++;
+      }
+      while (end > start && (window.get(end - 1) & 0xff) <= ' ') {
+        end--;
+      }
+      if (start == end || isComment(start, end)) {
+        continue;
+      }
+      this.lineStart = start;
+      this.lineEnd = end;
+      setColumnCount(-1);
+      return true;
+    }
+    return false;
+  }
+
+  private boolean isComment(int start, int end) {
+    if (end - start < commentPrefix.length) {
+      return false;
+    }
+    for (int i = 0; i < commentPrefix.length; i++) {
+      if (window.get(start + i) != commentPrefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Finds the next line (without line terminator) in the window, mapping the next window if needed.
+   * Line terminators are the same as for {@link java.io.BufferedReader#readLine()}.
+   */
+  private boolean readLine() throws IOException {
+    while (true) {
+      int scan = this.pos;
+      if (this.skipLineFeed && scan < this.limit) {
+        if (window.get(scan) == '\n') {
+          scan++;
+          this.pos = scan;
+        }
+        this.skipLineFeed = false;
+      }
+      for (; scan < this.limit; scan++) {
+        byte b = window.get(scan);
+        if (b == '\n' || b == '\r') {
+          this.lineStart = this.pos;
+          this.lineEnd = scan;
+          this.pos = scan + 1;
+          this.skipLineFeed = b == '\r';
+          return true;
+        }
+      }
+      if (this.windowStart + this.limit >= this.end) {
+        if (this.pos < this.limit) {
+          this.lineStart = this.pos;
+          this.lineEnd = this.limit;
+          this.pos = this.limit;
+          return true;
+        }
+        return false;
+      }
+      map(this.windowStart + this.pos);
+    }
+  }
+
+  /**
+   * Maps or reads the next window starting from the given offset. If the window would start at the same offset
+   * (a line does not fit into the window), the window is doubled.
+   */
+  private void map(long from) throws IOException {
+    long size = this.windowSize;
+    if (this.window != null && from == this.windowStart) {
+      if (this.limit > Integer.MAX_VALUE / 2) {
+        throw new IOException("Line too long, at file offset " + from);
+      }
+      size = this.limit * 2L;
+    }
+    size = Math.min(size, this.end - from);
+    if (channel.size() < from + size) {
+      throw new IOException(String.format("File truncated to %s bytes while being read, at file offset %s", channel.size(), from));
+    }
+    this.window = this.mapped ? channel.map(FileChannel.MapMode.READ_ONLY, from, size) : read(from, (int) size);
+    this.windowStart = from;
+    this.pos = 0;
+    this.limit = (int) size;
+  }
+
+  private ByteBuffer read(long from, int size) throws IOException {
+    ByteBuffer buffer = this.window != null && this.window.capacity() >= size ? this.window : ByteBuffer.allocate(size);
+    buffer.clear().limit(size);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, from + buffer.position()) < 0) {
+        throw new IOException(String.format("File truncated while being read, at file offset %s", from + buffer.position()));
+      }
+    }
+    return buffer;
+  }
+
+  @Override
+  String rowType() {
+    int end = this.lineStart;
+    while (end < this.lineEnd && window.get(end) != columnDelimiter) {
+      end++;
+    }
+    int length = end - this.lineStart;
+    String type = this.rowType;
+    if (type == null || !regionEquals(type, this.lineStart, length)) {
+      type = decode(this.lineStart, length);
+      this.rowType = type;
+    }
+    return type;
+  }
+
+  /**
+   * Compares ASCII characters only, any other character requires decoding.
+   */
+  private boolean regionEquals(String value, int offset, int length) {
+    if (value.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c >= 0x80 || c != window.get(offset + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  int split() {
+    int count = 0;
+    int start = this.lineStart;
+    for (int i = this.lineStart; i <= this.lineEnd; i++) {
+      if (i == this.lineEnd || window.get(i) == columnDelimiter) {
+        setColumn(count++, start, i);
+        start = i + 1;
+      }
+    }
+    setColumnCount(count);
+    return count;
+  }
+
+  @Override
+  String column(int index) {
+    int length = getColumnLength(index);
+    return length == 0 ? null : decode(getColumnStart(index), length);
+  }
+
+  @Override
+  <T> T convertColumn(int index, SdvCharTypeConverter<T> converter) {
+    int length = toChars(index);
+    return converter.convert(chars, 0, length);
+  }
+
+  @Override
+  long parseColumn(int index, LongParser parser) {
+    int length = toChars(index);
+    return parser.parse(chars, 0, length);
+  }
+
+  /**
+   * Copies the column to the character buffer, widening ASCII bytes and decoding anything else.
+   *
+   * @return number of characters
+   */
+  private int toChars(int index) {
+    int start = getColumnStart(index);
+    int length = getColumnLength(index);
+    if (chars.length < length) {
+      this.chars = new char[Math.max(length, chars.length * 2)];
+    }
+    for (int i = 0; i < length; i++) {
+      byte b = window.get(start + i);
+      if (b < 0) {
+        String value = decode(start, length);
+        if (chars.length < value.length()) {
+          this.chars = new char[value.length()];
+        }
+        value.getChars(0, value.length(), chars, 0);
+        return value.length();
+      }
+      chars[i] = (char) b;
+    }
+    return length;
+  }
+
+  private String decode(int start, int length) {
+    if (bytes.length < length) {
+      this.bytes = new byte[Math.max(length, bytes.length * 2)];
+    }
+    for (int i = 0; i < length; i++) {
+      bytes[i] = window.get(start + i);
+    }
+    return new String(bytes, 0, length, charset);
+  }
+
+  @Override
+  String line() {
+    return decode(this.lineStart, this.lineEnd - this.lineStart);
+  }
+
+  @Override
+  long getLineNumber() {
+    return lineNumber;
+  }
+
+  @Override
+  long getBytesRead() {
+    return this.windowStart + this.pos - this.start;
+  }
+
+  @Override
+  public void close() throws IOException {
+    // a mapped window is unmapped once it is garbage collected
+    this.window = null;
+    if (this.closeChannel) {
+      channel.close();
+    }
+  }
+
+}
@@ -0,0 +1,235 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.LongSupplier;
+
+/**
+ * Tokenizer reading characters from a {@link Reader} into a reused character buffer.
+ */
+class SdvCharTokenizer extends SdvTokenizer {
+
+  private static final int INITIAL_BUFFER_SIZE = 8192;
+
+  private final Reader reader;
+  private final char columnDelimiter;
+  private final char[] commentPrefix;
+  private final LongSupplier bytesRead;
+
+  private char[] buf = new char[INITIAL_BUFFER_SIZE];
+  private int pos;
+  private int limit;
+  private boolean eof;
+  private boolean skipLineFeed;
+
+  private long lineNumber;
+  private int lineStart;
+  private int lineEnd;
+  private String rowType;
+
+  SdvCharTokenizer(Reader reader, char columnDelimiter, String commentPrefix) {
+    this(reader, null, columnDelimiter, commentPrefix);
+  }
+
+  /**
+   * @param bytesRead number of bytes the reader has read from its input, or <code>null</code> if not known
+   */
+  SdvCharTokenizer(Reader reader, LongSupplier bytesRead, char columnDelimiter, String commentPrefix) {
+    this.reader = reader;
+    this.bytesRead = bytesRead;
+    this.columnDelimiter = columnDelimiter;
+    this.commentPrefix = commentPrefix.toCharArray();
+  }
+
+  @Override
+  boolean nextLine() throws IOException {
+    while (readLine()) {
+      this.lineNumber++;
+      int start = this.lineStart;
+      int end = this.lineEnd;
+      while (start < end && buf[start] <= ' ') {
+        start++;
+      }
+      while (end > start && buf[end - 1] <= ' ') {
+        end--;
+      }
+      if (start == end || isComment(start, end)) {
+        continue;
+      }
+      this.lineStart = start;
+      this.lineEnd = end;
+      setColumnCount(-1);
+      return true;
+    }
+    return false;
+  }
+
+  private boolean isComment(int start, int end) {
+    if (end - start < commentPrefix.length) {
+      return false;
+    }
+    for (int i = 0; i < commentPrefix.length; i++) {
+      if (buf[start + i] != commentPrefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Finds the next line (without line terminator) in the buffer, reading more input if needed.
+   * Line terminators are the same as for {@link java.io.BufferedReader#readLine()}.
+   */
+  private boolean readLine() throws IOException {
+    int scan = this.pos;
+    while (true) {
+      if (this.skipLineFeed && scan < this.limit) {
+        if (buf[scan] == '\n') {
+          scan++;
+          this.pos = scan;
+        }
+        this.skipLineFeed = false;
+      }
+      for (; scan < this.limit; scan++) {
+        char c = buf[scan];
+        if (c == '\n' || c == '\r') {
+          this.lineStart = this.pos;
+          this.lineEnd = scan;
+          this.pos = scan + 1;
+          this.skipLineFeed = c == '\r';
+          return true;
+        }
+      }
+      if (this.eof) {
+        if (this.pos < this.limit) {
+          this.lineStart = this.pos;
+          this.lineEnd = this.limit;
+          this.pos = this.limit;
+          return true;
+        }
+        return false;
+      }
+      scan -= this.pos;
+      if (!fill()) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Moves the unprocessed part of the buffer to the beginning (growing the buffer if it is full) and
+   * reads more input after it.
+   *
+   * @return <code>false</code> if no input is available yet (see {@link #read(char[], int, int)})
+   */
+  private boolean fill() throws IOException {
+    int remaining = this.limit - this.pos;
+    if (remaining == buf.length) {
+      char[] newBuf = new char[buf.length * 2];
+      System.arraycopy(buf, this.pos, newBuf, 0, remaining);
+      this.buf = newBuf;
+    }
+    else if (remaining > 0 && this.pos > 0) {
+      System.arraycopy(buf, this.pos, buf, 0, remaining);
+    }
+    this.pos = 0;
+    this.limit = remaining;
+    int read = read(buf, this.limit, buf.length - this.limit);
+    if (read < 0) {
+      this.eof = true;
+    }
+    else {
+      this.limit += read;
+    }
+    return read != 0;
+  }
+
+  /**
+   * Reads more input into the buffer. A blocking reader never returns 0, a tokenizer fed with input returns 0
+   * if no input is available yet: then {@link #nextLine()} returns <code>false</code>, keeping the incomplete
+   * line for the next call.
+   *
+   * @return number of characters read, or -1 at the end of the input
+   */
+  int read(char[] buf, int offset, int length) throws IOException {
+    return reader.read(buf, offset, length);
+  }
+
+  @Override
+  String rowType() {
+    int end = this.lineStart;
+    while (end < this.lineEnd && buf[end] != columnDelimiter) {
+      end++;
+    }
+    int length = end - this.lineStart;
+    String type = this.rowType;
+    if (type == null || !regionEquals(type, this.lineStart, length)) {
+      type = new String(buf, this.lineStart, length);
+      this.rowType = type;
+    }
+    return type;
+  }
+
+  private boolean regionEquals(String value, int offset, int length) {
+    if (value.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (value.charAt(i) != buf[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  int split() {
+    int count = 0;
+    int start = this.lineStart;
+    for (int i = this.lineStart; i <= this.lineEnd; i++) {
+      if (i == this.lineEnd || buf[i] == columnDelimiter) {
+        setColumn(count++, start, i);
+        start = i + 1;
+      }
+    }
+    setColumnCount(count);
+    return count;
+  }
+
+  @Override
+  String column(int index) {
+    int length = getColumnLength(index);
+    return length == 0 ? null : new String(buf, getColumnStart(index), length);
+  }
+
+  @Override
+  <T> T convertColumn(int index, SdvCharTypeConverter<T> converter) {
+    return converter.convert(buf, getColumnStart(index), getColumnLength(index));
+  }
+
+  @Override
+  long parseColumn(int index, LongParser parser) {
+    return parser.parse(buf, getColumnStart(index), getColumnLength(index));
+  }
+
+  @Override
+  String line() {
+    return new String(buf, this.lineStart, this.lineEnd - this.lineStart);
+  }
+
+  @Override
+  long getLineNumber() {
+    return lineNumber;
+  }
+
+  @Override
+  long getBytesRead() {
+    return bytesRead != null ? bytesRead.getAsLong() : -1;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+}
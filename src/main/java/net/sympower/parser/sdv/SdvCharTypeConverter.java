@@ -0,0 +1,19 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Converter which parses a value directly from the characters of a column, without creating a
+ * <code>String</code> for it.
+ * <p>
+ * A converter registered via <code>SdvReader.registerConverter()</code> can implement this interface in
+ * addition to {@link SdvTypeConverter} to provide a fast path. It may return <code>null</code> for values it
+ * does not handle, in which case the value is passed to {@link SdvTypeConverter#convert(String)} instead.
+ */
+public interface SdvCharTypeConverter<T> {
+
+  /**
+   * @param chars buffer holding the column value; only the given range may be read and the buffer must not be retained
+   * @return the converted value, or <code>null</code> to fall back to the <code>String</code> based conversion
+   */
+  T convert(char[] chars, int offset, int length);
+
+}
@@ -0,0 +1,20 @@
+package net.sympower.parser.sdv;
+
+import java.lang.annotation.Annotation;
+import java.util.Locale;
+
+/**
+ * {@link SdvTypeConverterWithFormat} which can provide a fast path for parsing values directly from
+ * the characters of a column (see {@link SdvCharTypeConverter}).
+ */
+public interface SdvCharTypeConverterWithFormat<T, F extends Annotation> extends SdvTypeConverterWithFormat<T, F> {
+
+  /**
+   * Called once per column (not per value) when the column binding is resolved.
+   *
+   * @param format format annotation of the column, <code>null</code> if not annotated
+   * @return converter for values of the column, or <code>null</code> if there is no fast path for the format
+   */
+  SdvCharTypeConverter<T> getCharConverter(F format, Locale locale);
+
+}
@@ -0,0 +1,60 @@
+package net.sympower.parser.sdv;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Parses input which arrives in chunks of bytes, e.g. the body of a non-blocking HTTP response
+ * (see {@link SdvReader#parseChunks(Class, Consumer)}).
+ * <p>
+ * Each chunk is parsed as soon as it is fed, passing its complete rows to the consumer before
+ * {@link #feed(ByteBuffer)} returns: a producer feeding chunks is slowed down to the pace of the consumer. A line
+ * or a character split between chunks is completed by the next chunk; the last line, if it has no line terminator,
+ * is parsed by {@link #finish()}. Instances are not thread-safe.
+ */
+public class SdvChunkParser {
+
+  private final SdvChunkTokenizer tokenizer;
+  private final SdvRowIterator<Object> iterator;
+  private final Consumer<Object> consumer;
+
+  SdvChunkParser(SdvReader reader, SdvChunkTokenizer tokenizer, Map<String, Class<?>> rowTypes,
+                 Predicate<Class<?>> rowFilter, Consumer<Object> consumer) {
+    this.tokenizer = tokenizer;
+    this.iterator = reader.iterate(tokenizer, rowTypes, rowFilter);
+    this.consumer = consumer;
+  }
+
+  /**
+   * Parses the remaining bytes of the chunk. The chunk is not used after this call, so its buffer can be reused.
+   *
+   * @return number of parsed rows
+   * @throws IllegalStateException if the input is already finished
+   */
+  public long feed(ByteBuffer chunk) {
+    tokenizer.feed(chunk);
+    return parse();
+  }
+
+  /**
+   * Parses the rest of the input, after the last chunk.
+   *
+   * @return number of parsed rows
+   */
+  public long finish() {
+    tokenizer.finish();
+    return parse();
+  }
+
+  private long parse() {
+    long count = 0;
+    while (iterator.hasNext()) {
+      consumer.accept(iterator.next());
+      count++;
+    }
+    return count;
+  }
+
+}
@@ -0,0 +1,81 @@
+package net.sympower.parser.sdv;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Tokenizer fed with chunks of bytes (see {@link SdvChunkParser}). {@link #nextLine()} returns <code>false</code>
+ * when the fed input has no more complete lines; the incomplete line and the bytes of a character split between
+ * chunks are kept for the next chunk.
+ */
+class SdvChunkTokenizer extends SdvCharTokenizer {
+
+  private static final int INITIAL_INPUT_SIZE = 8192;
+
+  private final CharsetDecoder decoder;
+
+  private ByteBuffer input = ByteBuffer.allocate(INITIAL_INPUT_SIZE);
+  private long bytesFed;
+  private boolean finished;
+  private boolean flushed;
+
+  SdvChunkTokenizer(Charset charset, char columnDelimiter, String commentPrefix) {
+    super(null, columnDelimiter, commentPrefix);
+    this.decoder = charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  }
+
+  /**
+   * Adds the remaining bytes of the chunk to the input. The chunk is not used after this call.
+   */
+  void feed(ByteBuffer chunk) {
+    if (this.finished) {
+      throw new IllegalStateException("Input is already finished");
+    }
+    if (input.remaining() < chunk.remaining()) {
+      ByteBuffer newInput = ByteBuffer.allocate(Math.max(input.capacity() * 2, input.position() + chunk.remaining()));
+      input.flip();
+      newInput.put(input);
+      this.input = newInput;
+    }
+    this.bytesFed += chunk.remaining();
+    input.put(chunk);
+  }
+
+  /**
+   * Marks the end of the input, so the last line is returned even without a line terminator.
+   */
+  void finish() {
+    this.finished = true;
+  }
+
+  @Override
+  int read(char[] buf, int offset, int length) {
+    if (this.flushed) {
+      return -1;
+    }
+    CharBuffer out = CharBuffer.wrap(buf, offset, length);
+    input.flip();
+    decoder.decode(input, out, this.finished);
+    if (this.finished && !input.hasRemaining()) {
+      this.flushed = decoder.flush(out).isUnderflow();
+    }
+    input.compact();
+    int read = out.position() - offset;
+    return read == 0 && this.flushed ? -1 : read;
+  }
+
+  @Override
+  long getBytesRead() {
+    return this.bytesFed - input.position();
+  }
+
+  @Override
+  public void close() {
+  }
+
+}
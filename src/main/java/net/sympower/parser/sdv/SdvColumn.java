@@ -0,0 +1,20 @@
+package net.sympower.parser.sdv;
+
+import java.lang.annotation.Retention;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Maps a row constructor parameter to a data column by index (0 is the first column after the row type),
+ * so a row class can declare only the columns it needs; the other columns are not converted.
+ * <p>
+ * If a parameter of a constructor has this annotation, all its parameters must have it. Such a constructor is
+ * used for rows with any number of columns, ahead of the other constructors of the class, parameters of missing
+ * columns are <code>null</code>.
+ */
+@Retention(RUNTIME)
+public @interface SdvColumn {
+
+  int value();
+
+}
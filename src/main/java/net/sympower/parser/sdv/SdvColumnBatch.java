@@ -0,0 +1,274 @@
+package net.sympower.parser.sdv;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rows of one row type stored by column instead of as row objects (see {@link SdvReader#parseColumns(java.nio.file.Path, Class)}).
+ * <p>
+ * There is a column for each constructor parameter of the row type, in the order of the parameters. Depending on
+ * the parameter type, values are stored in primitive arrays (see {@link SdvColumnType}), which are filled directly
+ * from the parsed line; plain numbers are parsed without creating any objects. The arrays have exactly
+ * {@link #size()} elements and are not copied, so they must not be modified.
+ * <p>
+ * Empty and missing values are null (see {@link #isNull(int, int)}) and are stored as <code>0</code>
+ * (<code>-1</code> as string code).
+ *
+ * <pre>
+ * SdvColumnBatch&lt;PricesRow&gt; batch = reader.parseColumns(path, PricesRow.class);
+ * int[] days = batch.getEpochDays(0);
+ * long[] prices = batch.getUnscaled(3);
+ * int scale = batch.getScale(3);
+ * </pre>
+ */
+public final class SdvColumnBatch<T> {
+
+  private final Class<T> rowType;
+  private final Constructor<T> constructor;
+  private final Class<?>[] valueTypes;
+  private final SdvBatchColumn[] columns;
+  private final SdvBatchColumn.StringColumn[] texts;
+  private int size;
+
+  SdvColumnBatch(Class<T> rowType) {
+    this.rowType = rowType;
+    this.constructor = SdvRowBinding.findConstructor(rowType);
+    Class<?>[] parameterTypes = constructor.getParameterTypes();
+    this.valueTypes = new Class<?>[parameterTypes.length];
+    this.columns = new SdvBatchColumn[parameterTypes.length];
+    this.texts = new SdvBatchColumn.StringColumn[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      if (parameterTypes[i] == SdvLazy.class) {
+        this.valueTypes[i] = SdvRowBinding.getLazyValueType(constructor.getGenericParameterTypes()[i], i, rowType);
+        this.texts[i] = new SdvBatchColumn.StringColumn();
+      }
+      else {
+        this.valueTypes[i] = parameterTypes[i];
+      }
+      this.columns[i] = SdvBatchColumn.create(this.valueTypes[i]);
+    }
+  }
+
+  /**
+   * Adds the current line of the tokenizer.
+   */
+  void add(SdvRowBinding<T> binding, SdvTokenizer tokenizer, Locale locale) {
+    if (!binding.getConstructor().equals(this.constructor)) {
+      throw new SdvParsingException(
+        String.format("No constructor with suitable number of parameters (%s) found, on class %s for row '%s'", tokenizer.getColumnCount() - 1, rowType, tokenizer.line()));
+    }
+    int columnCount = tokenizer.getColumnCount();
+    for (int i = 0; i < columns.length; i++) {
+      int column = 1 + binding.getDataColumnIndex(i);
+      if (column >= columnCount || tokenizer.getColumnLength(column) == 0) {
+        columns[i].addNull(size);
+        if (texts[i] != null) {
+          texts[i].addNull(size);
+        }
+      }
+      else {
+        columns[i].add(size, binding.getColumn(i), tokenizer, column, locale);
+        if (texts[i] != null) {
+          texts[i].add(size, tokenizer.column(column));
+        }
+      }
+    }
+    this.size++;
+  }
+
+  void trim() {
+    for (SdvBatchColumn column : columns) {
+      column.trim(size);
+    }
+    for (SdvBatchColumn text : texts) {
+      if (text != null) {
+        text.trim(size);
+      }
+    }
+  }
+
+  Constructor<T> getConstructor() {
+    return constructor;
+  }
+
+  SdvBatchColumn getBatchColumn(int column) {
+    return columns[column];
+  }
+
+  /**
+   * @return texts of the values of a {@link SdvLazy} parameter, or <code>null</code> for other parameters
+   */
+  SdvBatchColumn.StringColumn getTextColumn(int column) {
+    return texts[column];
+  }
+
+  /**
+   * Sets the number of rows of columns filled directly (see {@link SdvSnapshot}).
+   */
+  void setSize(int size) {
+    this.size = size;
+  }
+
+  /**
+   * Creates the row objects from the columns, without parsing any text. The values of {@link SdvLazy} parameters
+   * are already converted and keep the text of the column, and values of <code>short</code>, <code>byte</code> and <code>float</code> parameters
+   * (stored in int and double columns) are narrowed back to the parameter type.
+   */
+  public List<T> toRows() {
+    SdvRowFactory<T> factory = new SdvRowFactory<>(constructor);
+    Class<?>[] parameterTypes = constructor.getParameterTypes();
+    List<T> rows = new ArrayList<>(size);
+    for (int row = 0; row < size; row++) {
+      Object[] params = new Object[columns.length];
+      for (int i = 0; i < columns.length; i++) {
+        Object value = toValueType(columns[i].get(row), valueTypes[i]);
+        params[i] = texts[i] != null ? new SdvLazy<>((String) texts[i].get(row), value) : value;
+      }
+      rows.add(factory.newRow(params));
+    }
+    return rows;
+  }
+
+  private static Object toValueType(Object value, Class<?> type) {
+    if (!(value instanceof Number)) {
+      return value;
+    }
+    Number number = (Number) value;
+    if (type == Short.TYPE || type == Short.class) {
+      return number.shortValue();
+    }
+    if (type == Byte.TYPE || type == Byte.class) {
+      return number.byteValue();
+    }
+    if (type == Float.TYPE || type == Float.class) {
+      return number.floatValue();
+    }
+    return value;
+  }
+
+  public Class<T> getRowType() {
+    return rowType;
+  }
+
+  /**
+   * @return number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  /**
+   * @return name of the constructor parameter, which is only available if the row type is compiled with
+   * <code>-parameters</code> (otherwise it is e.g. <code>arg0</code>)
+   */
+  public String getColumnName(int column) {
+    Parameter[] parameters = constructor.getParameters();
+    return parameters[column].getName();
+  }
+
+  public SdvColumnType getColumnType(int column) {
+    return columns[column].getType();
+  }
+
+  public boolean isNull(int column, int row) {
+    checkRow(row);
+    return columns[column].isNull(row);
+  }
+
+  /**
+   * @return value of the column as an object (e.g. <code>Integer</code>, <code>BigDecimal</code> or
+   * <code>LocalDate</code>), or <code>null</code>
+   */
+  public Object get(int column, int row) {
+    checkRow(row);
+    return columns[column].get(row);
+  }
+
+  public int[] getInts(int column) {
+    return ((SdvBatchColumn.IntColumn) getColumn(column, SdvColumnType.INT)).values;
+  }
+
+  public long[] getLongs(int column) {
+    return ((SdvBatchColumn.LongColumn) getColumn(column, SdvColumnType.LONG)).values;
+  }
+
+  public double[] getDoubles(int column) {
+    return ((SdvBatchColumn.DoubleColumn) getColumn(column, SdvColumnType.DOUBLE)).values;
+  }
+
+  /**
+   * @return unscaled values of a decimal column, see {@link #getScale(int)}
+   * @throws ArithmeticException if a value does not fit to a long with the scale of the column, the values are
+   * then only available by {@link #get(int, int)}
+   */
+  public long[] getUnscaled(int column) {
+    return getDecimalColumn(column).values;
+  }
+
+  /**
+   * @return scale of all the values of a decimal column: the largest scale of the parsed values (the values
+   * returned by {@link #get(int, int)} have their own scale)
+   * @throws ArithmeticException if a value does not fit to a long with the scale of the column
+   */
+  public int getScale(int column) {
+    return getDecimalColumn(column).scale;
+  }
+
+  private SdvBatchColumn.DecimalColumn getDecimalColumn(int column) {
+    SdvBatchColumn.DecimalColumn decimals = (SdvBatchColumn.DecimalColumn) getColumn(column, SdvColumnType.DECIMAL);
+    if (decimals.decimals != null) {
+      throw new ArithmeticException(
+        String.format("Values of column %s do not fit to a long with a common scale, on class %s", column, rowType));
+    }
+    return decimals;
+  }
+
+  /**
+   * @return days since 1970-01-01 of a date column, see {@link java.time.LocalDate#toEpochDay()}
+   */
+  public int[] getEpochDays(int column) {
+    return ((SdvBatchColumn.DateColumn) getColumn(column, SdvColumnType.DATE)).values;
+  }
+
+  /**
+   * @return indexes to the {@link #getDictionary(int) dictionary} of a string column
+   */
+  public int[] getCodes(int column) {
+    return ((SdvBatchColumn.StringColumn) getColumn(column, SdvColumnType.STRING)).codes;
+  }
+
+  /**
+   * @return distinct values of a string column, in the order of their first occurrence
+   */
+  public List<String> getDictionary(int column) {
+    return Collections.unmodifiableList(((SdvBatchColumn.StringColumn) getColumn(column, SdvColumnType.STRING)).dictionary);
+  }
+
+  public Object[] getObjects(int column) {
+    return ((SdvBatchColumn.ObjectColumn) getColumn(column, SdvColumnType.OBJECT)).values;
+  }
+
+  private SdvBatchColumn getColumn(int column, SdvColumnType type) {
+    SdvBatchColumn batchColumn = columns[column];
+    if (batchColumn.getType() != type) {
+      throw new IllegalArgumentException(
+        String.format("Column %s is of type %s, not %s, on class %s", column, batchColumn.getType(), type, rowType));
+    }
+    return batchColumn;
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException(String.format("Row %s, size %s", row, size));
+    }
+  }
+
+}
@@ -0,0 +1,223 @@
+package net.sympower.parser.sdv;
+
+import java.lang.annotation.Annotation;
+import java.util.Locale;
+
+/**
+ * Conversion of a single column to a constructor parameter, resolved once per row type.
+ */
+class SdvColumnBinding {
+
+  private final int index;
+  private final Class<?> type;
+  private final Class<?> declaringClass;
+  private final SdvTypeConverter<?> converter;
+  private final SdvTypeConverterWithFormat<?, Annotation> converterWithFormat;
+  private final Annotation format;
+  private final SdvCharTypeConverter<?> charConverter;
+  private final SdvTokenizer.LongParser unscaledParser;
+  private final SdvTokenizer.LongParser scaleParser;
+  private final boolean lazy;
+  private final boolean builtInInteger;
+  private final long minInteger;
+  private final long maxInteger;
+
+  /**
+   * @param lazy whether the parameter is a {@link SdvLazy} of the type
+   */
+  SdvColumnBinding(SdvReader reader, int index, Class<?> type, boolean lazy, Annotation[] annotations, Class<?> declaringClass) {
+    this.index = index;
+    this.type = type;
+    this.lazy = lazy;
+    this.declaringClass = declaringClass;
+    this.converter = reader.getConverter(type);
+    this.converterWithFormat = (SdvTypeConverterWithFormat<?, Annotation>) reader.getConverterWithFormat(type);
+    this.format = this.converterWithFormat != null ? findAnnotation(annotations, this.converterWithFormat.getAnnotationType()) : null;
+    this.charConverter = findCharConverter(reader, annotations);
+    // the unscaled values are only parsed directly for the built-in converters, custom ones convert every value
+    char decimalSeparator = reader.hasCustomConverter(type) ? 0 : findPlainDecimalSeparator(reader.getDefaultLocale());
+    this.unscaledParser = decimalSeparator == 0 ? null
+      : (chars, offset, length) -> DecimalChars.parseUnscaled(chars, offset, length, decimalSeparator);
+    this.scaleParser = decimalSeparator == 0 ? null
+      : (chars, offset, length) -> DecimalChars.scale(chars, offset, length, decimalSeparator);
+    boolean intConverter = this.converter != null && this.converter.getClass() == IntegerConverter.class;
+    this.builtInInteger = intConverter || this.converter != null && this.converter.getClass() == LongConverter.class;
+    this.minInteger = intConverter ? Integer.MIN_VALUE : Long.MIN_VALUE;
+    this.maxInteger = intConverter ? Integer.MAX_VALUE : Long.MAX_VALUE;
+  }
+
+  private SdvCharTypeConverter<?> findCharConverter(SdvReader reader, Annotation[] annotations) {
+    if (this.converter instanceof StringConverter
+      && (reader.isInternStrings() || findAnnotation(annotations, SdvIntern.class) != null)) {
+      return reader.getStringCache();
+    }
+    if (this.converter != null) {
+      return this.converter instanceof SdvCharTypeConverter ? (SdvCharTypeConverter<?>) this.converter : null;
+    }
+    if (this.converterWithFormat instanceof SdvCharTypeConverterWithFormat) {
+      return ((SdvCharTypeConverterWithFormat<?, Annotation>) this.converterWithFormat).getCharConverter(this.format, reader.getDefaultLocale());
+    }
+    return null;
+  }
+
+  private char findPlainDecimalSeparator(Locale locale) {
+    SdvTypeConverterWithFormat<?, ?> numberConverter = this.converterWithFormat;
+    if (this.converter == null && numberConverter instanceof AbstractNumberConverter) {
+      return ((AbstractNumberConverter<?>) numberConverter).getPlainDecimalSeparator((SdvDecimalFormat) this.format, locale);
+    }
+    return 0;
+  }
+
+  Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * @return class of the converter registered for the type of the column, or <code>null</code> if there is none
+   */
+  Class<?> getConverterClass() {
+    if (this.converter != null) {
+      return this.converter.getClass();
+    }
+    return this.converterWithFormat != null ? this.converterWithFormat.getClass() : null;
+  }
+
+  /**
+   * @return whether the column is converted by a (plain) converter of the class
+   */
+  boolean isConvertedBy(Class<?> converterClass) {
+    return converterClass.isInstance(this.converter);
+  }
+
+  /**
+   * @return parser of the unscaled value of plain decimals, or <code>null</code> if the column is not converted
+   * by a built-in number converter with a plain format (see {@link AbstractNumberConverter#getCharConverter(SdvDecimalFormat, Locale)})
+   */
+  SdvTokenizer.LongParser getUnscaledParser() {
+    return unscaledParser;
+  }
+
+  /**
+   * @return parser of the scale of plain decimals, if there is an {@link #getUnscaledParser() unscaled parser}
+   */
+  SdvTokenizer.LongParser getScaleParser() {
+    return scaleParser;
+  }
+
+  /**
+   * Converts a column of the current line of the tokenizer, using the fast path of the converter if it has one.
+   */
+  Object convert(SdvTokenizer tokenizer, int column, Locale locale) {
+    if (this.lazy) {
+      return new SdvLazy<>(tokenizer.column(column), this, locale);
+    }
+    return convertValue(tokenizer, column, locale);
+  }
+
+  /**
+   * Converts a column of the current line of the tokenizer to the value type, also for lazy parameters.
+   */
+  Object convertValue(SdvTokenizer tokenizer, int column, Locale locale) {
+    int length = tokenizer.getColumnLength(column);
+    if (length == 0) {
+      return null;
+    }
+    if (this.charConverter != null) {
+      Object result;
+      try {
+        result = tokenizer.convertColumn(column, this.charConverter);
+      }
+      catch (Exception e) {
+        throw new SdvParsingException(
+          String.format("Error while parsing constructor parameter #%s (type %s, value '%s'), on class %s", index+1, type, tokenizer.column(column), declaringClass), e);
+      }
+      if (result != null) {
+        return result;
+      }
+    }
+    return convert(tokenizer.column(column), locale);
+  }
+
+  /**
+   * Converts a column like {@link #convert(SdvTokenizer, int, Locale)}, but throws the exception of the converter
+   * as it is, without building a message for it (see {@link SdvRowError}). Invalid values of the built-in integer
+   * converters, and values no converter supports, fail with an exception without a stack trace instead.
+   */
+  Object convertLeniently(SdvTokenizer tokenizer, int column, Locale locale) {
+    if (this.lazy) {
+      return new SdvLazy<>(tokenizer.column(column), this, locale);
+    }
+    if (tokenizer.getColumnLength(column) == 0) {
+      return null;
+    }
+    if (this.charConverter != null) {
+      Object result = tokenizer.convertColumn(column, this.charConverter);
+      if (result != null) {
+        return result;
+      }
+    }
+    String value = tokenizer.column(column);
+    if (this.builtInInteger && !DecimalChars.isInteger(value, this.minInteger, this.maxInteger)) {
+      throw new SdvParsingException(String.format("Value '%s' is not an integer of type %s", value, type), null, false);
+    }
+    Object result = convertString(value, locale);
+    if (result == null) {
+      throw new SdvParsingException(notSupportedMessage(value), null, false);
+    }
+    return result;
+  }
+
+  /**
+   * @return value of a column missing from the row
+   */
+  Object missing(Locale locale) {
+    return this.lazy ? new SdvLazy<>(null, this, locale) : null;
+  }
+
+  Object convert(String value, Locale locale) {
+    if (value == null || value.length() == 0) {
+      return null;
+    }
+    Object result;
+    try {
+      result = convertString(value, locale);
+    }
+    catch (Exception e) {
+      throw new SdvParsingException(
+        String.format("Error while parsing constructor parameter #%s (type %s, value '%s'), on class %s", index+1, type, value, declaringClass), e);
+    }
+    if (result == null) {
+      throw notSupported(value);
+    }
+    return result;
+  }
+
+  private Object convertString(String value, Locale locale) {
+    Object result = null;
+    if (this.converter != null) {
+      result = this.converter.convert(value);
+    }
+    if (result == null && this.converterWithFormat != null) {
+      result = this.converterWithFormat.convert(value, this.format, locale);
+    }
+    return result;
+  }
+
+  private SdvParsingException notSupported(String value) {
+    return new SdvParsingException(notSupportedMessage(value));
+  }
+
+  private String notSupportedMessage(String value) {
+    return String.format("Constructor parameter #%s type %s not supported (value: %s), on class %s", index+1, type, value, declaringClass);
+  }
+
+  static Annotation findAnnotation(Annotation[] annotations, Class<? extends Annotation> annotationClass) {
+    for (Annotation annotation : annotations) {
+      if (annotation.annotationType().isAssignableFrom(annotationClass)) {
+        return annotation;
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,23 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Storage of a column of a {@link SdvColumnBatch}, by the type of the constructor parameter.
+ */
+public enum SdvColumnType {
+
+  /** <code>int</code>, <code>short</code>, <code>byte</code> and their wrappers, in an <code>int[]</code> */
+  INT,
+  /** <code>long</code> and <code>Long</code>, in a <code>long[]</code> */
+  LONG,
+  /** <code>double</code>, <code>float</code> and their wrappers, in a <code>double[]</code> */
+  DOUBLE,
+  /** <code>BigDecimal</code>, as unscaled values in a <code>long[]</code> with a single scale for the column */
+  DECIMAL,
+  /** <code>LocalDate</code>, as epoch days in an <code>int[]</code> */
+  DATE,
+  /** <code>String</code>, as codes in an <code>int[]</code> to a dictionary of the distinct values */
+  STRING,
+  /** any other type, in an <code>Object[]</code> */
+  OBJECT
+
+}
@@ -7,8 +7,13 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 @Retention(RUNTIME)
 public @interface SdvDecimalFormat {
 
+  /**
+   * Separator value which keeps the separator of the locale, e.g. <code>decimalSeparator = SdvDecimalFormat.LOCALE</code>.
+   */
+  String LOCALE = "";
+
   String value() default "";
-  String groupingSeparator() default "";
+  String groupingSeparator() default LOCALE;
   String decimalSeparator() default ".";
 
 }
@@ -0,0 +1,13 @@
+package net.sympower.parser.sdv;
+
+import java.lang.annotation.Retention;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks a document class for which the <code>sdv-parser-processor</code> annotation processor generates
+ * a {@link SdvDocumentBinder}. Documents work without this annotation too (using reflection).
+ */
+@Retention(RUNTIME)
+public @interface SdvDocument {
+}
@@ -0,0 +1,28 @@
+package net.sympower.parser.sdv;
+
+import java.util.List;
+
+/**
+ * Collects rows to a document without reflection. Implementations are generated at compile time by
+ * the <code>sdv-parser-processor</code> annotation processor for classes annotated with {@link SdvDocument}.
+ */
+public interface SdvDocumentBinder<T> {
+
+  T newDocument();
+
+  /**
+   * Row types the document can hold.
+   */
+  List<Class<?>> getRowTypes();
+
+  /**
+   * Prepares the document for collecting rows (initializes collection fields which have no value).
+   */
+  void bind(T document);
+
+  /**
+   * @return <code>true</code> if the row was passed to the document
+   */
+  boolean newRow(T document, Object row);
+
+}
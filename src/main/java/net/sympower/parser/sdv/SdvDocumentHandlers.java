@@ -0,0 +1,138 @@
+package net.sympower.parser.sdv;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handlers of the rows of a document class by row type: setter/adder methods, collection fields and other fields.
+ * They are resolved once per document class (scanning its methods and fields) and shared by all the documents
+ * of the class; only the collections of a document are looked up for each document.
+ */
+final class SdvDocumentHandlers {
+
+  private static final String SETTER_PREFIX = "set";
+  private static final String ADD_PREFIX = "add";
+
+  private static final ClassValue<SdvDocumentHandlers> HANDLERS = new ClassValue<SdvDocumentHandlers>() {
+    @Override
+    protected SdvDocumentHandlers computeValue(Class<?> type) {
+      return new SdvDocumentHandlers(type);
+    }
+  };
+
+  private final Map<Class<?>, SdvRowHandler> methodHandlers;
+  private final Map<Class<?>, Field> collectionFields;
+  private final Map<Class<?>, SdvRowHandler> fieldHandlers;
+  private final List<Class<?>> rowTypes;
+
+  private SdvDocumentHandlers(Class<?> documentType) {
+    HashMap<Class<?>, Method> handlerMethods = new HashMap<>();
+    HashMap<Class<?>, Field> handlerSimpleFields = new HashMap<>();
+    LinkedHashMap<Class<?>, Field> handlerCollectionFields = new LinkedHashMap<>();
+    for (Method method : documentType.getMethods()) {
+      registerMethod(method, handlerMethods);
+    }
+    for (Method method : documentType.getDeclaredMethods()) {
+      method.setAccessible(true);
+      registerMethod(method, handlerMethods);
+    }
+    for (Field field : documentType.getFields()) {
+      registerField(field, handlerSimpleFields, handlerCollectionFields);
+    }
+    for (Field field : documentType.getDeclaredFields()) {
+      field.setAccessible(true);
+      registerField(field, handlerSimpleFields, handlerCollectionFields);
+    }
+    HashMap<Class<?>, SdvRowHandler> methodHandlers = new HashMap<>();
+    for (Map.Entry<Class<?>, Method> entry : handlerMethods.entrySet()) {
+      methodHandlers.put(entry.getKey(), SdvRowHandler.forMethod(entry.getValue()));
+    }
+    HashMap<Class<?>, SdvRowHandler> fieldHandlers = new HashMap<>();
+    for (Map.Entry<Class<?>, Field> entry : handlerSimpleFields.entrySet()) {
+      fieldHandlers.put(entry.getKey(), SdvRowHandler.forField(entry.getValue()));
+    }
+    ArrayList<Class<?>> rowTypes = new ArrayList<>(handlerMethods.keySet());
+    rowTypes.addAll(handlerSimpleFields.keySet());
+    rowTypes.addAll(handlerCollectionFields.keySet());
+    this.methodHandlers = Collections.unmodifiableMap(methodHandlers);
+    this.collectionFields = Collections.unmodifiableMap(handlerCollectionFields);
+    this.fieldHandlers = Collections.unmodifiableMap(fieldHandlers);
+    this.rowTypes = Collections.unmodifiableList(rowTypes);
+  }
+
+  static SdvDocumentHandlers of(Class<?> documentType) {
+    return HANDLERS.get(documentType);
+  }
+
+  private static void registerMethod(Method method, Map<Class<?>, Method> handlerMethods) {
+    if (method.getDeclaredAnnotation(SdvIgnore.class) != null) {
+      return;
+    }
+    if (method.getName().startsWith(SETTER_PREFIX) || method.getName().startsWith(ADD_PREFIX)) {
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      if (parameterTypes.length == 1) {
+        handlerMethods.put(parameterTypes[0], method);
+      }
+    }
+  }
+
+  private static void registerField(Field field, Map<Class<?>, Field> handlerSimpleFields, Map<Class<?>, Field> handlerCollectionFields) {
+    if (field.getDeclaredAnnotation(SdvIgnore.class) != null) {
+      return;
+    }
+    if (Collection.class.isAssignableFrom(field.getType())) {
+      handlerCollectionFields.put((Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0], field);
+    }
+    else {
+      handlerSimpleFields.put(field.getType(), field);
+    }
+  }
+
+  /**
+   * Gets the collections of the document by row type, initializing the collection fields which have no value
+   * (with <code>ArrayList</code>).
+   */
+  Map<Class<?>, Collection> bindCollections(Object document) {
+    HashMap<Class<?>, Collection> collections = new HashMap<>();
+    for (Map.Entry<Class<?>, Field> entry : collectionFields.entrySet()) {
+      Field field = entry.getValue();
+      try {
+        Collection collection = (Collection) field.get(document);
+        if (collection == null) {
+          collection = new ArrayList();
+          field.set(document, collection);
+        }
+        collections.put(entry.getKey(), collection);
+      }
+      catch (IllegalAccessException e) {
+        throw new SdvParsingReflectionException(
+          String.format("Error while getting field %s on class %s", field.getName(), document.getClass()), e);
+      }
+    }
+    return collections;
+  }
+
+  SdvRowHandler getMethodHandler(Class<?> rowType) {
+    return methodHandlers.get(rowType);
+  }
+
+  SdvRowHandler getFieldHandler(Class<?> rowType) {
+    return fieldHandlers.get(rowType);
+  }
+
+  /**
+   * @return row types the documents can hold
+   */
+  List<Class<?>> getRowTypes() {
+    return rowTypes;
+  }
+
+}
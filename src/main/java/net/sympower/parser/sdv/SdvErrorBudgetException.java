@@ -0,0 +1,25 @@
+package net.sympower.parser.sdv;
+
+import java.util.List;
+
+/**
+ * Thrown by a lenient parse when more rows fail than the error budget allows.
+ */
+public class SdvErrorBudgetException extends SdvParsingException {
+
+  private final List<SdvRowError> errors;
+
+  public SdvErrorBudgetException(int errorBudget, List<SdvRowError> errors) {
+    super(String.format("Error budget (%s) exceeded: %s", errorBudget, errors.get(errors.size() - 1)),
+      errors.get(errors.size() - 1).getCause());
+    this.errors = errors;
+  }
+
+  /**
+   * @return errors of the parse, including the one which exceeded the budget
+   */
+  public List<SdvRowError> getErrors() {
+    return errors;
+  }
+
+}
@@ -0,0 +1,156 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Follows a file which is appended to, parsing only the complete rows appended since the previous poll
+ * (see {@link SdvReader#follow(Path)}).
+ * <p>
+ * The follower remembers the byte offset after the last complete line. A trailing line without a line terminator
+ * is left for the next poll, as it may still be written to. If the file is truncated or replaced (rotated), it is
+ * parsed again from the beginning. A file is considered replaced if its file key, its first bytes or the bytes
+ * before the offset change, or if it is smaller than the offset.
+ * <p>
+ * The offset is advanced only after all the new rows are delivered, so rows are delivered again after an error.
+ * The file has to be in UTF-8 or an ASCII compatible single byte charset. Instances are not thread-safe.
+ */
+public class SdvFileFollower {
+
+  private static final int HEAD_SIZE = 64;
+  private static final int TAIL_SIZE = 64;
+  private static final int SCAN_BUFFER_SIZE = 8192;
+
+  private final SdvReader reader;
+  private final Path path;
+
+  private long offset;
+  private Object fileKey;
+  private byte[] head = new byte[0];
+  private byte[] tail = new byte[0];
+
+  SdvFileFollower(SdvReader reader, Path path) {
+    this.reader = reader;
+    this.path = path;
+  }
+
+  /**
+   * @return rows appended since the previous poll
+   */
+  public <T> List<T> poll(Class<T> rowFilterType) throws IOException {
+    ArrayList<T> rows = new ArrayList<>();
+    poll(this.reader.registerRowTypes(Collections.emptyList()), rowFilterType::isAssignableFrom, row -> rows.add((T) row));
+    return rows;
+  }
+
+  /**
+   * Passes the rows appended since the previous poll to their handlers.
+   *
+   * @return number of handled rows
+   */
+  public long poll(SdvRowDispatcher dispatcher) throws IOException {
+    return poll(this.reader.registerRowTypes(dispatcher.getRowTypes()), dispatcher::accepts, dispatcher::dispatch);
+  }
+
+  private long poll(Map<String, Class<?>> rowTypes, Predicate<Class<?>> rowFilter, Consumer<Object> consumer) throws IOException {
+    if (!SdvByteTokenizer.isAsciiCompatible(this.reader.getCharset())) {
+      throw new SdvParsingException(
+        String.format("Following a file requires an ASCII compatible charset, not %s", this.reader.getCharset()));
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      Object key = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+      long size = channel.size();
+      if (isReplaced(channel, key, size)) {
+        this.offset = 0;
+        this.head = new byte[0];
+        this.tail = new byte[0];
+      }
+      this.fileKey = key;
+      long end = findLastLineEnd(channel, this.offset, size);
+      if (end <= this.offset) {
+        return 0;
+      }
+      long count = 0;
+      // a growing file is read instead of mapped, which would hold it open and fault if it is truncated
+      SdvTokenizer tokenizer = this.reader.newTokenizer(channel, this.offset, end, false, Long.MAX_VALUE);
+      try (SdvRowIterator<Object> iter = this.reader.iterate(tokenizer, rowTypes, rowFilter)) {
+        while (iter.hasNext()) {
+          consumer.accept(iter.next());
+          count++;
+        }
+      }
+      this.offset = end;
+      this.tail = read(channel, end - Math.min(TAIL_SIZE, end), (int) Math.min(TAIL_SIZE, end));
+      if (this.head.length < HEAD_SIZE) {
+        this.head = read(channel, 0, (int) Math.min(HEAD_SIZE, end));
+      }
+      return count;
+    }
+  }
+
+  private boolean isReplaced(FileChannel channel, Object key, long size) throws IOException {
+    if (key != null && this.fileKey != null && !key.equals(this.fileKey)) {
+      return true;
+    }
+    if (size < this.offset) {
+      return true;
+    }
+    if (this.head.length > 0 && !Arrays.equals(this.head, read(channel, 0, this.head.length))) {
+      return true;
+    }
+    // without a file key, a file rewritten with the same first bytes differs in the bytes before the offset
+    return this.tail.length > 0 && !Arrays.equals(this.tail, read(channel, this.offset - this.tail.length, this.tail.length));
+  }
+
+  private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+      // read until the buffer is full or the end of the file
+    }
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  /**
+   * @return offset right after the last line terminator between the offsets, or <code>from</code> if there is none
+   */
+  private static long findLastLineEnd(FileChannel channel, long from, long to) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+    long end = to;
+    while (end > from) {
+      long start = Math.max(from, end - SCAN_BUFFER_SIZE);
+      buffer.clear();
+      buffer.limit((int) (end - start));
+      while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) > 0) {
+        // read the whole block
+      }
+      for (int i = buffer.position() - 1; i >= 0; i--) {
+        byte b = buffer.get(i);
+        if (b == '\n' || b == '\r') {
+          return start + i + 1;
+        }
+      }
+      end = start;
+    }
+    return from;
+  }
+
+  /**
+   * @return byte offset after the last complete line parsed so far
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+}
@@ -0,0 +1,14 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Parses a single file of a multi-file parse, e.g. <code>(reader, path) -&gt; reader.handle(path, dispatcher)</code>.
+ */
+@FunctionalInterface
+public interface SdvFileParser<R> {
+
+  R parse(SdvReader reader, Path path) throws IOException;
+
+}
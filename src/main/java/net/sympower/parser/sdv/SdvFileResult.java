@@ -0,0 +1,71 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Result of parsing one file of a multi-file parse (see {@link SdvReader#parseFiles(java.util.List, SdvFileParser, SdvResultOrder)}):
+ * either the parsed value or the error which failed the file. An error does not affect the other files.
+ */
+public final class SdvFileResult<T> {
+
+  private final Path path;
+  private final T result;
+  private final Exception error;
+
+  private SdvFileResult(Path path, T result, Exception error) {
+    this.path = path;
+    this.result = result;
+    this.error = error;
+  }
+
+  static <T> SdvFileResult<T> success(Path path, T result) {
+    return new SdvFileResult<>(path, result, null);
+  }
+
+  static <T> SdvFileResult<T> failure(Path path, Exception error) {
+    return new SdvFileResult<>(path, null, error);
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  /**
+   * @return parsed value, or <code>null</code> if parsing the file failed
+   */
+  public T getResult() {
+    return result;
+  }
+
+  /**
+   * @return error which failed the file (an <code>IOException</code> or a runtime exception), or <code>null</code>
+   */
+  public Exception getError() {
+    return error;
+  }
+
+  /**
+   * @return parsed value
+   * @throws SdvParsingException if parsing the file failed, caused by the error
+   */
+  public T get() {
+    if (error instanceof IOException) {
+      throw new SdvParsingIOException(error);
+    }
+    if (error != null) {
+      throw new SdvParsingException(String.format("Error while parsing file %s", path), error);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return isSuccess() ? path + ": " + result : path + ": " + error;
+  }
+
+}
@@ -0,0 +1,14 @@
+package net.sympower.parser.sdv;
+
+import java.lang.annotation.Retention;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Shares the string values of a row constructor parameter through the bounded string cache of the reader,
+ * for columns which repeat a few values (see {@link SdvReader#setInternStrings(boolean)} to do so for all
+ * string columns).
+ */
+@Retention(RUNTIME)
+public @interface SdvIntern {
+}
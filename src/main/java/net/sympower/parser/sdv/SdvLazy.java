@@ -0,0 +1,63 @@
+package net.sympower.parser.sdv;
+
+import java.util.Locale;
+
+/**
+ * Column value which is converted on first access. A row constructor parameter declared as e.g.
+ * <code>SdvLazy&lt;BigDecimal&gt;</code> keeps just the text of the column, so the conversion is skipped for rows
+ * whose value is never read. Conversion errors are thrown by {@link #get()}.
+ * <p>
+ * The value is safely published to other threads. It may be converted more than once if it is first accessed
+ * concurrently, each thread then gets an equal value.
+ */
+public final class SdvLazy<T> {
+
+  private static final Object NOT_CONVERTED = new Object();
+
+  private final String text;
+  private final SdvColumnBinding column;
+  private final Locale locale;
+
+  private volatile Object value = NOT_CONVERTED;
+
+  SdvLazy(String text, SdvColumnBinding column, Locale locale) {
+    this.text = text;
+    this.column = column;
+    this.locale = locale;
+  }
+
+  /**
+   * Creates a value which is already converted (e.g. from a {@link SdvColumnBatch}) from the text of the column.
+   */
+  SdvLazy(String text, T value) {
+    this.text = text;
+    this.column = null;
+    this.locale = null;
+    this.value = value;
+  }
+
+  /**
+   * @return converted value, or <code>null</code> if the column is empty or missing
+   */
+  public T get() {
+    Object converted = this.value;
+    if (converted == NOT_CONVERTED) {
+      converted = column.convert(text, locale);
+      this.value = converted;
+    }
+    return (T) converted;
+  }
+
+  /**
+   * @return text of the column, or <code>null</code> if the column is empty or missing
+   */
+  public String getText() {
+    return text;
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(text);
+  }
+
+}
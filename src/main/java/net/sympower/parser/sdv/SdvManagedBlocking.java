@@ -0,0 +1,76 @@
+package net.sympower.parser.sdv;
+
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Waits for the tasks of a fork-join pool as {@link ForkJoinPool.ManagedBlocker}s: a parse waiting in a worker of
+ * the pool (e.g. a parallel parse within a multi-file parse, or any parse on the common pool) lets the pool add a
+ * compensating worker, instead of starving or deadlocking it. Outside a fork-join pool these just block.
+ */
+final class SdvManagedBlocking {
+
+  private SdvManagedBlocking() {
+  }
+
+  static <V> V get(Future<V> future) throws InterruptedException, ExecutionException {
+    if (!future.isDone()) {
+      ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+        @Override
+        public boolean block() throws InterruptedException {
+          try {
+            future.get();
+          }
+          catch (ExecutionException e) {
+            // thrown by the get() below
+          }
+          return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+          return future.isDone();
+        }
+
+      });
+    }
+    return future.get();
+  }
+
+  static <V> Future<V> take(CompletionService<V> completionService) throws InterruptedException {
+    TakeBlocker<V> blocker = new TakeBlocker<>(completionService);
+    ForkJoinPool.managedBlock(blocker);
+    return blocker.completed;
+  }
+
+  private static final class TakeBlocker<V> implements ForkJoinPool.ManagedBlocker {
+
+    private final CompletionService<V> completionService;
+    private Future<V> completed;
+
+    TakeBlocker(CompletionService<V> completionService) {
+      this.completionService = completionService;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException {
+      if (this.completed == null) {
+        this.completed = this.completionService.take();
+      }
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      if (this.completed == null) {
+        this.completed = this.completionService.poll();
+      }
+      return this.completed != null;
+    }
+
+  }
+
+}
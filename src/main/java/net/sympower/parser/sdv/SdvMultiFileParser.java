@@ -0,0 +1,89 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parses files concurrently on a fork-join pool, with at most a given number of files in progress at a time
+ * (so a large backfill does not flood a shared pool or hold the results of more files than needed).
+ * <p>
+ * Each file is parsed independently: an <code>IOException</code> or a runtime exception fails only its
+ * {@link SdvFileResult}.
+ */
+class SdvMultiFileParser {
+
+  private final SdvReader reader;
+  private final ForkJoinPool pool;
+  private final int parallelism;
+
+  SdvMultiFileParser(SdvReader reader, ForkJoinPool pool, int parallelism) {
+    this.reader = reader;
+    this.pool = pool;
+    this.parallelism = parallelism;
+  }
+
+  <R> List<SdvFileResult<R>> parse(List<Path> paths, SdvFileParser<R> parser, SdvResultOrder order) throws IOException {
+    SdvFileResult<R>[] results = new SdvFileResult[paths.size()];
+    List<SdvFileResult<R>> completed = new ArrayList<>(paths.size());
+    CompletionService<SdvFileResult<R>> completionService = new ExecutorCompletionService<>(this.pool);
+    List<Future<SdvFileResult<R>>> futures = new ArrayList<>(paths.size());
+    try {
+      int submitted = 0;
+      while (submitted < paths.size() && submitted < this.parallelism) {
+        futures.add(submit(completionService, paths, submitted++, parser, results));
+      }
+      while (completed.size() < paths.size()) {
+        completed.add(SdvManagedBlocking.take(completionService).get());
+        if (submitted < paths.size()) {
+          futures.add(submit(completionService, paths, submitted++, parser, results));
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while parsing files");
+    }
+    catch (ExecutionException e) {
+      throw rethrow(e.getCause());
+    }
+    finally {
+      for (Future<SdvFileResult<R>> future : futures) {
+        future.cancel(false);
+      }
+    }
+    return order == SdvResultOrder.INPUT ? Arrays.asList(results) : completed;
+  }
+
+  private <R> Future<SdvFileResult<R>> submit(CompletionService<SdvFileResult<R>> completionService, List<Path> paths,
+                                              int index, SdvFileParser<R> parser, SdvFileResult<R>[] results) {
+    Path path = paths.get(index);
+    return completionService.submit(() -> {
+      SdvFileResult<R> result;
+      try {
+        result = SdvFileResult.success(path, parser.parse(this.reader, path));
+      }
+      catch (IOException | RuntimeException e) {
+        result = SdvFileResult.failure(path, e);
+      }
+      results[index] = result;
+      return result;
+    });
+  }
+
+  private static SdvParsingException rethrow(Throwable cause) {
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new SdvParsingException(cause);
+  }
+
+}
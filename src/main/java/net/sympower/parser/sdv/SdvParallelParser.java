@@ -0,0 +1,142 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parses a file in chunks on a fork-join pool.
+ * <p>
+ * The file is split at line terminators into chunks of roughly the same size, so every chunk can be
+ * tokenized and converted independently. This requires an ASCII compatible charset, see
+ * {@link SdvByteTokenizer#isAsciiCompatible(Charset)}.
+ */
+class SdvParallelParser {
+
+  private static final int SCAN_BUFFER_SIZE = 8192;
+
+  private final SdvReader reader;
+  private final ForkJoinPool pool;
+  private final long chunkSize;
+
+  SdvParallelParser(SdvReader reader, ForkJoinPool pool, long chunkSize) {
+    this.reader = reader;
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  <T> List<T> parse(Path path, Class<T> rowFilterType, SdvResultOrder order) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long[] boundaries = findChunkBoundaries(channel, channel.size(), this.chunkSize);
+      CompletionService<List<T>> completionService = new ExecutorCompletionService<>(this.pool);
+      List<Future<List<T>>> futures = new ArrayList<>(boundaries.length - 1);
+      for (int i = 0; i < boundaries.length - 1; i++) {
+        long start = boundaries[i];
+        long end = boundaries[i + 1];
+        futures.add(completionService.submit(() -> parseChunk(channel, start, end, rowFilterType)));
+      }
+      try {
+        ArrayList<T> rows = new ArrayList<>();
+        for (Future<List<T>> future : futures) {
+          Future<List<T>> completed = order == SdvResultOrder.INPUT ? future : SdvManagedBlocking.take(completionService);
+          rows.addAll(SdvManagedBlocking.get(completed));
+        }
+        return rows;
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while parsing " + path);
+      }
+      catch (ExecutionException e) {
+        throw rethrow(e.getCause());
+      }
+      finally {
+        for (Future<List<T>> future : futures) {
+          future.cancel(false);
+        }
+      }
+    }
+  }
+
+  private <T> List<T> parseChunk(FileChannel channel, long start, long end, Class<T> rowFilterType) throws IOException {
+    ArrayList<T> rows = new ArrayList<>();
+    try (SdvRowIterator<T> iter = this.reader.iterate(this.reader.newTokenizer(channel, start, end, false), rowFilterType)) {
+      iter.forEachRemaining(rows::add);
+    }
+    return rows;
+  }
+
+  private static IOException rethrow(Throwable cause) throws IOException {
+    if (cause instanceof IOException) {
+      throw (IOException) cause;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    throw new SdvParsingException(cause);
+  }
+
+  /**
+   * Finds the chunk boundaries, each chunk (except the last one) ends right after a line terminator.
+   *
+   * @return start offsets of the chunks followed by the size of the file
+   */
+  static long[] findChunkBoundaries(FileChannel channel, long size, long chunkSize) throws IOException {
+    long[] boundaries = new long[(int) (size / chunkSize) + 2];
+    int count = 0;
+    boundaries[count++] = 0;
+    ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+    long position = chunkSize;
+    while (position < size) {
+      long lineEnd = findLineEnd(channel, position, size, buffer);
+      if (lineEnd >= size) {
+        break;
+      }
+      boundaries[count++] = lineEnd;
+      position = lineEnd + chunkSize;
+    }
+    boundaries[count++] = size;
+    return Arrays.copyOf(boundaries, count);
+  }
+
+  /**
+   * @return offset right after the first line terminator at or after the position, or the size of the file
+   */
+  static long findLineEnd(FileChannel channel, long position, long size) throws IOException {
+    return findLineEnd(channel, position, size, ByteBuffer.allocate(SCAN_BUFFER_SIZE));
+  }
+
+  private static long findLineEnd(FileChannel channel, long position, long size, ByteBuffer buffer) throws IOException {
+    while (position < size) {
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        byte b = buffer.get(i);
+        if (b == '\n' || b == '\r') {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return size;
+  }
+
+}
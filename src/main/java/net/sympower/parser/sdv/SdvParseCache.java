@@ -0,0 +1,334 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cache of parse results (see {@link SdvReader#setParseCache(SdvParseCache)}), so a file parsed over and over is
+ * parsed only once while it does not change. Files are identified by their path, size and modification time, streams
+ * by a hash of their content. Streams are cached only up to a size (none by default), as they are read to memory
+ * and hashed before parsing, even when their result is not cached yet. A result is cached per reader and per row filter or document type.
+ * <p>
+ * The cache is bounded by an estimate of the bytes retained by the results, proportional to the size of their
+ * source, and evicts the least recently used results over the budget. Concurrent requests for a source which is
+ * being parsed wait for that parse instead of parsing it again. Failed parses are not cached.
+ * <p>
+ * The rows of cached results are shared by all the callers, but each caller gets its own list (a copy of the
+ * cached list) or document (collected from the cached rows), which it can modify. A cache can be shared by readers, which should then be immutable (see {@link SdvReader#builder()}).
+ */
+public class SdvParseCache {
+
+  /**
+   * Default estimate of the bytes retained by the parsed rows per byte of source: text is held as UTF-16 strings
+   * and values as objects, each with a header.
+   */
+  public static final double DEFAULT_BYTES_PER_SOURCE_BYTE = 4;
+
+  private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+
+  private final long maxRetainedBytes;
+  private final double bytesPerSourceByte;
+  private final int maxStreamBytes;
+
+  // guarded by this
+  private final LinkedHashMap<Key, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long retainedBytes;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /**
+   * @param maxRetainedBytes budget of the estimated bytes retained by the cached results
+   */
+  public SdvParseCache(long maxRetainedBytes) {
+    this(maxRetainedBytes, DEFAULT_BYTES_PER_SOURCE_BYTE);
+  }
+
+  /**
+   * @param maxRetainedBytes budget of the estimated bytes retained by the cached results
+   * @param bytesPerSourceByte estimate of the bytes retained by a result per byte of its source
+   */
+  public SdvParseCache(long maxRetainedBytes, double bytesPerSourceByte) {
+    this(maxRetainedBytes, bytesPerSourceByte, 0);
+  }
+
+  /**
+   * @param maxRetainedBytes budget of the estimated bytes retained by the cached results
+   * @param bytesPerSourceByte estimate of the bytes retained by a result per byte of its source
+   * @param maxStreamBytes size of the largest stream which is cached, larger streams are parsed without caching
+   */
+  public SdvParseCache(long maxRetainedBytes, double bytesPerSourceByte, int maxStreamBytes) {
+    if (maxRetainedBytes < 0) {
+      throw new IllegalArgumentException(String.format("Maximum retained bytes (%s) can not be negative", maxRetainedBytes));
+    }
+    if (bytesPerSourceByte <= 0) {
+      throw new IllegalArgumentException(String.format("Bytes per source byte (%s) has to be positive", bytesPerSourceByte));
+    }
+    if (maxStreamBytes < 0 || maxStreamBytes > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(String.format("Maximum stream bytes (%s) has to be between 0 and 2^31 - 9", maxStreamBytes));
+    }
+    this.maxRetainedBytes = maxRetainedBytes;
+    this.bytesPerSourceByte = bytesPerSourceByte;
+    this.maxStreamBytes = maxStreamBytes;
+  }
+
+  /**
+   * @return the cached result of the file, or the result of the parser, which is then cached
+   */
+  <T> T get(SdvReader reader, Path path, Class<?> type, boolean document, SupplierWithIOException<T> parser) throws IOException {
+    SdvSourceFingerprint fingerprint = SdvSourceFingerprint.of(path);
+    Key key = new Key(reader, path.toAbsolutePath().normalize(), fingerprint, type, document);
+    return get(key, fingerprint.getSize(), parser);
+  }
+
+  /**
+   * @return the cached result of the content, or the result of the parser, which is then cached
+   */
+  <T> T get(SdvReader reader, byte[] content, Class<?> type, boolean document, SupplierWithIOException<T> parser) throws IOException {
+    Key key = new Key(reader, ByteBuffer.wrap(hash(content)), null, type, document);
+    return get(key, content.length, parser);
+  }
+
+  private static byte[] hash(byte[] content) {
+    try {
+      return MessageDigest.getInstance(CONTENT_HASH_ALGORITHM).digest(content);
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(String.format("Hash algorithm %s is not available", CONTENT_HASH_ALGORITHM), e);
+    }
+  }
+
+  private <T> T get(Key key, long sourceBytes, SupplierWithIOException<T> parser) throws IOException {
+    CachedResult entry;
+    boolean parse = false;
+    synchronized (this) {
+      entry = entries.get(key);
+      if (entry != null) {
+        this.hitCount++;
+      }
+      else {
+        this.missCount++;
+        removeStale(key);
+        entry = new CachedResult((long) Math.ceil(sourceBytes * this.bytesPerSourceByte));
+        entries.put(key, entry);
+        parse = true;
+      }
+    }
+    if (parse) {
+      return parse(key, entry, parser);
+    }
+    try {
+      return (T) entry.result.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a concurrent parse");
+    }
+    catch (ExecutionException e) {
+      throw rethrow(e.getCause());
+    }
+  }
+
+  private <T> T parse(Key key, CachedResult entry, SupplierWithIOException<T> parser) throws IOException {
+    T result;
+    try {
+      result = parser.get();
+    }
+    catch (IOException | RuntimeException | Error e) {
+      synchronized (this) {
+        entries.remove(key, entry);
+      }
+      entry.result.completeExceptionally(e);
+      throw e;
+    }
+    synchronized (this) {
+      if (entries.get(key) == entry) {
+        entry.loaded = true;
+        this.retainedBytes += entry.bytes;
+        evict();
+      }
+    }
+    entry.result.complete(result);
+    return result;
+  }
+
+  /**
+   * Removes the results of earlier versions of the file, which can not be requested any more.
+   */
+  private void removeStale(Key key) {
+    if (key.fingerprint == null) {
+      return;
+    }
+    Iterator<Map.Entry<Key, CachedResult>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Key, CachedResult> cached = iterator.next();
+      if (cached.getValue().loaded && cached.getKey().isEarlierVersionOf(key)) {
+        iterator.remove();
+        this.retainedBytes -= cached.getValue().bytes;
+        this.evictionCount++;
+      }
+    }
+  }
+
+  /**
+   * Evicts the least recently used results until the retained bytes are within the budget. Results still being
+   * parsed are not evicted.
+   */
+  private void evict() {
+    Iterator<CachedResult> iterator = entries.values().iterator();
+    while (this.retainedBytes > this.maxRetainedBytes && iterator.hasNext()) {
+      CachedResult entry = iterator.next();
+      if (entry.loaded) {
+        iterator.remove();
+        this.retainedBytes -= entry.bytes;
+        this.evictionCount++;
+      }
+    }
+  }
+
+  private static IOException rethrow(Throwable cause) throws IOException {
+    if (cause instanceof IOException) {
+      throw (IOException) cause;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    throw new SdvParsingException(cause);
+  }
+
+  /**
+   * Removes all the cached results. Parses in progress complete, but their results are not cached.
+   */
+  public synchronized void invalidateAll() {
+    entries.clear();
+    this.retainedBytes = 0;
+  }
+
+  public long getMaxRetainedBytes() {
+    return maxRetainedBytes;
+  }
+
+  /**
+   * @return size of the largest stream which is cached, <code>0</code> if streams are not cached
+   */
+  public int getMaxStreamBytes() {
+    return maxStreamBytes;
+  }
+
+  /**
+   * @return estimate of the bytes retained by the cached results
+   */
+  public synchronized long getRetainedBytes() {
+    return retainedBytes;
+  }
+
+  /**
+   * @return number of cached results, including the ones being parsed
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return number of requests served without parsing, including the ones which waited for a concurrent parse
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return number of requests which parsed their source
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  public synchronized double getHitRate() {
+    long requests = this.hitCount + this.missCount;
+    return requests == 0 ? 0 : this.hitCount / (double) requests;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("%s results, %s of %s bytes, %s hits, %s misses, %s evictions",
+      entries.size(), retainedBytes, maxRetainedBytes, hitCount, missCount, evictionCount);
+  }
+
+  private static final class CachedResult {
+
+    private final long bytes;
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    private boolean loaded;
+
+    CachedResult(long bytes) {
+      this.bytes = bytes;
+    }
+
+  }
+
+  /**
+   * Identity of a parse: the reader, the source (a path with its fingerprint, or a content hash) and the type
+   * of the result.
+   */
+  private static final class Key {
+
+    private final SdvReader reader;
+    private final Object source;
+    private final SdvSourceFingerprint fingerprint;
+    private final Class<?> type;
+    private final boolean document;
+
+    Key(SdvReader reader, Object source, SdvSourceFingerprint fingerprint, Class<?> type, boolean document) {
+      this.reader = reader;
+      this.source = source;
+      this.fingerprint = fingerprint;
+      this.type = type;
+      this.document = document;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return reader == other.reader && type == other.type && document == other.document
+        && source.equals(other.source) && Objects.equals(fingerprint, other.fingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(reader), source, fingerprint, type, document);
+    }
+
+    /**
+     * @return whether the key is of the same parse of the same file, but with another fingerprint
+     */
+    boolean isEarlierVersionOf(Key other) {
+      return reader == other.reader && type == other.type && document == other.document
+        && source.equals(other.source) && !Objects.equals(fingerprint, other.fingerprint);
+    }
+
+  }
+
+}
@@ -0,0 +1,48 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Receives metrics of parsing (see {@link SdvReader#setParseListener(SdvParseListener)}), e.g. to monitor the
+ * throughput of ingestion or to find expensive columns. The methods have empty defaults, so a listener implements
+ * only the metrics it needs; {@link SdvParseStatistics} collects all of them.
+ * <p>
+ * The methods are called by the parsing threads, concurrently by concurrent parses, so they have to be thread-safe
+ * and fast. Timings are measured only if a listener is set: the default {@link #NONE} costs nothing.
+ * <p>
+ * Counts of lines and skipped rows are reported when the input (or a part of it, such as a chunk of a parallel
+ * parse or a fed chunk of bytes) has been read, so a single parse may report them several times.
+ */
+public interface SdvParseListener {
+
+  SdvParseListener NONE = new SdvParseListener() {
+  };
+
+  /**
+   * @param lines number of lines read, including blank and comment lines
+   * @param bytes number of bytes read, or -1 if the input is read through a {@link java.io.Reader}
+   */
+  default void inputRead(long lines, long bytes) {
+  }
+
+  /**
+   * @param count number of lines skipped for the reason (at least one)
+   */
+  default void rowsSkipped(SdvSkipReason reason, long count) {
+  }
+
+  /**
+   * Called for each row created, after its columns are converted.
+   *
+   * @param instantiationNanos time of creating the row instance, excluding the conversion of its columns
+   */
+  default void rowParsed(Class<?> rowType, long instantiationNanos) {
+  }
+
+  /**
+   * Called for each converted column of a created row.
+   *
+   * @param converterClass class of the converter registered for the type of the column
+   */
+  default void columnConverted(Class<?> converterClass, long nanos) {
+  }
+
+}
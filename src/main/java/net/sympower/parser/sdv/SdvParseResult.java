@@ -0,0 +1,38 @@
+package net.sympower.parser.sdv;
+
+import java.util.List;
+
+/**
+ * Result of a lenient parse: the parsed value and the errors of the rows which were skipped.
+ */
+public final class SdvParseResult<T> {
+
+  private final T result;
+  private final List<SdvRowError> errors;
+
+  SdvParseResult(T result, List<SdvRowError> errors) {
+    this.result = result;
+    this.errors = errors;
+  }
+
+  public T getResult() {
+    return result;
+  }
+
+  /**
+   * @return errors in the order of the input
+   */
+  public List<SdvRowError> getErrors() {
+    return errors;
+  }
+
+  public boolean hasErrors() {
+    return !errors.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return result + " (" + errors.size() + " errors)";
+  }
+
+}
@@ -0,0 +1,220 @@
+package net.sympower.parser.sdv;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parse listener which collects the metrics in memory: counts of lines, bytes and rows, and histograms of the
+ * instantiation time per row type and of the conversion time per converter class.
+ * <p>
+ * Rates are computed over the time since the statistics were created or {@link #reset()}. The statistics can be
+ * read while parses are running; the values read are then not necessarily from the same moment.
+ */
+public class SdvParseStatistics implements SdvParseListener {
+
+  private final LongAdder lines = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final Map<SdvSkipReason, LongAdder> skippedRows = new EnumMap<>(SdvSkipReason.class);
+  private final ConcurrentHashMap<Class<?>, Histogram> instantiationTimes = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Class<?>, Histogram> conversionTimes = new ConcurrentHashMap<>();
+  private volatile long startNanos = System.nanoTime();
+
+  public SdvParseStatistics() {
+    for (SdvSkipReason reason : SdvSkipReason.values()) {
+      skippedRows.put(reason, new LongAdder());
+    }
+  }
+
+  @Override
+  public void inputRead(long lines, long bytes) {
+    this.lines.add(lines);
+    if (bytes > 0) {
+      this.bytes.add(bytes);
+    }
+  }
+
+  @Override
+  public void rowsSkipped(SdvSkipReason reason, long count) {
+    skippedRows.get(reason).add(count);
+  }
+
+  @Override
+  public void rowParsed(Class<?> rowType, long instantiationNanos) {
+    rows.increment();
+    getHistogram(instantiationTimes, rowType).record(instantiationNanos);
+  }
+
+  @Override
+  public void columnConverted(Class<?> converterClass, long nanos) {
+    getHistogram(conversionTimes, converterClass).record(nanos);
+  }
+
+  private static Histogram getHistogram(ConcurrentHashMap<Class<?>, Histogram> histograms, Class<?> key) {
+    Histogram histogram = histograms.get(key);
+    if (histogram == null) {
+      Histogram newHistogram = new Histogram();
+      histogram = histograms.putIfAbsent(key, newHistogram);
+      if (histogram == null) {
+        histogram = newHistogram;
+      }
+    }
+    return histogram;
+  }
+
+  /**
+   * Resets all the statistics, and the time the rates are computed over.
+   */
+  public void reset() {
+    lines.reset();
+    bytes.reset();
+    rows.reset();
+    skippedRows.values().forEach(LongAdder::reset);
+    instantiationTimes.clear();
+    conversionTimes.clear();
+    this.startNanos = System.nanoTime();
+  }
+
+  public long getLines() {
+    return lines.sum();
+  }
+
+  /**
+   * @return number of bytes read, not including input read through a {@link java.io.Reader}
+   */
+  public long getBytes() {
+    return bytes.sum();
+  }
+
+  public long getRows() {
+    return rows.sum();
+  }
+
+  public long getRows(Class<?> rowType) {
+    Histogram histogram = instantiationTimes.get(rowType);
+    return histogram != null ? histogram.getCount() : 0;
+  }
+
+  public long getSkippedRows(SdvSkipReason reason) {
+    return skippedRows.get(reason).sum();
+  }
+
+  public double getRowsPerSecond() {
+    return perSecond(getRows());
+  }
+
+  public double getBytesPerSecond() {
+    return perSecond(getBytes());
+  }
+
+  private double perSecond(long count) {
+    long elapsedNanos = Math.max(System.nanoTime() - this.startNanos, 1);
+    return count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  public Set<Class<?>> getRowTypes() {
+    return Collections.unmodifiableSet(instantiationTimes.keySet());
+  }
+
+  /**
+   * @return histogram of the instantiation times of the row type, or <code>null</code> if no rows of the type were parsed
+   */
+  public Histogram getInstantiationTimes(Class<?> rowType) {
+    return instantiationTimes.get(rowType);
+  }
+
+  public Set<Class<?>> getConverterClasses() {
+    return Collections.unmodifiableSet(conversionTimes.keySet());
+  }
+
+  /**
+   * @return histogram of the conversion times of the converter class, or <code>null</code> if it converted no columns
+   */
+  public Histogram getConversionTimes(Class<?> converterClass) {
+    return conversionTimes.get(converterClass);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s lines, %s bytes, %s rows (%.0f rows/s, %.0f bytes/s), skipped %s",
+      getLines(), getBytes(), getRows(), getRowsPerSecond(), getBytesPerSecond(), skippedRows);
+  }
+
+  /**
+   * Histogram of durations in buckets of powers of two nanoseconds (bucket <i>i</i> holds durations below
+   * 2<sup>i</sup> ns). Percentiles are the upper bounds of their buckets, so they are overestimated by less than
+   * a factor of two.
+   */
+  public static final class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    Histogram() {
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    void record(long nanos) {
+      long value = Math.max(nanos, 0);
+      buckets[BUCKETS - Long.numberOfLeadingZeros(value)].increment();
+      count.increment();
+      totalNanos.add(value);
+    }
+
+    public long getCount() {
+      return count.sum();
+    }
+
+    public long getTotalNanos() {
+      return totalNanos.sum();
+    }
+
+    public double getMeanNanos() {
+      long n = getCount();
+      return n == 0 ? 0 : getTotalNanos() / (double) n;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the bucket containing the percentile, or 0 if there are no values
+     */
+    public long getPercentileNanos(double percentile) {
+      if (percentile < 0 || percentile > 100) {
+        throw new IllegalArgumentException(String.format("Percentile (%s) has to be between 0 and 100", percentile));
+      }
+      long[] counts = new long[BUCKETS];
+      long total = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        counts[i] = buckets[i].sum();
+        total += counts[i];
+      }
+      long rank = (long) Math.ceil(percentile / 100 * total);
+      long cumulative = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        cumulative += counts[i];
+        if (counts[i] > 0 && cumulative >= rank) {
+          return (1L << i) - 1;
+        }
+      }
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("count %s, mean %.0f ns, p50 %s ns, p99 %s ns",
+        getCount(), getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99));
+    }
+
+  }
+
+}
@@ -14,4 +14,12 @@ public class SdvParsingException extends RuntimeException {
     super(cause);
   }
 
+  /**
+   * @param writableStackTrace whether the stack trace is filled in: without it the exception is cheap to create,
+   * e.g. for the errors of a lenient parse, which are located by their line instead
+   */
+  protected SdvParsingException(String message, Throwable cause, boolean writableStackTrace) {
+    super(message, cause, true, writableStackTrace);
+  }
+
 }
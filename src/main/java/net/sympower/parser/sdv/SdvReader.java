@@ -1,18 +1,28 @@
 package net.sympower.parser.sdv;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -20,35 +30,62 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class SdvReader {
 
-  private static final String COMMENT_PREFIX = "#";
-  private static final String COLUMN_DELIMITER = ";";
+  static final String COMMENT_PREFIX = "#";
+  static final char COLUMN_DELIMITER = ';';
+  private static final long DEFAULT_PARALLEL_CHUNK_SIZE = 8 * 1024 * 1024;
 
-  private final HashMap<String, Class<?>> rowBeans = new HashMap<>();
-  private final HashMap<Class<?>, SdvTypeConverter<?>> converters = new HashMap<>();
-  private final HashMap<Class<?>, SdvTypeConverterWithFormat<?, ? extends Annotation>> convertersWithFormat = new HashMap<>();
+  private Map<String, Class<?>> rowBeans = new HashMap<>();
+  private Map<Class<?>, SdvTypeConverter<?>> converters = new HashMap<>();
+  private Map<Class<?>, SdvTypeConverterWithFormat<?, ? extends Annotation>> convertersWithFormat = new HashMap<>();
+  private Set<Class<?>> customConverterTypes = new HashSet<>();
+  private final ConcurrentHashMap<Class<?>, Map<Integer, SdvRowBinding<?>>> rowBindings = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Class<?>, SdvWriterBinding> writerBindings = new ConcurrentHashMap<>();
 
   private Charset charset = StandardCharsets.UTF_8;
   private boolean ignoreUnknownRows = true;
-  private final Pattern columnDelimiterPattern;
   private Locale defaultLocale = Locale.getDefault();
   private DecimalFormat defaultDecimalFormat = new DecimalFormat();
+  private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+  private long parallelChunkSize = DEFAULT_PARALLEL_CHUNK_SIZE;
+  private int fileParallelism = Runtime.getRuntime().availableProcessors();
+  private long mappedWindowSize = SdvByteTokenizer.DEFAULT_WINDOW_SIZE;
+  private long mappedThreshold = SdvByteTokenizer.DEFAULT_MAPPED_THRESHOLD;
+  private boolean internStrings;
+  private SdvStringCache stringCache = new SdvStringCache(SdvStringCache.DEFAULT_SIZE);
+  private SdvParseListener parseListener = SdvParseListener.NONE;
+  private SdvParseCache parseCache;
+  private boolean immutable;
 
   public SdvReader() {
-    this.columnDelimiterPattern = Pattern.compile(Pattern.quote(COLUMN_DELIMITER));
-    registerConverter(String.class, value -> value);
+    registerConverter(String.class, new StringConverter());
     registerConverter(Short.class, Short::valueOf);
     registerConverter(Short.TYPE, Short::valueOf);
-    registerConverter(Integer.class, Integer::valueOf);
-    registerConverter(Integer.TYPE, Integer::valueOf);
-    registerConverter(Long.class, Long::valueOf);
-    registerConverter(Long.TYPE, Long::valueOf);
+    registerConverter(Integer.class, new IntegerConverter());
+    registerConverter(Integer.TYPE, new IntegerConverter());
+    registerConverter(Long.class, new LongConverter());
+    registerConverter(Long.TYPE, new LongConverter());
     registerConverter(Byte.class, Byte::valueOf);
     registerConverter(Byte.TYPE, Byte::valueOf);
     registerConverter(Float.class, new NumberConverter<>(Float::valueOf, Number::floatValue));
@@ -61,36 +98,104 @@ public class SdvReader {
     registerConverter(Character.TYPE, value -> Character.valueOf(value.charAt(0)));
     registerConverter(BigInteger.class, BigInteger::new);
     registerConverter(BigDecimal.class, new BigDecimalConverter());
-    registerConverter(LocalDate.class, new DateTimeConverter<>(LocalDate::parse, LocalDate::parse));
-    registerConverter(LocalTime.class, new DateTimeConverter<>(LocalTime::parse, LocalTime::parse));
-    registerConverter(LocalDateTime.class, new DateTimeConverter<>(LocalDateTime::parse, LocalDateTime::parse));
+    registerConverter(LocalDate.class, new DateTimeConverter<>(LocalDate.class, LocalDate::parse, LocalDate::parse));
+    registerConverter(LocalTime.class, new DateTimeConverter<>(LocalTime.class, LocalTime::parse, LocalTime::parse));
+    registerConverter(LocalDateTime.class, new DateTimeConverter<>(LocalDateTime.class, LocalDateTime::parse, LocalDateTime::parse));
     registerConverter(ZonedDateTime.class, new DateTimeConverter<>(ZonedDateTime::parse, ZonedDateTime::parse));
     registerConverter(OffsetDateTime.class, new DateTimeConverter<>(OffsetDateTime::parse, OffsetDateTime::parse));
+    this.customConverterTypes.clear();
+  }
+
+  /**
+   * @return builder of an immutable reader, which can be shared by concurrent parses
+   */
+  public static SdvReaderBuilder builder() {
+    return new SdvReaderBuilder();
+  }
+
+  /**
+   * Makes the configuration immutable: setters fail from now on, and row types registered by a parse
+   * (e.g. the row types of a document) are only used by that parse.
+   */
+  SdvReader freeze() {
+    this.rowBeans = Collections.unmodifiableMap(new HashMap<>(this.rowBeans));
+    this.converters = Collections.unmodifiableMap(new HashMap<>(this.converters));
+    this.convertersWithFormat = Collections.unmodifiableMap(new HashMap<>(this.convertersWithFormat));
+    this.customConverterTypes = Collections.unmodifiableSet(new HashSet<>(this.customConverterTypes));
+    this.immutable = true;
+    return this;
+  }
+
+  private void checkMutable() {
+    if (this.immutable) {
+      throw new IllegalStateException(
+        String.format("Reader is immutable, configure it with %s instead", SdvReaderBuilder.class.getSimpleName()));
+    }
   }
 
   public void registerRowType(Class<?> klass) {
+    checkMutable();
+    rowBeans.put(getRowTypeName(klass), klass);
+  }
+
+  static String getRowTypeName(Class<?> klass) {
     SdvRow sdvRow = klass.getAnnotation(SdvRow.class);
     if (sdvRow == null) {
       throw new IllegalArgumentException(
         String.format("Row class %s has to be annotated with @%s!", klass.getName(), SdvRow.class.getSimpleName()));
     }
-    rowBeans.put(sdvRow.value(), klass);
+    return sdvRow.value();
+  }
+
+  /**
+   * Registers the row types needed by a single parse. An immutable reader registers them to a copy of its
+   * row types used by that parse only.
+   *
+   * @return row types by name for the parse
+   */
+  Map<String, Class<?>> registerRowTypes(Collection<Class<?>> rowTypes) {
+    if (!this.immutable) {
+      rowTypes.forEach(this::registerRowType);
+      return this.rowBeans;
+    }
+    if (rowTypes.isEmpty()) {
+      return this.rowBeans;
+    }
+    HashMap<String, Class<?>> parseRowBeans = new HashMap<>(this.rowBeans);
+    for (Class<?> rowType : rowTypes) {
+      parseRowBeans.put(getRowTypeName(rowType), rowType);
+    }
+    return parseRowBeans;
   }
 
   public <T> void registerConverter(Class<T> klass, SdvTypeConverter<T> converter) {
+    checkMutable();
     this.converters.put(klass, converter);
+    this.customConverterTypes.add(klass);
+    this.rowBindings.clear();
+    this.writerBindings.clear();
   }
 
   public <T> void registerConverter(Class<T> klass, SdvTypeConverterWithFormat<T,?> converter) {
+    checkMutable();
     this.convertersWithFormat.put(klass, converter);
+    this.customConverterTypes.add(klass);
+    setConverterDefaults(converter);
+    this.rowBindings.clear();
+    this.writerBindings.clear();
   }
 
   public <T> T parseDocument(Path path, Class<T> documentType) throws IOException {
-    return parseDocument(pathToUrl(path), documentType);
+    if (this.parseCache != null) {
+      SdvRowCollector<T> collector = new SdvRowCollector<>(documentType);
+      return collectRows(this.parseCache.get(this, path, documentType, true,
+        () -> parseDocumentRows(() -> tokenizer(path), collector)), collector);
+    }
+    return parseDocument(() -> tokenizer(path), new SdvRowCollector<>(documentType));
   }
 
   public <T> T parseDocument(Path path, T document) throws IOException {
-    return parseDocument(pathToUrl(path), document);
+    return parseDocument(() -> tokenizer(path), new SdvRowCollector<>(document));
   }
 
   public <T> T parseDocument(URL url, Class<T> documentType) throws IOException {
@@ -102,28 +207,45 @@ public class SdvReader {
   }
 
   public <T> T parseDocument(InputStream is, Class<T> documentType) throws IOException {
-    return parseDocument(() -> iterate(is, Object.class), new SdvRowCollector<>(documentType));
+    InputStream source = is;
+    if (this.parseCache != null && this.parseCache.getMaxStreamBytes() > 0) {
+      byte[] content = readAtMost(is, this.parseCache.getMaxStreamBytes() + 1);
+      if (content.length <= this.parseCache.getMaxStreamBytes()) {
+        is.close();
+        SdvRowCollector<T> collector = new SdvRowCollector<>(documentType);
+        return collectRows(this.parseCache.get(this, content, documentType, true,
+          () -> parseDocumentRows(() -> tokenizer(new ByteArrayInputStream(content)), collector)), collector);
+      }
+      source = new SequenceInputStream(new ByteArrayInputStream(content), is);
+    }
+    InputStream uncached = source;
+    return parseDocument(() -> tokenizer(uncached), new SdvRowCollector<>(documentType));
   }
 
   public <T> T parseDocument(InputStream is, T document) throws IOException {
-    return parseDocument(() -> iterate(is, Object.class), new SdvRowCollector<>(document));
+    return parseDocument(() -> tokenizer(is), new SdvRowCollector<>(document));
   }
 
   public <T> T parseDocument(Reader reader, Class<T> documentType) throws IOException {
-    return parseDocument(() -> iterate(reader, Object.class), new SdvRowCollector<>(documentType));
+    return parseDocument(() -> tokenizer(reader), new SdvRowCollector<>(documentType));
   }
 
   public <T> T parseDocument(Reader reader, T document) throws IOException {
-    return parseDocument(() -> iterate(reader, Object.class), new SdvRowCollector<>(document));
+    return parseDocument(() -> tokenizer(reader), new SdvRowCollector<>(document));
   }
 
   private <T> T parseDocument(URL url, SdvRowCollector<T> collector) throws IOException {
-    return parseDocument(() -> iterate(url, Object.class), collector);
+    return parseDocument(() -> tokenizer(url), collector);
+  }
+
+  private <T> T parseDocument(SupplierWithIOException<SdvTokenizer> tokenizerSupplier, SdvRowCollector<T> collector) throws IOException {
+    return parseDocument(tokenizerSupplier, collector, null);
   }
 
-  private <T> T parseDocument(SupplierWithIOException<SdvRowIterator<?>> iteratorSupplier, SdvRowCollector<T> collector) throws IOException {
-    collector.registerRowBeanTypes(this);
-    try (SdvRowIterator<?> iter = iteratorSupplier.get()) {
+  private <T> T parseDocument(SupplierWithIOException<SdvTokenizer> tokenizerSupplier, SdvRowCollector<T> collector,
+                              SdvRowErrors errors) throws IOException {
+    Map<String, Class<?>> rowTypes = registerRowTypes(collector.getRowTypes());
+    try (SdvRowIterator<?> iter = iterate(tokenizerSupplier.get(), rowTypes, rowType -> true, errors)) {
       while (iter.hasNext()) {
         collector.newRow(iter.next());
       }
@@ -131,12 +253,226 @@ public class SdvReader {
     return collector.getDocument();
   }
 
+  /**
+   * Parses the rows of the document, which are cached instead of the document, so each caller gets its own document.
+   */
+  private List<Object> parseDocumentRows(SupplierWithIOException<SdvTokenizer> tokenizerSupplier, SdvRowCollector<?> collector) throws IOException {
+    Map<String, Class<?>> rowTypes = registerRowTypes(collector.getRowTypes());
+    ArrayList<Object> rows = new ArrayList<>();
+    try (SdvRowIterator<?> iter = iterate(tokenizerSupplier.get(), rowTypes, rowType -> true, null)) {
+      while (iter.hasNext()) {
+        rows.add(iter.next());
+      }
+    }
+    rows.trimToSize();
+    return Collections.unmodifiableList(rows);
+  }
+
+  private static <T> T collectRows(List<Object> rows, SdvRowCollector<T> collector) {
+    for (Object row : rows) {
+      collector.newRow(row);
+    }
+    return collector.getDocument();
+  }
+
+  /**
+   * Parses the document leniently: rows which fail to convert are skipped, and their errors are returned with
+   * the document (see {@link #parseWithErrors(Path, Class, int)}).
+   */
+  public <T> SdvParseResult<T> parseDocumentWithErrors(Path path, Class<T> documentType, int errorBudget) throws IOException {
+    return parseDocumentWithErrors(() -> tokenizer(path), documentType, errorBudget);
+  }
+
+  public <T> SdvParseResult<T> parseDocumentWithErrors(InputStream is, Class<T> documentType, int errorBudget) throws IOException {
+    return parseDocumentWithErrors(() -> tokenizer(is), documentType, errorBudget);
+  }
+
+  public <T> SdvParseResult<T> parseDocumentWithErrors(Reader reader, Class<T> documentType, int errorBudget) throws IOException {
+    return parseDocumentWithErrors(() -> tokenizer(reader), documentType, errorBudget);
+  }
+
+  private <T> SdvParseResult<T> parseDocumentWithErrors(SupplierWithIOException<SdvTokenizer> tokenizerSupplier, Class<T> documentType,
+                                                       int errorBudget) throws IOException {
+    SdvRowErrors errors = new SdvRowErrors(errorBudget);
+    T document = parseDocument(tokenizerSupplier, new SdvRowCollector<>(documentType), errors);
+    return new SdvParseResult<>(document, errors.getErrors());
+  }
+
   public List<?> parse(Path path) throws IOException {
     return parse(path, Object.class);
   }
 
+  /**
+   * Parses the file, passing each row to the handler of its type (see {@link SdvRowDispatcher}) as soon as it is
+   * parsed. Rows are not collected, so any size of file is processed in constant memory. Row types of the handlers
+   * which are annotated with <code>@SdvRow</code> are registered.
+   *
+   * @return number of handled rows
+   */
+  public long handle(Path path, SdvRowDispatcher dispatcher) throws IOException {
+    return handle(() -> tokenizer(path), dispatcher);
+  }
+
+  public long handle(URL url, SdvRowDispatcher dispatcher) throws IOException {
+    return handle(() -> tokenizer(url), dispatcher);
+  }
+
+  public long handle(InputStream is, SdvRowDispatcher dispatcher) throws IOException {
+    return handle(() -> tokenizer(is), dispatcher);
+  }
+
+  public long handle(Reader reader, SdvRowDispatcher dispatcher) throws IOException {
+    return handle(() -> tokenizer(reader), dispatcher);
+  }
+
+  private long handle(SupplierWithIOException<SdvTokenizer> tokenizerSupplier, SdvRowDispatcher dispatcher) throws IOException {
+    Map<String, Class<?>> rowTypes = registerRowTypes(dispatcher.getRowTypes());
+    long count = 0;
+    try (SdvRowIterator<Object> iter = iterate(tokenizerSupplier.get(), rowTypes, dispatcher::accepts)) {
+      while (iter.hasNext()) {
+        dispatcher.dispatch(iter.next());
+        count++;
+      }
+    }
+    return count;
+  }
+
   public <T> List<T> parse(Path path, Class<T> rowFilterType) throws IOException {
-    return parse(pathToUrl(path), rowFilterType);
+    if (this.parseCache != null) {
+      return new ArrayList<>(this.parseCache.get(this, path, rowFilterType, false,
+        () -> Collections.unmodifiableList(parse(() -> iterate(path, rowFilterType)))));
+    }
+    return parse(() -> iterate(path, rowFilterType));
+  }
+
+  /**
+   * Parses the file in chunks on the fork-join pool (see {@link #setForkJoinPool(ForkJoinPool)}), returning the
+   * rows in file order.
+   */
+  public <T> List<T> parseParallel(Path path, Class<T> rowFilterType) throws IOException {
+    return parseParallel(path, rowFilterType, SdvResultOrder.INPUT);
+  }
+
+  /**
+   * Parses the file in chunks on the fork-join pool (see {@link #setForkJoinPool(ForkJoinPool)}).
+   * The file is parsed sequentially if the charset does not allow splitting it at line terminator bytes
+   * (only single byte charsets and UTF-8 do).
+   */
+  public <T> List<T> parseParallel(Path path, Class<T> rowFilterType, SdvResultOrder order) throws IOException {
+    if (!SdvByteTokenizer.isAsciiCompatible(this.charset)) {
+      return parse(path, rowFilterType);
+    }
+    return new SdvParallelParser(this, this.forkJoinPool, this.parallelChunkSize).parse(path, rowFilterType, order);
+  }
+
+  /**
+   * Parses the document asynchronously on the executor, e.g. {@link #defaultAsyncExecutor()}.
+   */
+  public <T> CompletableFuture<T> parseDocumentAsync(Path path, Class<T> documentType, Executor executor) {
+    return parseAsync(() -> parseDocument(path, documentType), executor);
+  }
+
+  /**
+   * Parses the document asynchronously on the executor, e.g. {@link #defaultAsyncExecutor()}.
+   * The input stream is closed when the parse completes.
+   */
+  public <T> CompletableFuture<T> parseDocumentAsync(InputStream is, Class<T> documentType, Executor executor) {
+    return parseAsync(() -> parseDocument(is, documentType), executor);
+  }
+
+  public <T> CompletableFuture<T> parseDocumentAsync(Reader reader, Class<T> documentType, Executor executor) {
+    return parseAsync(() -> parseDocument(reader, documentType), executor);
+  }
+
+  /**
+   * Parses the rows asynchronously on the executor, e.g. {@link #defaultAsyncExecutor()}.
+   */
+  public <T> CompletableFuture<List<T>> parseAsync(Path path, Class<T> rowFilterType, Executor executor) {
+    return parseAsync(() -> parse(path, rowFilterType), executor);
+  }
+
+  /**
+   * Parses the rows asynchronously on the executor, e.g. {@link #defaultAsyncExecutor()}.
+   * The input stream is closed when the parse completes.
+   */
+  public <T> CompletableFuture<List<T>> parseAsync(InputStream is, Class<T> rowFilterType, Executor executor) {
+    return parseAsync(() -> parse(is, rowFilterType), executor);
+  }
+
+  public <T> CompletableFuture<List<T>> parseAsync(Reader reader, Class<T> rowFilterType, Executor executor) {
+    return parseAsync(() -> parse(reader, rowFilterType), executor);
+  }
+
+  /**
+   * Runs the parse on the executor. The future completes exceptionally with the exception of the parse
+   * (e.g. an <code>IOException</code>).
+   */
+  private static <R> CompletableFuture<R> parseAsync(SupplierWithIOException<R> parse, Executor executor) {
+    CompletableFuture<R> future = new CompletableFuture<>();
+    executor.execute(() -> {
+      try {
+        future.complete(parse.get());
+      }
+      catch (Throwable e) {
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * @return executor which runs each parse on a new virtual thread on Java 21 and later, otherwise on a cached
+   * pool of daemon threads (parses block while reading their input, so they should not run on a fork-join pool)
+   */
+  public static Executor defaultAsyncExecutor() {
+    return SdvAsyncExecutors.getDefault();
+  }
+
+  /**
+   * Parses the documents of the files concurrently (see {@link #parseFiles(List, SdvFileParser, SdvResultOrder)}).
+   */
+  public <T> List<SdvFileResult<T>> parseDocuments(List<Path> paths, Class<T> documentType, SdvResultOrder order) throws IOException {
+    return parseFiles(paths, (reader, path) -> reader.parseDocument(path, documentType), order);
+  }
+
+  /**
+   * Parses the documents of the files in the directory matching the glob pattern (e.g. <code>spot*.sdv</code>)
+   * concurrently. The files are taken in the order of their names.
+   */
+  public <T> List<SdvFileResult<T>> parseDocuments(Path directory, String glob, Class<T> documentType, SdvResultOrder order) throws IOException {
+    return parseDocuments(listFiles(directory, glob), documentType, order);
+  }
+
+  /**
+   * Parses the rows of the files concurrently (see {@link #parseFiles(List, SdvFileParser, SdvResultOrder)}).
+   */
+  public <T> List<SdvFileResult<List<T>>> parseFiles(List<Path> paths, Class<T> rowFilterType, SdvResultOrder order) throws IOException {
+    return parseFiles(paths, (reader, path) -> reader.parse(path, rowFilterType), order);
+  }
+
+  /**
+   * Parses the files concurrently on the fork-join pool (see {@link #setForkJoinPool(ForkJoinPool)}), with at most
+   * {@link #setFileParallelism(int) file parallelism} files in progress at a time. A file which fails does not
+   * affect the others, its result holds the error.
+   *
+   * @param parser parses a single file, e.g. <code>(reader, path) -&gt; reader.handle(path, dispatcher)</code>
+   * @return result of each file, in the order of the paths or in the order the files complete
+   */
+  public <R> List<SdvFileResult<R>> parseFiles(List<Path> paths, SdvFileParser<R> parser, SdvResultOrder order) throws IOException {
+    return new SdvMultiFileParser(this, this.forkJoinPool, this.fileParallelism).parse(paths, parser, order);
+  }
+
+  private static List<Path> listFiles(Path directory, String glob) throws IOException {
+    ArrayList<Path> paths = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+      for (Path file : files) {
+        if (Files.isRegularFile(file)) {
+          paths.add(file);
+        }
+      }
+    }
+    paths.sort(Comparator.comparing(Path::getFileName));
+    return paths;
   }
 
   public List<?> parse(URL url) throws IOException {
@@ -148,13 +484,71 @@ public class SdvReader {
   }
 
   public <T> List<T> parse(InputStream is, Class<T> rowFilterType) throws IOException {
-    return parse(() -> iterate(is, rowFilterType));
+    InputStream source = is;
+    if (this.parseCache != null && this.parseCache.getMaxStreamBytes() > 0) {
+      byte[] content = readAtMost(is, this.parseCache.getMaxStreamBytes() + 1);
+      if (content.length <= this.parseCache.getMaxStreamBytes()) {
+        is.close();
+        return new ArrayList<>(this.parseCache.get(this, content, rowFilterType, false,
+          () -> Collections.unmodifiableList(parse(() -> iterate(new ByteArrayInputStream(content), rowFilterType)))));
+      }
+      source = new SequenceInputStream(new ByteArrayInputStream(content), is);
+    }
+    InputStream uncached = source;
+    return parse(() -> iterate(uncached, rowFilterType));
+  }
+
+  /**
+   * Reads the start of the stream, to hash its content for the parse cache if it is not larger than the stream
+   * size limit of the cache. The stream is left open, so a larger stream can be parsed from the bytes read and
+   * the rest of the stream.
+   */
+  private static byte[] readAtMost(InputStream is, int maxBytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    for (int read; out.size() < maxBytes && (read = is.read(buffer, 0, Math.min(buffer.length, maxBytes - out.size()))) != -1; ) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
   }
 
   public <T> List<T> parse(Reader reader, Class<T> rowFilterType) throws IOException {
     return parse(() -> iterate(reader, rowFilterType));
   }
 
+  /**
+   * Parses the rows leniently: a row which fails to convert (or whose row type is not registered, unless unknown
+   * rows are ignored) is skipped, and its error is returned with the rows. Errors are recorded without building
+   * exception messages. Rows without a matching constructor, values no converter supports and invalid values of
+   * the built-in <code>int</code> and <code>long</code> converters are recorded with exceptions without stack
+   * traces; the exceptions thrown by other converters (e.g. {@link java.time.format.DateTimeParseException}) keep
+   * theirs.
+   *
+   * @param errorBudget maximum number of errors, the parse fails with {@link SdvErrorBudgetException} on the next one
+   */
+  public <T> SdvParseResult<List<T>> parseWithErrors(Path path, Class<T> rowFilterType, int errorBudget) throws IOException {
+    return parseWithErrors(() -> tokenizer(path), rowFilterType, errorBudget);
+  }
+
+  public <T> SdvParseResult<List<T>> parseWithErrors(URL url, Class<T> rowFilterType, int errorBudget) throws IOException {
+    return parseWithErrors(() -> tokenizer(url), rowFilterType, errorBudget);
+  }
+
+  public <T> SdvParseResult<List<T>> parseWithErrors(InputStream is, Class<T> rowFilterType, int errorBudget) throws IOException {
+    return parseWithErrors(() -> tokenizer(is), rowFilterType, errorBudget);
+  }
+
+  public <T> SdvParseResult<List<T>> parseWithErrors(Reader reader, Class<T> rowFilterType, int errorBudget) throws IOException {
+    return parseWithErrors(() -> tokenizer(reader), rowFilterType, errorBudget);
+  }
+
+  private <T> SdvParseResult<List<T>> parseWithErrors(SupplierWithIOException<SdvTokenizer> tokenizerSupplier, Class<T> rowFilterType,
+                                                     int errorBudget) throws IOException {
+    SdvRowErrors errors = new SdvRowErrors(errorBudget);
+    List<T> rows = parse(() -> iterate(tokenizerSupplier.get(), this.rowBeans, rowFilterType::isAssignableFrom, errors));
+    return new SdvParseResult<>(rows, errors.getErrors());
+  }
+
   private <T> List<T> parse(SupplierWithIOException<SdvRowIterator<T>> iteratorSupplier) throws IOException {
     ArrayList<T> rows = new ArrayList<>();
     try (SdvRowIterator<T> iter = iteratorSupplier.get()) {
@@ -163,60 +557,485 @@ public class SdvReader {
     return rows;
   }
 
+  /**
+   * Parses the rows of the row type into columns, without creating row objects (see {@link SdvColumnBatch}).
+   * The row type is registered if it is not yet.
+   */
+  public <T> SdvColumnBatch<T> parseColumns(Path path, Class<T> rowType) throws IOException {
+    return parseColumns(() -> tokenizer(path), rowType);
+  }
+
+  public <T> SdvColumnBatch<T> parseColumns(URL url, Class<T> rowType) throws IOException {
+    return parseColumns(() -> tokenizer(url), rowType);
+  }
+
+  public <T> SdvColumnBatch<T> parseColumns(InputStream is, Class<T> rowType) throws IOException {
+    return parseColumns(() -> tokenizer(is), rowType);
+  }
+
+  public <T> SdvColumnBatch<T> parseColumns(Reader reader, Class<T> rowType) throws IOException {
+    return parseColumns(() -> tokenizer(reader), rowType);
+  }
+
+  private <T> SdvColumnBatch<T> parseColumns(SupplierWithIOException<SdvTokenizer> tokenizerSupplier, Class<T> rowType) throws IOException {
+    Map<String, Class<?>> rowTypes = registerRowTypes(Collections.singletonList(rowType));
+    SdvColumnBatch<T> batch = new SdvColumnBatch<>(rowType);
+    SdvTokenizer tokenizer = tokenizerSupplier.get();
+    try (SdvRowIterator<T> iter = iterate(tokenizer, rowTypes, rowType::equals)) {
+      while (iter.hasNext()) {
+        batch.add(iter.nextBinding(), tokenizer, this.defaultLocale);
+      }
+    }
+    batch.trim();
+    return batch;
+  }
+
+  /**
+   * Parses the rows of the row type into columns like {@link #parseColumns(Path, Class)}, storing them in a binary
+   * snapshot next to the file (<code>&lt;file name&gt;.snapshot</code>). As long as the file is not modified, the
+   * columns are loaded from the snapshot instead of parsing the file again.
+   * <p>
+   * The snapshot is also parsed again if the settings affecting the conversion change: the default locale, charset
+   * and decimal format of the reader, the parameter types and annotations of the row constructor, and the classes
+   * of the converters registered in place of the default ones. A change of the state of a converter is not
+   * detected. Snapshots are not used for row types with a column converted by a lambda (which has no stable class
+   * name), or with columns of other than the primitive, decimal, date and string types (see {@link SdvColumnType}). If the snapshot can not be written (e.g. the directory is read-only), the parsed columns are
+   * returned anyway.
+   */
+  public <T> SdvColumnBatch<T> parseColumnsWithSnapshot(Path path, Class<T> rowType) throws IOException {
+    String settings = SdvSnapshot.getSettings(this, rowType);
+    if (settings == null) {
+      return parseColumns(path, rowType);
+    }
+    SdvSourceFingerprint fingerprint = SdvSourceFingerprint.of(path);
+    Path snapshot = SdvSnapshot.getPath(path);
+    SdvColumnBatch<T> batch = SdvSnapshot.read(snapshot, fingerprint, settings, rowType);
+    if (batch != null) {
+      return batch;
+    }
+    batch = parseColumns(path, rowType);
+    if (SdvSnapshot.isSupported(batch) && fingerprint.equals(SdvSourceFingerprint.of(path))) {
+      try {
+        SdvSnapshot.write(snapshot, fingerprint, settings, batch);
+      }
+      catch (IOException e) {
+        // the snapshot is only an optimization
+      }
+    }
+    return batch;
+  }
+
+  /**
+   * Parses the rows of the row type, storing them in a binary snapshot next to the file (see
+   * {@link #parseColumnsWithSnapshot(Path, Class)}). Rows loaded from the snapshot are created without parsing.
+   */
+  public <T> List<T> parseWithSnapshot(Path path, Class<T> rowType) throws IOException {
+    return parseColumnsWithSnapshot(path, rowType).toRows();
+  }
+
+  /**
+   * Streams the rows of the file. The file is closed when the stream is closed. Files in UTF-8 or an ASCII
+   * compatible single byte charset are split into byte ranges for parallel streams.
+   */
+  public <T> Stream<T> stream(Path path, Class<T> rowFilterType) throws IOException {
+    if (!SdvByteTokenizer.isAsciiCompatible(this.charset)) {
+      return stream(iterate(path, rowFilterType));
+    }
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      Spliterator<T> spliterator = new SdvRowSpliterator<>(this, channel, 0, channel.size(), rowFilterType, this.parallelChunkSize);
+      return StreamSupport.stream(spliterator, false).onClose(() -> close(channel));
+    }
+    catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Streams the rows of the input stream. The input stream is closed when the stream is closed.
+   */
+  public <T> Stream<T> stream(InputStream is, Class<T> rowFilterType) throws IOException {
+    return stream(iterate(is, rowFilterType));
+  }
+
+  /**
+   * Streams the rows of the reader. The reader is closed when the stream is closed.
+   */
+  public <T> Stream<T> stream(Reader reader, Class<T> rowFilterType) throws IOException {
+    return stream(iterate(reader, rowFilterType));
+  }
+
+  private static <T> Stream<T> stream(SdvRowIterator<T> iterator) {
+    Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(() -> close(iterator));
+  }
+
+  private static void close(AutoCloseable closeable) {
+    try {
+      closeable.close();
+    }
+    catch (IOException e) {
+      throw new SdvParsingIOException(e);
+    }
+    catch (Exception e) {
+      throw new SdvParsingException(e);
+    }
+  }
+
+  public SdvRowIterator<?> iterate(Path path) throws IOException {
+    return iterate(path, Object.class);
+  }
+
+  public <T> SdvRowIterator<T> iterate(Path path, Class<T> rowFilterType) throws IOException {
+    return iterate(tokenizer(path), rowFilterType);
+  }
+
   public SdvRowIterator<?> iterate(URL url) throws IOException {
     return iterate(url, Object.class);
   }
 
   public <T> SdvRowIterator<T> iterate(URL url, Class<T> rowFilterType) throws IOException {
-    return iterate(url.openStream(), rowFilterType);
+    return iterate(tokenizer(url), rowFilterType);
   }
 
   public <T> SdvRowIterator<T> iterate(InputStream is, Class<T> rowFilterType) throws IOException {
-    return iterate(new InputStreamReader(is, this.charset), rowFilterType);
+    return iterate(tokenizer(is), rowFilterType);
   }
 
   public <T> SdvRowIterator<T> iterate(Reader reader, Class<T> rowFilterType) throws IOException {
-    setConverterDefaults();
-    return new SdvRowIterator<>(this, COMMENT_PREFIX, columnDelimiterPattern, new BufferedReader(reader), rowFilterType);
+    return iterate(tokenizer(reader), rowFilterType);
+  }
+
+  <T> SdvRowIterator<T> iterate(SdvTokenizer tokenizer, Class<T> rowFilterType) {
+    return new SdvRowIterator<>(this, tokenizer, this.rowBeans, rowFilterType::isAssignableFrom);
+  }
+
+  /**
+   * @param rowTypes row types by name, see {@link #registerRowTypes(Collection)}
+   */
+  <T> SdvRowIterator<T> iterate(SdvTokenizer tokenizer, Map<String, Class<?>> rowTypes, Predicate<Class<?>> rowFilter) {
+    return new SdvRowIterator<>(this, tokenizer, rowTypes, rowFilter);
+  }
+
+  /**
+   * @param errors errors of a lenient parse, or <code>null</code> for a strict parse
+   */
+  <T> SdvRowIterator<T> iterate(SdvTokenizer tokenizer, Map<String, Class<?>> rowTypes, Predicate<Class<?>> rowFilter,
+                                SdvRowErrors errors) {
+    return new SdvRowIterator<>(this, tokenizer, rowTypes, rowFilter, errors);
+  }
+
+  /**
+   * @return follower of the file, which parses only the rows appended after the previous poll
+   */
+  public SdvFileFollower follow(Path path) {
+    return new SdvFileFollower(this, path);
+  }
+
+  /**
+   * @return parser of input fed in chunks of bytes (in the charset of the reader), passing the rows of the filter
+   * type to the consumer
+   */
+  public <T> SdvChunkParser parseChunks(Class<T> rowFilterType, Consumer<? super T> consumer) {
+    return new SdvChunkParser(this, chunkTokenizer(), registerRowTypes(Collections.emptyList()),
+      rowFilterType::isAssignableFrom, row -> consumer.accept((T) row));
+  }
+
+  /**
+   * @return parser of input fed in chunks of bytes (in the charset of the reader), passing the rows to their handlers
+   */
+  public SdvChunkParser parseChunks(SdvRowDispatcher dispatcher) {
+    return new SdvChunkParser(this, chunkTokenizer(), registerRowTypes(dispatcher.getRowTypes()),
+      dispatcher::accepts, dispatcher::dispatch);
+  }
+
+  /**
+   * @return writer of rows to the file, which is created or truncated, in the charset of the reader
+   */
+  public SdvWriter newWriter(Path path) throws IOException {
+    return newWriter(Files.newOutputStream(path));
+  }
+
+  /**
+   * @return writer of rows to the stream, in the charset of the reader
+   */
+  public SdvWriter newWriter(OutputStream os) {
+    return newWriter(new OutputStreamWriter(os, this.charset));
+  }
+
+  /**
+   * @return writer of rows to the channel (e.g. a <code>FileChannel</code>), in the charset of the reader
+   */
+  public SdvWriter newWriter(WritableByteChannel channel) {
+    return newWriter(Channels.newWriter(channel, this.charset.newEncoder(), -1));
+  }
+
+  /**
+   * @return writer of rows, formatting the values with the converters, formats and default locale of the reader
+   * so the reader parses them back to the same rows
+   */
+  public SdvWriter newWriter(Writer writer) {
+    return new SdvWriter(this, writer);
+  }
+
+  /**
+   * Opens the file. Files in UTF-8 or an ASCII compatible single byte charset are tokenized on bytes (and
+   * memory-mapped if they are large, see {@link SdvByteTokenizer}), other files are read through a {@link Reader}.
+   */
+  private SdvTokenizer tokenizer(Path path) throws IOException {
+    if (!SdvByteTokenizer.isAsciiCompatible(this.charset)) {
+      return tokenizer(Files.newInputStream(path));
+    }
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return newTokenizer(channel, 0, channel.size(), true);
+    }
+    catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private SdvTokenizer tokenizer(URL url) throws IOException {
+    return tokenizer(url.openStream());
+  }
+
+  private SdvTokenizer tokenizer(InputStream is) {
+    if (this.parseListener == SdvParseListener.NONE) {
+      return tokenizer(new InputStreamReader(is, this.charset));
+    }
+    SdvCountingInputStream counting = new SdvCountingInputStream(is);
+    return new SdvCharTokenizer(new InputStreamReader(counting, this.charset), counting::getCount, COLUMN_DELIMITER, COMMENT_PREFIX);
+  }
+
+  private SdvTokenizer tokenizer(Reader reader) {
+    return new SdvCharTokenizer(reader, COLUMN_DELIMITER, COMMENT_PREFIX);
+  }
+
+  private SdvChunkTokenizer chunkTokenizer() {
+    return new SdvChunkTokenizer(this.charset, COLUMN_DELIMITER, COMMENT_PREFIX);
+  }
+
+  /**
+   * @return tokenizer for a range of the file, which has to be in an ASCII compatible charset
+   */
+  SdvTokenizer newTokenizer(FileChannel channel, long start, long end, boolean closeChannel) {
+    return newTokenizer(channel, start, end, closeChannel, this.mappedThreshold);
+  }
+
+  /**
+   * @param mappedThreshold size of the smallest range which is memory-mapped, {@link Long#MAX_VALUE} to only read
+   */
+  SdvTokenizer newTokenizer(FileChannel channel, long start, long end, boolean closeChannel, long mappedThreshold) {
+    return new SdvByteTokenizer(channel, start, end, closeChannel, this.mappedWindowSize, mappedThreshold, this.charset,
+      COLUMN_DELIMITER, COMMENT_PREFIX);
   }
 
-  private void setConverterDefaults() {
-    for (SdvTypeConverterWithFormat converter : convertersWithFormat.values()) {
-      if (converter instanceof AbstractNumberConverter) {
-        AbstractNumberConverter numberConverter = (AbstractNumberConverter) converter;
-        numberConverter.setDefaultDecimalFormat(this.defaultDecimalFormat);
+  private void setConverterDefaults(SdvTypeConverterWithFormat<?, ?> converter) {
+    if (converter instanceof AbstractNumberConverter) {
+      ((AbstractNumberConverter<?>) converter).setDefaultDecimalFormat(this.defaultDecimalFormat);
+    }
+  }
+
+  /**
+   * Returns the binding plan of the row type for the given number of columns, resolving it on first use.
+   *
+   * @return the binding, or <code>null</code> if the row type has no constructor with that many parameters
+   */
+  <T> SdvRowBinding<T> getRowBinding(Class<T> rowType, int paramCount) {
+    Map<Integer, SdvRowBinding<?>> bindings = rowBindings.get(rowType);
+    if (bindings == null) {
+      Map<Integer, SdvRowBinding<?>> created = new ConcurrentHashMap<>();
+      bindings = rowBindings.putIfAbsent(rowType, created);
+      if (bindings == null) {
+        bindings = created;
       }
     }
+    SdvRowBinding<?> binding = bindings.get(paramCount);
+    if (binding == null) {
+      binding = SdvRowBinding.create(this, rowType, paramCount);
+      if (binding == null) {
+        return null;
+      }
+      SdvRowBinding<?> existing = bindings.putIfAbsent(paramCount, binding);
+      if (existing != null) {
+        binding = existing;
+      }
+    }
+    return (SdvRowBinding<T>) binding;
   }
 
-  Class<?> getRowBeanType(String type) {
-    return rowBeans.get(type);
+  /**
+   * Returns the writing plan of the row type, resolving it on first use.
+   */
+  SdvWriterBinding getWriterBinding(Class<?> rowType) {
+    SdvWriterBinding binding = writerBindings.get(rowType);
+    if (binding == null) {
+      binding = new SdvWriterBinding(this, rowType);
+      SdvWriterBinding existing = writerBindings.putIfAbsent(rowType, binding);
+      if (existing != null) {
+        binding = existing;
+      }
+    }
+    return binding;
   }
 
   public void setCharset(Charset charset) {
+    checkMutable();
     this.charset = charset;
   }
 
+  public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+    checkMutable();
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  /**
+   * Sets the approximate size (in bytes) of the chunks of a parallel parse and of the smallest parts
+   * a file stream is split into.
+   */
+  public void setParallelChunkSize(long parallelChunkSize) {
+    checkMutable();
+    if (parallelChunkSize <= 0) {
+      throw new IllegalArgumentException("Parallel chunk size has to be positive: " + parallelChunkSize);
+    }
+    this.parallelChunkSize = parallelChunkSize;
+  }
+
+  /**
+   * Sets the maximum number of files parsed at a time by a multi-file parse (the number of processors by default).
+   */
+  public void setFileParallelism(int fileParallelism) {
+    checkMutable();
+    if (fileParallelism <= 0) {
+      throw new IllegalArgumentException("File parallelism has to be positive: " + fileParallelism);
+    }
+    this.fileParallelism = fileParallelism;
+  }
+
+  void setMappedWindowSize(long mappedWindowSize) {
+    checkMutable();
+    this.mappedWindowSize = mappedWindowSize;
+  }
+
+  void setMappedThreshold(long mappedThreshold) {
+    checkMutable();
+    this.mappedThreshold = mappedThreshold;
+  }
+
   public void setIgnoreUnknownRows(boolean ignoreUnknownRows) {
+    checkMutable();
     this.ignoreUnknownRows = ignoreUnknownRows;
   }
 
+  /**
+   * Shares the values of all string columns through a bounded cache, instead of only the columns annotated
+   * with {@link SdvIntern}. Saves memory if the rows are kept and the columns repeat a few values.
+   */
+  public void setInternStrings(boolean internStrings) {
+    checkMutable();
+    this.internStrings = internStrings;
+    this.rowBindings.clear();
+  }
+
+  /**
+   * Sets the number of entries of the string cache (4096 by default), rounded up to a power of two.
+   */
+  public void setStringCacheSize(int stringCacheSize) {
+    checkMutable();
+    if (stringCacheSize < 1 || stringCacheSize > 1 << 30) {
+      throw new IllegalArgumentException("String cache size has to be between 1 and 2^30: " + stringCacheSize);
+    }
+    this.stringCache = new SdvStringCache(stringCacheSize);
+    this.rowBindings.clear();
+  }
+
+  /**
+   * Sets the listener receiving the metrics of parsing, e.g. {@link SdvParseStatistics}. By default the metrics
+   * are not measured.
+   */
+  public void setParseListener(SdvParseListener parseListener) {
+    checkMutable();
+    this.parseListener = parseListener != null ? parseListener : SdvParseListener.NONE;
+  }
+
+  /**
+   * Sets the cache of the results of <code>parse(Path)</code>, <code>parse(Path, Class)</code>,
+   * <code>parse(InputStream, Class)</code> (if streams are cached, see {@link SdvParseCache#getMaxStreamBytes()})
+   * and the corresponding <code>parseDocument(..., Class)</code> methods.
+   * By default results are not cached. With a cache, each call still returns its own list or document, of rows
+   * shared with the other callers. Configuration changes of a reader are not detected by the cache, which
+   * should be used with an immutable reader (see {@link #builder()}).
+   */
+  public void setParseCache(SdvParseCache parseCache) {
+    checkMutable();
+    this.parseCache = parseCache;
+  }
+
   public void setDefaultLocale(Locale defaultLocale) {
+    checkMutable();
     this.defaultLocale = defaultLocale;
+    this.rowBindings.clear();
+    this.writerBindings.clear();
   }
 
   public void setDefaultDecimalFormat(DecimalFormat defaultDecimalFormat) {
+    checkMutable();
     this.defaultDecimalFormat = defaultDecimalFormat;
+    for (SdvTypeConverterWithFormat<?, ?> converter : convertersWithFormat.values()) {
+      setConverterDefaults(converter);
+    }
+    this.rowBindings.clear();
+    this.writerBindings.clear();
+  }
+
+  public Charset getCharset() {
+    return charset;
+  }
+
+  /**
+   * @return whether the reader was created by a {@link SdvReaderBuilder} and can not be configured
+   */
+  public boolean isImmutable() {
+    return immutable;
+  }
+
+  public SdvParseListener getParseListener() {
+    return parseListener;
+  }
+
+  public SdvParseCache getParseCache() {
+    return parseCache;
   }
 
   public boolean isIgnoreUnknownRows() {
     return ignoreUnknownRows;
   }
 
+  public boolean isInternStrings() {
+    return internStrings;
+  }
+
+  SdvStringCache getStringCache() {
+    return stringCache;
+  }
+
   public Locale getDefaultLocale() {
     return defaultLocale;
   }
 
+  DecimalFormat getDefaultDecimalFormat() {
+    return defaultDecimalFormat;
+  }
+
+  /**
+   * @return whether a converter of the type was registered in place of the default one
+   */
+  boolean hasCustomConverter(Class<?> type) {
+    return customConverterTypes.contains(type);
+  }
+
   public SdvTypeConverter<?> getConverter(Class<?> type) {
     return this.converters.get(type);
   }
@@ -225,13 +1044,4 @@ public class SdvReader {
     return this.convertersWithFormat.get(type);
   }
 
-  private static URL pathToUrl(Path path) {
-    try {
-      return path.toUri().toURL();
-    }
-    catch (MalformedURLException e) {
-      throw new SdvParsingException(e);
-    }
-  }
-
 }
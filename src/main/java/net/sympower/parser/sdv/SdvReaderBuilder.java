@@ -0,0 +1,124 @@
+package net.sympower.parser.sdv;
+
+import java.nio.charset.Charset;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Builds an immutable {@link SdvReader} (see {@link SdvReader#builder()}), which can be shared by concurrent
+ * parses without synchronization. Row types registered by a parse, such as the row types of a document, are used
+ * by that parse only.
+ *
+ * <pre>
+ * SdvReader reader = SdvReader.builder()
+ *   .rowType(PricesRow.class)
+ *   .defaultLocale(new Locale("fi"))
+ *   .build();
+ * </pre>
+ *
+ * The settings are applied in the order they are given, as with the setters of a reader. A builder can build
+ * any number of readers.
+ */
+public class SdvReaderBuilder {
+
+  private final List<Consumer<SdvReader>> settings = new ArrayList<>();
+
+  SdvReaderBuilder() {
+  }
+
+  public SdvReaderBuilder rowType(Class<?> rowType) {
+    return with(reader -> reader.registerRowType(rowType));
+  }
+
+  public <T> SdvReaderBuilder converter(Class<T> type, SdvTypeConverter<T> converter) {
+    return with(reader -> reader.registerConverter(type, converter));
+  }
+
+  public <T> SdvReaderBuilder converter(Class<T> type, SdvTypeConverterWithFormat<T, ?> converter) {
+    return with(reader -> reader.registerConverter(type, converter));
+  }
+
+  public SdvReaderBuilder charset(Charset charset) {
+    return with(reader -> reader.setCharset(charset));
+  }
+
+  public SdvReaderBuilder ignoreUnknownRows(boolean ignoreUnknownRows) {
+    return with(reader -> reader.setIgnoreUnknownRows(ignoreUnknownRows));
+  }
+
+  public SdvReaderBuilder defaultLocale(Locale defaultLocale) {
+    return with(reader -> reader.setDefaultLocale(defaultLocale));
+  }
+
+  /**
+   * @see SdvReader#setDefaultDecimalFormat(DecimalFormat)
+   */
+  public SdvReaderBuilder defaultDecimalFormat(DecimalFormat defaultDecimalFormat) {
+    DecimalFormat format = (DecimalFormat) defaultDecimalFormat.clone();
+    return with(reader -> reader.setDefaultDecimalFormat(format));
+  }
+
+  public SdvReaderBuilder forkJoinPool(ForkJoinPool forkJoinPool) {
+    return with(reader -> reader.setForkJoinPool(forkJoinPool));
+  }
+
+  /**
+   * @see SdvReader#setParallelChunkSize(long)
+   */
+  public SdvReaderBuilder parallelChunkSize(long parallelChunkSize) {
+    return with(reader -> reader.setParallelChunkSize(parallelChunkSize));
+  }
+
+  /**
+   * @see SdvReader#setFileParallelism(int)
+   */
+  public SdvReaderBuilder fileParallelism(int fileParallelism) {
+    return with(reader -> reader.setFileParallelism(fileParallelism));
+  }
+
+  /**
+   * @see SdvReader#setParseListener(SdvParseListener)
+   */
+  public SdvReaderBuilder parseListener(SdvParseListener parseListener) {
+    return with(reader -> reader.setParseListener(parseListener));
+  }
+
+  /**
+   * @see SdvReader#setParseCache(SdvParseCache)
+   */
+  public SdvReaderBuilder parseCache(SdvParseCache parseCache) {
+    return with(reader -> reader.setParseCache(parseCache));
+  }
+
+  /**
+   * @see SdvReader#setInternStrings(boolean)
+   */
+  public SdvReaderBuilder internStrings(boolean internStrings) {
+    return with(reader -> reader.setInternStrings(internStrings));
+  }
+
+  /**
+   * @see SdvReader#setStringCacheSize(int)
+   */
+  public SdvReaderBuilder stringCacheSize(int stringCacheSize) {
+    return with(reader -> reader.setStringCacheSize(stringCacheSize));
+  }
+
+  private SdvReaderBuilder with(Consumer<SdvReader> setting) {
+    this.settings.add(setting);
+    return this;
+  }
+
+  public SdvReader build() {
+    SdvReader reader = new SdvReader();
+    for (Consumer<SdvReader> setting : settings) {
+      setting.accept(reader);
+    }
+    return reader.freeze();
+  }
+
+}
@@ -0,0 +1,18 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Order of the results of a parse which is split into independently parsed parts.
+ */
+public enum SdvResultOrder {
+
+  /**
+   * Results are in the same order as in the input.
+   */
+  INPUT,
+
+  /**
+   * Results of a part are returned as soon as the part is parsed, the order of the parts is not defined.
+   */
+  COMPLETION
+
+}
@@ -0,0 +1,25 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Instantiates rows of a row type without reflection. Implementations are generated at compile time by
+ * the <code>sdv-parser-processor</code> annotation processor and are picked up automatically when found
+ * on the classpath.
+ */
+public interface SdvRowBinder<T> {
+
+  /**
+   * @param values converted column values, one per constructor parameter
+   * @return new row instance, or <code>null</code> if there is no public constructor with that many parameters
+   */
+  T newRow(Object[] values);
+
+  /**
+   * @param columnCount number of data columns of a row
+   * @return column plan of the constructor which binds rows with that many columns, or <code>null</code> to
+   * let the parser find the constructor by reflection
+   */
+  default SdvRowPlan getPlan(int columnCount) {
+    return null;
+  }
+
+}
@@ -0,0 +1,262 @@
+package net.sympower.parser.sdv;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Locale;
+
+/**
+ * Binding plan of a row type for a specific number of columns: the constructor to invoke and
+ * the conversion of each column. Resolved once and then reused for every row of that shape.
+ * <p>
+ * Constructors with {@link SdvColumn} parameters are bound to the indexed columns only (projection).
+ * The constructors are inspected reflectively, unless a generated {@link SdvRowBinder} supplies the plan.
+ */
+class SdvRowBinding<T> {
+
+  /**
+   * Number of columns for {@link #findConstructor(Class, int)} when the constructor is not chosen per row.
+   */
+  static final int ANY_COLUMN_COUNT = -1;
+
+  private final Class<T> rowType;
+  private final Constructor<T> constructor;
+  private final SdvRowFactory<T> factory;
+  private final SdvColumnBinding[] columns;
+  private final int[] columnIndexes;
+  private final int dataColumnCount;
+
+  private SdvRowBinding(SdvReader reader, Class<T> rowType, Constructor<T> constructor, SdvRowPlan plan, int dataColumnCount) {
+    this.rowType = rowType;
+    this.dataColumnCount = dataColumnCount;
+    this.constructor = constructor;
+    this.factory = new SdvRowFactory<>(constructor);
+    Class<?>[] parameterTypes = plan.getParameterTypes();
+    Class<?>[] valueTypes = plan.getValueTypes();
+    Annotation[][] parameterAnnotations = plan.isAnnotated() ? constructor.getParameterAnnotations()
+      : new Annotation[parameterTypes.length][0];
+    this.columns = new SdvColumnBinding[parameterTypes.length];
+    this.columnIndexes = plan.getColumnIndexes();
+    for (int i = 0; i < parameterTypes.length; i++) {
+      this.columns[i] = new SdvColumnBinding(reader, i, valueTypes[i], parameterTypes[i] == SdvLazy.class, parameterAnnotations[i], rowType);
+    }
+  }
+
+  /**
+   * Inspects the parameters of a constructor reflectively, for row types without a generated binder.
+   */
+  private static SdvRowPlan getPlan(Constructor<?> constructor, Class<?> rowType) {
+    Class<?>[] parameterTypes = constructor.getParameterTypes();
+    Type[] genericParameterTypes = constructor.getGenericParameterTypes();
+    Annotation[][] parameterAnnotations = constructor.getParameterAnnotations();
+    boolean projected = isProjected(constructor);
+    Class<?>[] valueTypes = new Class<?>[parameterTypes.length];
+    int[] columnIndexes = new int[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      columnIndexes[i] = projected ? getColumnIndex(parameterAnnotations[i], i, rowType) : i;
+      valueTypes[i] = parameterTypes[i] == SdvLazy.class
+        ? getLazyValueType(genericParameterTypes[i], i, rowType) : parameterTypes[i];
+    }
+    return new SdvRowPlan(parameterTypes, valueTypes, columnIndexes, true);
+  }
+
+  private static int getColumnIndex(Annotation[] annotations, int index, Class<?> rowType) {
+    for (Annotation annotation : annotations) {
+      if (annotation instanceof SdvColumn) {
+        int column = ((SdvColumn) annotation).value();
+        if (column < 0) {
+          throw new SdvParsingException(
+            String.format("Constructor parameter #%s has a negative column index (%s), on class %s", index+1, column, rowType));
+        }
+        return column;
+      }
+    }
+    throw new SdvParsingException(
+      String.format("Constructor parameter #%s has no @%s annotation (other parameters have), on class %s", index+1, SdvColumn.class.getSimpleName(), rowType));
+  }
+
+  static Class<?> getLazyValueType(Type type, int index, Class<?> rowType) {
+    if (type instanceof ParameterizedType) {
+      Type valueType = ((ParameterizedType) type).getActualTypeArguments()[0];
+      if (valueType instanceof Class) {
+        return (Class<?>) valueType;
+      }
+    }
+    throw new SdvParsingException(
+      String.format("Constructor parameter #%s of type %s has to declare a value class, on class %s", index+1, type, rowType));
+  }
+
+  /**
+   * @return binding for the row type, or <code>null</code> if the row type has no public constructor with
+   * the given number of parameters
+   */
+  static <T> SdvRowBinding<T> create(SdvReader reader, Class<T> rowType, int paramCount) {
+    SdvRowBinder<T> binder = SdvBinders.getRowBinder(rowType);
+    SdvRowPlan plan = binder != null ? binder.getPlan(paramCount) : null;
+    if (plan != null) {
+      Constructor<T> constructor = getConstructor(rowType, plan.getParameterTypes());
+      if (constructor != null) {
+        return new SdvRowBinding<>(reader, rowType, constructor, plan, paramCount);
+      }
+    }
+    Constructor<T> constructor = findConstructor(rowType, paramCount);
+    if (constructor == null) {
+      return null;
+    }
+    return new SdvRowBinding<>(reader, rowType, constructor, getPlan(constructor, rowType), paramCount);
+  }
+
+  /**
+   * @return the public constructor planned by a generated binder, or <code>null</code> if the binder is out of date
+   */
+  private static <T> Constructor<T> getConstructor(Class<T> rowType, Class<?>[] parameterTypes) {
+    try {
+      return rowType.getConstructor(parameterTypes);
+    }
+    catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Finds the constructor binding the rows of a row type, shared by parsing, columnar parsing and writing so that
+   * a row class maps to the same columns in all of them: the constructor with column indexes if there is one,
+   * otherwise the constructor with a parameter for each column, or with {@link #ANY_COLUMN_COUNT} the widest one.
+   *
+   * @return constructor, or <code>null</code> if there is no suitable public constructor
+   */
+  static <T> Constructor<T> findConstructor(Class<T> rowType, int paramCount) {
+    Constructor<T> found = null;
+    for (Constructor<?> constr : rowType.getConstructors()) {
+      if (isProjected(constr)) {
+        return (Constructor<T>) constr;
+      }
+      if (paramCount == ANY_COLUMN_COUNT ? found == null || constr.getParameterCount() > found.getParameterCount()
+        : constr.getParameterCount() == paramCount) {
+        found = (Constructor<T>) constr;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * @return constructor binding all the rows of a row type, whatever their number of columns (for columnar parsing
+   * and writing)
+   */
+  static <T> Constructor<T> findConstructor(Class<T> rowType) {
+    Constructor<T> constructor = findConstructor(rowType, ANY_COLUMN_COUNT);
+    if (constructor == null) {
+      throw new SdvParsingException(String.format("Row class %s has no public constructor", rowType));
+    }
+    return constructor;
+  }
+
+  static boolean isProjected(Constructor<?> constructor) {
+    for (Annotation[] annotations : constructor.getParameterAnnotations()) {
+      for (Annotation annotation : annotations) {
+        if (annotation instanceof SdvColumn) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  Class<T> getRowType() {
+    return rowType;
+  }
+
+  /**
+   * @return number of data columns (excluding the row type) of the rows this binding is for
+   */
+  int getDataColumnCount() {
+    return dataColumnCount;
+  }
+
+  Constructor<T> getConstructor() {
+    return constructor;
+  }
+
+  SdvColumnBinding getColumn(int parameterIndex) {
+    return columns[parameterIndex];
+  }
+
+  /**
+   * @return index of the data column (excluding the row type) bound to the parameter
+   */
+  int getDataColumnIndex(int parameterIndex) {
+    return columnIndexes[parameterIndex];
+  }
+
+  T newRow(SdvTokenizer tokenizer, int colStartIndex, Locale locale) {
+    Object[] params = new Object[columns.length];
+    int columnCount = tokenizer.getColumnCount();
+    for (int i = 0; i < columns.length; i++) {
+      int column = colStartIndex + columnIndexes[i];
+      params[i] = column < columnCount ? columns[i].convert(tokenizer, column, locale) : columns[i].missing(locale);
+    }
+    return factory.newRow(params);
+  }
+
+  /**
+   * Creates a row like {@link #newRow(SdvTokenizer, int, Locale)}, reporting the conversion time of each column
+   * and the instantiation time of the row to the listener.
+   */
+  T newRow(SdvTokenizer tokenizer, int colStartIndex, Locale locale, SdvParseListener listener) {
+    Object[] params = new Object[columns.length];
+    int columnCount = tokenizer.getColumnCount();
+    for (int i = 0; i < columns.length; i++) {
+      int column = colStartIndex + columnIndexes[i];
+      long start = System.nanoTime();
+      params[i] = column < columnCount ? columns[i].convert(tokenizer, column, locale) : columns[i].missing(locale);
+      listener.columnConverted(columns[i].getConverterClass(), System.nanoTime() - start);
+    }
+    long start = System.nanoTime();
+    T row = factory.newRow(params);
+    listener.rowParsed(rowType, System.nanoTime() - start);
+    return row;
+  }
+
+  /**
+   * Creates a row like {@link #newRow(SdvTokenizer, int, Locale)}, but adds an error of a column or of the
+   * constructor to the errors instead of throwing it.
+   *
+   * @param listener listener to report to, or <code>null</code>
+   * @return the row, or <code>null</code> if it failed
+   */
+  T newRowLeniently(SdvTokenizer tokenizer, int colStartIndex, Locale locale, SdvParseListener listener, SdvRowErrors errors) {
+    Object[] params = new Object[columns.length];
+    int columnCount = tokenizer.getColumnCount();
+    for (int i = 0; i < columns.length; i++) {
+      int column = colStartIndex + columnIndexes[i];
+      long start = listener != null ? System.nanoTime() : 0;
+      try {
+        params[i] = column < columnCount ? columns[i].convertLeniently(tokenizer, column, locale) : columns[i].missing(locale);
+      }
+      catch (RuntimeException e) {
+        errors.add(new SdvRowError(tokenizer.getLineNumber(), rowType, column, tokenizer.column(column), e));
+        return null;
+      }
+      if (listener != null) {
+        listener.columnConverted(columns[i].getConverterClass(), System.nanoTime() - start);
+      }
+    }
+    long start = listener != null ? System.nanoTime() : 0;
+    T row;
+    try {
+      row = factory.newRow(params);
+    }
+    catch (SdvParsingReflectionException e) {
+      Throwable cause = e.getCause() instanceof InvocationTargetException ? e.getCause().getCause() : e.getCause();
+      errors.add(new SdvRowError(tokenizer.getLineNumber(), rowType, -1, tokenizer.line(), cause));
+      return null;
+    }
+    if (listener != null) {
+      listener.rowParsed(rowType, System.nanoTime() - start);
+    }
+    return row;
+  }
+
+}
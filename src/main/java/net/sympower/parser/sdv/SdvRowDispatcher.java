@@ -0,0 +1,78 @@
+package net.sympower.parser.sdv;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Handlers of rows by row type, for processing rows in one pass as they are parsed
+ * (see {@link SdvReader#handle(java.nio.file.Path, SdvRowDispatcher)}).
+ * <p>
+ * A handler registered for a super type (e.g. an interface or <code>Object</code>) handles all row types
+ * assignable to it; if several handlers match a row type, they are called in the order of registration.
+ * Rows of types without a handler are skipped without being converted.
+ *
+ * <pre>
+ * SdvRowDispatcher dispatcher = new SdvRowDispatcher()
+ *   .on(LastUpdatedRow.class, row -&gt; ...)
+ *   .on(PricesRow.class, statistics::add);
+ * reader.handle(path, dispatcher);
+ * </pre>
+ */
+public class SdvRowDispatcher {
+
+  private static final Consumer<Object> NO_HANDLER = row -> {};
+
+  private final LinkedHashMap<Class<?>, Consumer<Object>> handlers = new LinkedHashMap<>();
+  private final ConcurrentHashMap<Class<?>, Consumer<Object>> resolvedHandlers = new ConcurrentHashMap<>();
+
+  public <T> SdvRowDispatcher on(Class<T> rowType, Consumer<? super T> handler) {
+    this.handlers.merge(rowType, (Consumer<Object>) handler, Consumer::andThen);
+    this.resolvedHandlers.clear();
+    return this;
+  }
+
+  /**
+   * @return row types of the handlers which are annotated with {@link SdvRow}
+   */
+  List<Class<?>> getRowTypes() {
+    ArrayList<Class<?>> rowTypes = new ArrayList<>();
+    for (Class<?> rowType : handlers.keySet()) {
+      if (rowType.isAnnotationPresent(SdvRow.class)) {
+        rowTypes.add(rowType);
+      }
+    }
+    return rowTypes;
+  }
+
+  boolean accepts(Class<?> rowType) {
+    return getHandler(rowType) != NO_HANDLER;
+  }
+
+  void dispatch(Object row) {
+    getHandler(row.getClass()).accept(row);
+  }
+
+  private Consumer<Object> getHandler(Class<?> rowType) {
+    Consumer<Object> handler = resolvedHandlers.get(rowType);
+    if (handler == null) {
+      handler = findHandler(rowType);
+      resolvedHandlers.putIfAbsent(rowType, handler);
+    }
+    return handler;
+  }
+
+  private Consumer<Object> findHandler(Class<?> rowType) {
+    Consumer<Object> handler = null;
+    for (Map.Entry<Class<?>, Consumer<Object>> entry : handlers.entrySet()) {
+      if (entry.getKey().isAssignableFrom(rowType)) {
+        handler = handler == null ? entry.getValue() : handler.andThen(entry.getValue());
+      }
+    }
+    return handler != null ? handler : NO_HANDLER;
+  }
+
+}
@@ -0,0 +1,84 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Error of a row which was skipped by a lenient parse (see {@link SdvReader#parseWithErrors(java.nio.file.Path, Class, int)}).
+ * The error only keeps the cause thrown by the converter or the row constructor, the message is built on demand.
+ */
+public final class SdvRowError {
+
+  private final long lineNumber;
+  private final Class<?> rowType;
+  private final int column;
+  private final String value;
+  private final Throwable cause;
+
+  SdvRowError(long lineNumber, Class<?> rowType, int column, String value, Throwable cause) {
+    this.lineNumber = lineNumber;
+    this.rowType = rowType;
+    this.column = column;
+    this.value = value;
+    this.cause = cause;
+  }
+
+  /**
+   * @return number of the line in the input (starting from 1, counting also blank and comment lines)
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * @return row type, or <code>null</code> if the row type is not registered
+   */
+  public Class<?> getRowType() {
+    return rowType;
+  }
+
+  /**
+   * @return index of the column in the line (the row type is column 0), or -1 if the error is not of a single column
+   */
+  public int getColumn() {
+    return column;
+  }
+
+  /**
+   * @return value of the column, or the whole line if the error is not of a single column
+   */
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * @return exception thrown by the converter or by the row constructor, or <code>null</code> for an unknown row type
+   */
+  public Throwable getCause() {
+    return cause;
+  }
+
+  /**
+   * @return exception describing the error, without a stack trace of its own (the cause has one)
+   */
+  public SdvParsingException toException() {
+    return new SdvRowErrorException(toString(), cause);
+  }
+
+  @Override
+  public String toString() {
+    if (rowType == null) {
+      return String.format("Row type (%s) not registered, on line %s", value, lineNumber);
+    }
+    if (column < 0) {
+      return String.format("Error while creating row of class %s (%s), on line %s '%s'", rowType.getName(), cause, lineNumber, value);
+    }
+    return String.format("Error while parsing column %s (value '%s') of class %s (%s), on line %s", column, value, rowType.getName(), cause, lineNumber);
+  }
+
+  private static final class SdvRowErrorException extends SdvParsingException {
+
+    SdvRowErrorException(String message, Throwable cause) {
+      super(message, cause, false);
+    }
+
+  }
+
+}
@@ -0,0 +1,36 @@
+package net.sympower.parser.sdv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Errors collected by a lenient parse, up to the error budget.
+ */
+class SdvRowErrors {
+
+  private final int errorBudget;
+  private final List<SdvRowError> errors = new ArrayList<>();
+
+  SdvRowErrors(int errorBudget) {
+    if (errorBudget < 0) {
+      throw new IllegalArgumentException("Error budget can not be negative: " + errorBudget);
+    }
+    this.errorBudget = errorBudget;
+  }
+
+  /**
+   * @throws SdvErrorBudgetException if the error exceeds the budget
+   */
+  void add(SdvRowError error) {
+    errors.add(error);
+    if (errors.size() > errorBudget) {
+      throw new SdvErrorBudgetException(errorBudget, getErrors());
+    }
+  }
+
+  List<SdvRowError> getErrors() {
+    return Collections.unmodifiableList(new ArrayList<>(errors));
+  }
+
+}
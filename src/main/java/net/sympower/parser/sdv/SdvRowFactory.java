@@ -0,0 +1,86 @@
+package net.sympower.parser.sdv;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Instantiates rows through a generated {@link SdvRowBinder} if there is one for the row type, otherwise through
+ * a {@link MethodHandle} bound to the row constructor. Falls back to {@link Constructor#newInstance(Object...)}
+ * if the constructor can not be turned into a method handle.
+ */
+final class SdvRowFactory<T> {
+
+  private static final MethodType GENERIC_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+  private final Class<T> rowType;
+  private final Constructor<T> constructor;
+  private final SdvRowBinder<T> binder;
+  private final MethodHandle handle;
+
+  SdvRowFactory(Constructor<T> constructor) {
+    this.rowType = constructor.getDeclaringClass();
+    this.constructor = constructor;
+    this.binder = SdvBinders.getRowBinder(this.rowType);
+    this.handle = this.binder == null ? toMethodHandle(constructor) : null;
+  }
+
+  private static MethodHandle toMethodHandle(Constructor<?> constructor) {
+    try {
+      return MethodHandles.publicLookup().unreflectConstructor(constructor)
+        .asSpreader(Object[].class, constructor.getParameterCount())
+        .asType(GENERIC_TYPE);
+    }
+    catch (IllegalAccessException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  T newRow(Object[] params) {
+    if (this.binder != null) {
+      return newRowWithBinder(params);
+    }
+    if (this.handle == null) {
+      return newRowReflectively(params);
+    }
+    try {
+      return (T) (Object) this.handle.invokeExact(params);
+    }
+    catch (Error e) {
+      throw e;
+    }
+    catch (Throwable e) {
+      throw new SdvParsingReflectionException(
+        String.format("Error while invoking constructor on class %s", rowType), e);
+    }
+  }
+
+  private T newRowWithBinder(Object[] params) {
+    T row;
+    try {
+      row = this.binder.newRow(params);
+    }
+    catch (RuntimeException e) {
+      throw new SdvParsingReflectionException(
+        String.format("Error while invoking constructor on class %s", rowType), e);
+    }
+    if (row == null) {
+      throw new SdvParsingException(
+        String.format("Generated binder of class %s has no constructor with %s parameters", rowType, params.length));
+    }
+    return row;
+  }
+
+  private T newRowReflectively(Object[] params) {
+    try {
+      return constructor.newInstance(params);
+    }
+    catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+      throw new SdvParsingReflectionException(
+        String.format("Error while invoking constructor on class %s", rowType), e);
+    }
+  }
+
+}
@@ -0,0 +1,93 @@
+package net.sympower.parser.sdv;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Passes a row to a document, either through a setter/adder method or by setting a field.
+ * Uses a {@link MethodHandle} when possible and falls back to reflection otherwise.
+ */
+final class SdvRowHandler {
+
+  private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Method method;
+  private final Field field;
+  private final MethodHandle handle;
+
+  private SdvRowHandler(Method method, Field field, MethodHandle handle) {
+    this.method = method;
+    this.field = field;
+    this.handle = handle;
+  }
+
+  /**
+   * @param method accessible method with a single parameter
+   */
+  static SdvRowHandler forMethod(Method method) {
+    MethodHandle handle;
+    try {
+      handle = MethodHandles.lookup().unreflect(method).asType(HANDLER_TYPE);
+    }
+    catch (IllegalAccessException | RuntimeException e) {
+      handle = null;
+    }
+    return new SdvRowHandler(method, null, handle);
+  }
+
+  /**
+   * @param field accessible non-collection field
+   */
+  static SdvRowHandler forField(Field field) {
+    MethodHandle handle;
+    try {
+      handle = MethodHandles.lookup().unreflectSetter(field).asType(HANDLER_TYPE);
+    }
+    catch (IllegalAccessException | RuntimeException e) {
+      handle = null;
+    }
+    return new SdvRowHandler(null, field, handle);
+  }
+
+  void handle(Object document, Object row) {
+    if (this.handle == null) {
+      handleReflectively(document, row);
+      return;
+    }
+    try {
+      this.handle.invokeExact(document, row);
+    }
+    catch (Error e) {
+      throw e;
+    }
+    catch (Throwable e) {
+      throw new SdvParsingReflectionException(errorMessage(document), e);
+    }
+  }
+
+  private void handleReflectively(Object document, Object row) {
+    try {
+      if (this.method != null) {
+        this.method.invoke(document, row);
+      }
+      else {
+        this.field.set(document, row);
+      }
+    }
+    catch (InvocationTargetException | IllegalAccessException e) {
+      throw new SdvParsingReflectionException(errorMessage(document), e);
+    }
+  }
+
+  private String errorMessage(Object document) {
+    if (this.method != null) {
+      return String.format("Error while invoking method %s on class %s", method.getName(), document.getClass());
+    }
+    return String.format("Error while setting field %s on class %s", field.getName(), document.getClass());
+  }
+
+}
@@ -1,56 +1,91 @@
 package net.sympower.parser.sdv;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Iterator;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.function.Predicate;
 
 public class SdvRowIterator<T> implements Iterator<T>, AutoCloseable {
 
   private final SdvReader reader;
-  private final String commentPrefix;
-  private final Pattern columnDelimiterPattern;
+  private final SdvTokenizer tokenizer;
+  private final Map<String, Class<?>> rowTypes;
+  private final Predicate<Class<?>> rowFilter;
+  private final SdvParseListener listener;
+  private final SdvRowErrors errors;
 
-  private final BufferedReader textReader;
-  private final Class<?> rowFilterType;
-
-  private String line;
   private Class<T> rowType;
-  private String[] cols;
+  private SdvRowBinding<T> binding;
+  private T row;
+
+  private String lastTypeName;
+  private Class<T> lastRowType;
+  private boolean lastRowTypeAccepted;
+
+  private long rowLines;
+  private long unknownRows;
+  private long filteredRows;
+  private long reportedLines;
+  private long reportedBytes;
+
+  /**
+   * @param rowTypes row types by name
+   * @param rowFilter accepts the row types to return, it is called once for each run of rows of the same type
+   */
+  SdvRowIterator(SdvReader reader, SdvTokenizer tokenizer, Map<String, Class<?>> rowTypes, Predicate<Class<?>> rowFilter) {
+    this(reader, tokenizer, rowTypes, rowFilter, null);
+  }
 
-  SdvRowIterator(SdvReader reader, String commentPrefix, Pattern columnDelimiterPattern, BufferedReader textReader, Class<?> rowFilterType) {
+  /**
+   * @param errors errors of a lenient parse, which skips the rows failing to convert: the rows are then converted
+   * by {@link #hasNext()}. <code>null</code> for a strict parse.
+   */
+  SdvRowIterator(SdvReader reader, SdvTokenizer tokenizer, Map<String, Class<?>> rowTypes, Predicate<Class<?>> rowFilter,
+                 SdvRowErrors errors) {
     this.reader = reader;
-    this.commentPrefix = commentPrefix;
-    this.columnDelimiterPattern = columnDelimiterPattern;
-    this.textReader = textReader;
-    this.rowFilterType = rowFilterType;
+    this.tokenizer = tokenizer;
+    this.rowTypes = rowTypes;
+    this.rowFilter = rowFilter;
+    this.errors = errors;
+    SdvParseListener parseListener = reader.getParseListener();
+    this.listener = parseListener != SdvParseListener.NONE ? parseListener : null;
   }
 
   @Override
   public boolean hasNext() {
-    while ((this.line = readNextLine()) != null) {
-      this.line = this.line.trim();
-      if (!line.startsWith(this.commentPrefix) && line.length() > 0) {
-        this.cols = this.columnDelimiterPattern.split(line, -1);
-        if (cols.length > 0) {
-          String type = cols[0];
-          this.rowType = (Class<T>) this.reader.getRowBeanType(type);
-          if (rowType == null) {
-            if (this.reader.isIgnoreUnknownRows()) {
-              continue;
-            }
-            throw new IllegalArgumentException(
-              String.format("Row type (%s) not registered, on row '%s'", type, line));
-          }
-          if (!rowFilterType.isAssignableFrom(this.rowType)) {
-            continue;
-          }
-          return true;
+    if (this.rowType != null) {
+      return true;
+    }
+    while (nextLine()) {
+      this.rowLines++;
+      String type = tokenizer.rowType();
+      if (type != this.lastTypeName) {
+        this.lastRowType = (Class<T>) this.rowTypes.get(type);
+        this.lastRowTypeAccepted = this.lastRowType != null && rowFilter.test(this.lastRowType);
+        this.lastTypeName = type;
+      }
+      if (this.lastRowType == null) {
+        if (this.reader.isIgnoreUnknownRows()) {
+          this.unknownRows++;
+          continue;
         }
+        if (this.errors != null) {
+          this.errors.add(new SdvRowError(tokenizer.getLineNumber(), null, 0, type, null));
+          continue;
+        }
+        throw new IllegalArgumentException(
+          String.format("Row type (%s) not registered, on row '%s'", type, tokenizer.line()));
+      }
+      if (!this.lastRowTypeAccepted) {
+        this.filteredRows++;
+        continue;
       }
+      tokenizer.split();
+      this.rowType = this.lastRowType;
+      if (this.errors != null && !convertLeniently()) {
+        continue;
+      }
+      return true;
     }
     try {
       close();
@@ -61,103 +96,123 @@ public class SdvRowIterator<T> implements Iterator<T>, AutoCloseable {
     return false;
   }
 
-  private String readNextLine() {
+  private boolean nextLine() {
     try {
-      return textReader.readLine();
+      return tokenizer.nextLine();
     }
     catch (IOException e) {
       throw new SdvParsingIOException(e);
     }
   }
 
+  /**
+   * Converts the current row, adding its error to the errors if it fails.
+   *
+   * @return whether the row was converted
+   */
+  private boolean convertLeniently() {
+    SdvRowBinding<T> rowBinding = findBinding();
+    this.rowType = null;
+    if (rowBinding == null) {
+      // recorded without a stack trace, a file may have many such rows
+      SdvParsingException error = new SdvParsingException(
+        String.format("No constructor with suitable number of parameters (%s) found", tokenizer.getColumnCount() - 1), null, false);
+      this.errors.add(new SdvRowError(tokenizer.getLineNumber(), this.lastRowType, -1, tokenizer.line(), error));
+      return false;
+    }
+    this.row = rowBinding.newRowLeniently(tokenizer, 1, this.reader.getDefaultLocale(), this.listener, this.errors);
+    if (this.row == null) {
+      return false;
+    }
+    this.rowType = this.lastRowType;
+    return true;
+  }
+
   @Override
   public T next() {
-    if (this.line == null || this.cols == null || this.rowType == null) {
+    if (this.errors != null) {
+      if (this.rowType == null) {
+        throw new SdvParsingException("Should call hasNext() before calling next()!");
+      }
+      T result = this.row;
+      this.row = null;
+      this.rowType = null;
+      return result;
+    }
+    SdvRowBinding<T> rowBinding = nextBinding();
+    if (this.listener != null) {
+      return rowBinding.newRow(tokenizer, 1, this.reader.getDefaultLocale(), this.listener);
+    }
+    return rowBinding.newRow(tokenizer, 1, this.reader.getDefaultLocale());
+  }
+
+  /**
+   * Moves to the next row without converting it: the row stays in the tokenizer until {@link #hasNext()} is called.
+   *
+   * @return binding of the row
+   */
+  SdvRowBinding<T> nextBinding() {
+    if (this.rowType == null) {
       throw new SdvParsingException("Should call hasNext() before calling next()!");
     }
     try {
-      int paramCount = cols.length - 1;
-      Constructor<T> constr = (Constructor<T>) findConstructor(rowType, paramCount);
-      if (constr == null) {
+      SdvRowBinding<T> rowBinding = findBinding();
+      if (rowBinding == null) {
         throw new SdvParsingException(
-          String.format("No constructor with suitable number of parameters (%s) found, on class %s for row '%s'", paramCount, rowType, line));
-      }
-      Object[] params = parseParameters(cols, 1, constr);
-      try {
-        return constr.newInstance(params);
-      }
-      catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-        throw new SdvParsingReflectionException(
-          String.format("Error while invoking constructor on class %s", rowType), e);
+          String.format("No constructor with suitable number of parameters (%s) found, on class %s for row '%s'", tokenizer.getColumnCount() - 1, rowType, tokenizer.line()));
       }
+      return rowBinding;
     }
     finally {
-      this.line = null;
-      this.cols = null;
       this.rowType = null;
     }
   }
 
-  public void close() throws IOException {
-    this.textReader.close();
-  }
-
-  private Object[] parseParameters(String[] cols, int colStartIndex, Constructor<?> constr) {
-    Class<?>[] parameterTypes = constr.getParameterTypes();
-    Annotation[][] parameterAnnotations = constr.getParameterAnnotations();
-    Object[] params = new Object[parameterTypes.length];
-    for (int i = 0; i < parameterTypes.length; i++) {
-      params[i] = convertValue(
-        cols[colStartIndex + i], parameterTypes[i], parameterAnnotations[i],
-        i, constr.getDeclaringClass());
+  /**
+   * @return binding of the current row, or <code>null</code> if the row type has no constructor for its columns
+   */
+  private SdvRowBinding<T> findBinding() {
+    int paramCount = tokenizer.getColumnCount() - 1;
+    SdvRowBinding<T> rowBinding = this.binding;
+    if (rowBinding == null || rowBinding.getRowType() != rowType || rowBinding.getDataColumnCount() != paramCount) {
+      rowBinding = this.reader.getRowBinding(rowType, paramCount);
+      if (rowBinding != null) {
+        this.binding = rowBinding;
+      }
     }
-    return params;
+    return rowBinding;
   }
 
-  private Object convertValue(String value, Class<?> type, Annotation[] annotations, int index, Class<?> klass) {
-    if (value == null || value.length() == 0) {
-      return null;
-    }
-    Object result = null;
-    try {
-      SdvTypeConverter<?> converter = this.reader.getConverter(type);
-      if (converter != null) {
-        result = converter.convert(value);
-      }
-      if (result == null) {
-        SdvTypeConverterWithFormat<?, ? extends Annotation> converterWithFormat = this.reader.getConverterWithFormat(type);
-        if (converterWithFormat != null) {
-          result = converterWithFormat.convert(value, findAnnotation(annotations, converterWithFormat.getAnnotationType()), this.reader.getDefaultLocale());
-        }
-      }
-    }
-    catch (Exception e) {
-      throw new SdvParsingException(
-        String.format("Error while parsing constructor parameter #%s (type %s, value '%s'), on class %s", index+1, type, value, klass), e);
-    }
-    if (result == null) {
-      throw new SdvParsingException(
-        String.format("Constructor parameter #%s type %s not supported (value: %s), on class %s", index+1, type, value, klass));
+  public void close() throws IOException {
+    if (this.listener != null) {
+      report();
     }
-    return result;
+    this.tokenizer.close();
   }
 
-  private <T extends Annotation> T findAnnotation(Annotation[] annotations, Class<? extends Annotation> annotationClass) {
-    for (Annotation annotation : annotations) {
-      if (annotation.annotationType().isAssignableFrom(annotationClass)) {
-        return (T) annotation;
-      }
+  /**
+   * Reports the lines read and the rows skipped since the previous report.
+   */
+  private void report() {
+    long lines = tokenizer.getLineNumber();
+    long bytes = tokenizer.getBytesRead();
+    if (lines > this.reportedLines || bytes > this.reportedBytes) {
+      this.listener.inputRead(lines - this.reportedLines, bytes < 0 ? -1 : bytes - this.reportedBytes);
     }
-    return null;
+    report(SdvSkipReason.BLANK_OR_COMMENT, lines - this.reportedLines - this.rowLines);
+    report(SdvSkipReason.UNKNOWN_ROW_TYPE, this.unknownRows);
+    report(SdvSkipReason.FILTERED, this.filteredRows);
+    this.reportedLines = lines;
+    this.reportedBytes = Math.max(bytes, 0);
+    this.rowLines = 0;
+    this.unknownRows = 0;
+    this.filteredRows = 0;
   }
 
-  private Constructor<?> findConstructor(Class<?> rowType, int paramCount) {
-    for (Constructor<?> constr : rowType.getConstructors()) {
-      if (constr.getParameterCount() == paramCount) {
-        return constr;
-      }
+  private void report(SdvSkipReason reason, long count) {
+    if (count > 0) {
+      this.listener.rowsSkipped(reason, count);
     }
-    return null;
   }
 
 }
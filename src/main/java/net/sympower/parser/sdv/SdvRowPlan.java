@@ -0,0 +1,46 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Column plan of a row constructor: the types of its parameters and the data column of each. Generated
+ * {@link SdvRowBinder}s supply the plans, so the parser does not have to look for the constructor and inspect
+ * its parameters reflectively.
+ */
+public final class SdvRowPlan {
+
+  private final Class<?>[] parameterTypes;
+  private final Class<?>[] valueTypes;
+  private final int[] columnIndexes;
+  private final boolean annotated;
+
+  /**
+   * @param parameterTypes types of the constructor parameters
+   * @param valueTypes types the columns are converted to: the parameter types, or the value types of
+   * {@link SdvLazy} parameters
+   * @param columnIndexes data column of each parameter (0 is the first column after the row type)
+   * @param annotated whether parameters have annotations other than {@link SdvColumn} (e.g. formats), which
+   * are then read from the constructor
+   */
+  public SdvRowPlan(Class<?>[] parameterTypes, Class<?>[] valueTypes, int[] columnIndexes, boolean annotated) {
+    this.parameterTypes = parameterTypes;
+    this.valueTypes = valueTypes;
+    this.columnIndexes = columnIndexes;
+    this.annotated = annotated;
+  }
+
+  Class<?>[] getParameterTypes() {
+    return parameterTypes;
+  }
+
+  Class<?>[] getValueTypes() {
+    return valueTypes;
+  }
+
+  int[] getColumnIndexes() {
+    return columnIndexes;
+  }
+
+  boolean isAnnotated() {
+    return annotated;
+  }
+
+}
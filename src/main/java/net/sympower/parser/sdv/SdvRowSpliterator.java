@@ -0,0 +1,88 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the rows of a byte range of a file. Until the iteration starts, it splits at the line
+ * terminator closest after the middle of the range, so parallel streams parse parts of the file concurrently.
+ * The channel is shared by all the parts and is not closed by the spliterator.
+ */
+class SdvRowSpliterator<T> implements Spliterator<T> {
+
+  private final SdvReader reader;
+  private final FileChannel channel;
+  private final Class<T> rowFilterType;
+  private final long minSplitSize;
+  private final long end;
+
+  private long start;
+  private SdvRowIterator<T> iterator;
+
+  SdvRowSpliterator(SdvReader reader, FileChannel channel, long start, long end, Class<T> rowFilterType, long minSplitSize) {
+    this.reader = reader;
+    this.channel = channel;
+    this.start = start;
+    this.end = end;
+    this.rowFilterType = rowFilterType;
+    this.minSplitSize = minSplitSize;
+  }
+
+  private SdvRowIterator<T> iterator() {
+    if (this.iterator == null) {
+      this.iterator = this.reader.iterate(this.reader.newTokenizer(channel, start, end, false), rowFilterType);
+    }
+    return this.iterator;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    SdvRowIterator<T> iter = iterator();
+    if (!iter.hasNext()) {
+      return false;
+    }
+    action.accept(iter.next());
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    iterator().forEachRemaining(action);
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    if (this.iterator != null || this.end - this.start < 2 * this.minSplitSize) {
+      return null;
+    }
+    long middle;
+    try {
+      middle = SdvParallelParser.findLineEnd(channel, start + (end - start) / 2, end);
+    }
+    catch (IOException e) {
+      throw new SdvParsingIOException(e);
+    }
+    if (middle >= this.end) {
+      return null;
+    }
+    SdvRowSpliterator<T> prefix = new SdvRowSpliterator<>(reader, channel, start, middle, rowFilterType, minSplitSize);
+    this.start = middle;
+    return prefix;
+  }
+
+  /**
+   * @return number of bytes left, the number of rows is not known before parsing
+   */
+  @Override
+  public long estimateSize() {
+    return this.end - this.start;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+
+}
@@ -0,0 +1,23 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Reason why a line of the input did not produce a row (see {@link SdvParseListener#rowsSkipped(SdvSkipReason, long)}).
+ */
+public enum SdvSkipReason {
+
+  /**
+   * Blank line or comment line.
+   */
+  BLANK_OR_COMMENT,
+
+  /**
+   * Row type is not registered (and unknown rows are ignored).
+   */
+  UNKNOWN_ROW_TYPE,
+
+  /**
+   * Row type is not accepted by the parse, e.g. it is not a subtype of the row filter type.
+   */
+  FILTERED
+
+}
@@ -0,0 +1,328 @@
+package net.sympower.parser.sdv;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Binary snapshot of a {@link SdvColumnBatch}, stored next to its source file (see
+ * {@link SdvReader#parseColumnsWithSnapshot(Path, Class)}). The snapshot is valid while the fingerprint of the
+ * source, the schema of the row type and the settings affecting conversion are the same as when it was written.
+ * <p>
+ * Format (big-endian): magic, version, source size and modification time, row type name, digest of the settings,
+ * the column types, the number of rows and then the columns: the null bits followed by the values as primitive
+ * arrays (decimals with the scale of the column and of each value, strings as a dictionary and codes), each column of a
+ * {@link SdvLazy} parameter followed by its texts as a string column. Snapshots are read memory-mapped.
+ */
+final class SdvSnapshot {
+
+  private static final int MAGIC = 0x53445653;
+  private static final int VERSION = 4;
+  private static final String SETTINGS_DIGEST_ALGORITHM = "SHA-256";
+  static final String SUFFIX = ".snapshot";
+
+  private SdvSnapshot() {
+  }
+
+  /**
+   * @return snapshot file of the source file
+   */
+  static Path getPath(Path source) {
+    return source.resolveSibling(source.getFileName() + SUFFIX);
+  }
+
+  /**
+   * Describes the settings affecting the conversion of the columns of the row type: the locale, charset and default
+   * decimal format of the reader, and for each constructor parameter its type, its annotations and the class of
+   * a custom converter of the type.
+   *
+   * @return digest of the settings, or <code>null</code> if a custom converter has no stable class name (a lambda)
+   */
+  static String getSettings(SdvReader reader, Class<?> rowType) {
+    StringBuilder settings = new StringBuilder()
+      .append(reader.getDefaultLocale().toLanguageTag()).append(';')
+      .append(reader.getCharset().name()).append(';');
+    DecimalFormat decimalFormat = reader.getDefaultDecimalFormat();
+    if (decimalFormat != null) {
+      DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+      settings.append(decimalFormat.toPattern()).append(' ').append(symbols.getDecimalSeparator())
+        .append(symbols.getGroupingSeparator()).append(symbols.getMinusSign());
+    }
+    Constructor<?> constructor = new SdvColumnBatch<>(rowType).getConstructor();
+    Class<?>[] parameterTypes = constructor.getParameterTypes();
+    for (int i = 0; i < parameterTypes.length; i++) {
+      settings.append(';').append(constructor.getGenericParameterTypes()[i].getTypeName())
+        .append(Arrays.toString(constructor.getParameterAnnotations()[i]));
+      Class<?> valueType = parameterTypes[i] == SdvLazy.class
+        ? SdvRowBinding.getLazyValueType(constructor.getGenericParameterTypes()[i], i, rowType)
+        : parameterTypes[i];
+      if (reader.hasCustomConverter(valueType)) {
+        Object converter = reader.getConverter(valueType) != null ? reader.getConverter(valueType) : reader.getConverterWithFormat(valueType);
+        if (converter.getClass().isSynthetic()) {
+          return null;
+        }
+        settings.append(' ').append(converter.getClass().getName());
+      }
+    }
+    return digest(settings.toString());
+  }
+
+  private static String digest(String settings) {
+    byte[] hash;
+    try {
+      hash = MessageDigest.getInstance(SETTINGS_DIGEST_ALGORITHM).digest(settings.getBytes(StandardCharsets.UTF_8));
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(String.format("Hash algorithm %s is not available", SETTINGS_DIGEST_ALGORITHM), e);
+    }
+    StringBuilder hex = new StringBuilder(hash.length * 2);
+    for (byte b : hash) {
+      hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * Checks that the batch can be stored, i.e. it has no object columns and no decimal columns whose values do
+   * not fit to longs.
+   */
+  static boolean isSupported(SdvColumnBatch<?> batch) {
+    for (int i = 0; i < batch.getColumnCount(); i++) {
+      SdvBatchColumn column = batch.getBatchColumn(i);
+      if (column.getType() == SdvColumnType.OBJECT
+        || column.getType() == SdvColumnType.DECIMAL && ((SdvBatchColumn.DecimalColumn) column).decimals != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the snapshot to a temporary file, which then replaces the snapshot file, so concurrent readers see
+   * either the old or the new snapshot.
+   */
+  static void write(Path path, SdvSourceFingerprint fingerprint, String settings, SdvColumnBatch<?> batch) throws IOException {
+    Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(fingerprint.getSize());
+        out.writeLong(fingerprint.getLastModified());
+        writeString(out, batch.getRowType().getName());
+        writeString(out, settings);
+        out.writeInt(batch.getColumnCount());
+        for (int i = 0; i < batch.getColumnCount(); i++) {
+          out.writeByte(batch.getColumnType(i).ordinal());
+        }
+        out.writeInt(batch.size());
+        for (int i = 0; i < batch.getColumnCount(); i++) {
+          writeColumn(out, batch.getBatchColumn(i), batch.size());
+          if (batch.getTextColumn(i) != null) {
+            writeColumn(out, batch.getTextColumn(i), batch.size());
+          }
+        }
+      }
+      try {
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private static void writeColumn(DataOutputStream out, SdvBatchColumn column, int size) throws IOException {
+    long[] nulls = column.getNulls().toLongArray();
+    out.writeInt(nulls.length);
+    for (long word : nulls) {
+      out.writeLong(word);
+    }
+    switch (column.getType()) {
+      case INT:
+        writeInts(out, ((SdvBatchColumn.IntColumn) column).values, size);
+        break;
+      case DATE:
+        writeInts(out, ((SdvBatchColumn.DateColumn) column).values, size);
+        break;
+      case LONG:
+        writeLongs(out, ((SdvBatchColumn.LongColumn) column).values, size);
+        break;
+      case DECIMAL:
+        SdvBatchColumn.DecimalColumn decimals = (SdvBatchColumn.DecimalColumn) column;
+        out.writeInt(decimals.scale);
+        writeLongs(out, decimals.values, size);
+        writeInts(out, decimals.scales, size);
+        break;
+      case DOUBLE:
+        double[] doubles = ((SdvBatchColumn.DoubleColumn) column).values;
+        for (int i = 0; i < size; i++) {
+          out.writeDouble(doubles[i]);
+        }
+        break;
+      case STRING:
+        SdvBatchColumn.StringColumn strings = (SdvBatchColumn.StringColumn) column;
+        out.writeInt(strings.dictionary.size());
+        for (String value : strings.dictionary) {
+          writeString(out, value);
+        }
+        writeInts(out, strings.codes, size);
+        break;
+      default:
+        throw new SdvParsingException(String.format("Column type %s can not be stored in a snapshot", column.getType()));
+    }
+  }
+
+  private static void writeInts(DataOutputStream out, int[] values, int size) throws IOException {
+    for (int i = 0; i < size; i++) {
+      out.writeInt(values[i]);
+    }
+  }
+
+  private static void writeLongs(DataOutputStream out, long[] values, int size) throws IOException {
+    for (int i = 0; i < size; i++) {
+      out.writeLong(values[i]);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * @return the batch stored in the snapshot, or <code>null</code> if there is no valid snapshot for the source,
+   * the row type and the settings
+   */
+  static <T> SdvColumnBatch<T> read(Path path, SdvSourceFingerprint fingerprint, String settings, Class<T> rowType) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        return null;
+      }
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return read(buffer, fingerprint, settings, rowType);
+    }
+    catch (NoSuchFileException e) {
+      return null;
+    }
+    catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+      // truncated or corrupted, the snapshot is written again
+      return null;
+    }
+  }
+
+  private static <T> SdvColumnBatch<T> read(ByteBuffer buffer, SdvSourceFingerprint fingerprint, String settings, Class<T> rowType) {
+    if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+      return null;
+    }
+    SdvSourceFingerprint stored = new SdvSourceFingerprint(buffer.getLong(), buffer.getLong());
+    if (!stored.equals(fingerprint) || !readString(buffer).equals(rowType.getName()) || !readString(buffer).equals(settings)) {
+      return null;
+    }
+    SdvColumnBatch<T> batch = new SdvColumnBatch<>(rowType);
+    int columnCount = buffer.getInt();
+    if (columnCount != batch.getColumnCount()) {
+      return null;
+    }
+    for (int i = 0; i < columnCount; i++) {
+      if (buffer.get() != batch.getColumnType(i).ordinal()) {
+        return null;
+      }
+    }
+    int size = buffer.getInt();
+    for (int i = 0; i < columnCount; i++) {
+      readColumn(buffer, batch.getBatchColumn(i), size);
+      if (batch.getTextColumn(i) != null) {
+        readColumn(buffer, batch.getTextColumn(i), size);
+      }
+    }
+    batch.setSize(size);
+    return batch;
+  }
+
+  private static void readColumn(ByteBuffer buffer, SdvBatchColumn column, int size) {
+    long[] nulls = new long[buffer.getInt()];
+    buffer.asLongBuffer().get(nulls);
+    skip(buffer, nulls.length * Long.BYTES);
+    column.getNulls().or(BitSet.valueOf(nulls));
+    switch (column.getType()) {
+      case INT:
+        ((SdvBatchColumn.IntColumn) column).values = readInts(buffer, size);
+        break;
+      case DATE:
+        ((SdvBatchColumn.DateColumn) column).values = readInts(buffer, size);
+        break;
+      case LONG:
+        ((SdvBatchColumn.LongColumn) column).values = readLongs(buffer, size);
+        break;
+      case DECIMAL:
+        SdvBatchColumn.DecimalColumn decimals = (SdvBatchColumn.DecimalColumn) column;
+        decimals.scale = buffer.getInt();
+        decimals.values = readLongs(buffer, size);
+        decimals.scales = readInts(buffer, size);
+        break;
+      case DOUBLE:
+        double[] doubles = new double[size];
+        buffer.asDoubleBuffer().get(doubles);
+        skip(buffer, size * Double.BYTES);
+        ((SdvBatchColumn.DoubleColumn) column).values = doubles;
+        break;
+      case STRING:
+        SdvBatchColumn.StringColumn strings = (SdvBatchColumn.StringColumn) column;
+        int dictionarySize = buffer.getInt();
+        for (int i = 0; i < dictionarySize; i++) {
+          strings.dictionary.add(readString(buffer));
+        }
+        strings.codes = readInts(buffer, size);
+        break;
+      default:
+        throw new SdvParsingException(String.format("Column type %s can not be read from a snapshot", column.getType()));
+    }
+  }
+
+  private static int[] readInts(ByteBuffer buffer, int size) {
+    int[] values = new int[size];
+    buffer.asIntBuffer().get(values);
+    skip(buffer, size * Integer.BYTES);
+    return values;
+  }
+
+  private static long[] readLongs(ByteBuffer buffer, int size) {
+    long[] values = new long[size];
+    buffer.asLongBuffer().get(values);
+    skip(buffer, size * Long.BYTES);
+    return values;
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void skip(ByteBuffer buffer, int bytes) {
+    buffer.position(buffer.position() + bytes);
+  }
+
+}
@@ -0,0 +1,57 @@
+package net.sympower.parser.sdv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Identifies the content of a source file by its size and last modification time, without reading it.
+ * A file rewritten with the same size within the resolution of the file system timestamps is not detected.
+ */
+final class SdvSourceFingerprint {
+
+  private final long size;
+  private final long lastModified;
+
+  SdvSourceFingerprint(long size, long lastModified) {
+    this.size = size;
+    this.lastModified = lastModified;
+  }
+
+  static SdvSourceFingerprint of(Path path) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    return new SdvSourceFingerprint(attributes.size(), attributes.lastModifiedTime().toMillis());
+  }
+
+  long getSize() {
+    return size;
+  }
+
+  long getLastModified() {
+    return lastModified;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SdvSourceFingerprint)) {
+      return false;
+    }
+    SdvSourceFingerprint other = (SdvSourceFingerprint) o;
+    return size == other.size && lastModified == other.lastModified;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Long.hashCode(size) + Long.hashCode(lastModified);
+  }
+
+  @Override
+  public String toString() {
+    return size + " bytes, modified " + lastModified;
+  }
+
+}
@@ -0,0 +1,55 @@
+package net.sympower.parser.sdv;
+
+/**
+ * Bounded cache of canonical strings for columns which repeat a few values (codes, units, area aliases),
+ * so the rows share one instance of each value (see {@link SdvReader#setInternStrings(boolean)} and {@link SdvIntern}).
+ * <p>
+ * The cache is a direct-mapped table indexed by the hash of the characters: a hit returns the cached instance
+ * without creating a string, a miss replaces the entry in its slot. So the memory use is bounded by the table size,
+ * columns with many distinct values just keep replacing entries. The table is shared by concurrent parses without
+ * locking; strings are immutable, so a racy read sees either a complete string or the previous entry.
+ */
+final class SdvStringCache implements SdvCharTypeConverter<String> {
+
+  static final int DEFAULT_SIZE = 4096;
+
+  private final String[] table;
+  private final int mask;
+
+  /**
+   * @param size number of entries, rounded up to a power of two
+   */
+  SdvStringCache(int size) {
+    this.table = new String[size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1];
+    this.mask = this.table.length - 1;
+  }
+
+  @Override
+  public String convert(char[] chars, int offset, int length) {
+    int hash = 0;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + chars[i];
+    }
+    int index = (hash ^ (hash >>> 16)) & mask;
+    String cached = table[index];
+    if (cached != null && regionEquals(cached, chars, offset, length)) {
+      return cached;
+    }
+    String value = new String(chars, offset, length);
+    table[index] = value;
+    return value;
+  }
+
+  private static boolean regionEquals(String value, char[] chars, int offset, int length) {
+    if (value.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (value.charAt(i) != chars[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
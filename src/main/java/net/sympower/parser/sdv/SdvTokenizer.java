@@ -0,0 +1,113 @@
+package net.sympower.parser.sdv;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Splits SDV input into lines and columns in a single pass over a reused buffer.
+ * <p>
+ * Lines are trimmed and blank and comment lines are skipped. The row type (first column) can be inspected
+ * before the line is split, so rows which are not needed are skipped without looking at their columns.
+ * Column boundaries are kept as offsets into the buffer and are only valid until the next line is read.
+ * <p>
+ * {@link SdvCharTokenizer} works on characters read from a {@link java.io.Reader}, {@link SdvByteTokenizer}
+ * directly on the bytes of a file.
+ */
+abstract class SdvTokenizer implements Closeable {
+
+  private static final int INITIAL_COLUMNS = 64;
+
+  private int[] columnStarts = new int[INITIAL_COLUMNS];
+  private int[] columnEnds = new int[INITIAL_COLUMNS];
+  private int columnCount;
+
+  /**
+   * Advances to the next line which is not blank and not a comment.
+   *
+   * @return <code>false</code> if there are no more lines
+   */
+  abstract boolean nextLine() throws IOException;
+
+  /**
+   * Returns the row type (the first column) of the current line. Consecutive rows of the same type
+   * return the same instance, so no new string is created for them.
+   */
+  abstract String rowType();
+
+  /**
+   * Splits the current line into columns.
+   *
+   * @return number of columns (including the row type column)
+   */
+  abstract int split();
+
+  /**
+   * @return value of the column, or <code>null</code> if the column is empty
+   */
+  abstract String column(int index);
+
+  /**
+   * Converts a (non-empty) column with a converter working on characters, without creating a string.
+   */
+  abstract <T> T convertColumn(int index, SdvCharTypeConverter<T> converter);
+
+  /**
+   * Parses a (non-empty) column to a primitive value, without creating any objects.
+   */
+  abstract long parseColumn(int index, LongParser parser);
+
+  /**
+   * @return the current line (trimmed)
+   */
+  abstract String line();
+
+  abstract long getLineNumber();
+
+  /**
+   * @return number of bytes read so far, or -1 if it is not known (input read through a {@link java.io.Reader})
+   */
+  abstract long getBytesRead();
+
+  final void setColumn(int index, int start, int end) {
+    if (index == columnStarts.length) {
+      growColumns();
+    }
+    columnStarts[index] = start;
+    columnEnds[index] = end;
+  }
+
+  private void growColumns() {
+    int[] newStarts = new int[columnStarts.length * 2];
+    int[] newEnds = new int[columnEnds.length * 2];
+    System.arraycopy(columnStarts, 0, newStarts, 0, columnStarts.length);
+    System.arraycopy(columnEnds, 0, newEnds, 0, columnEnds.length);
+    this.columnStarts = newStarts;
+    this.columnEnds = newEnds;
+  }
+
+  final void setColumnCount(int columnCount) {
+    this.columnCount = columnCount;
+  }
+
+  final int getColumnCount() {
+    return columnCount;
+  }
+
+  final int getColumnStart(int index) {
+    return columnStarts[index];
+  }
+
+  final int getColumnLength(int index) {
+    return columnEnds[index] - columnStarts[index];
+  }
+
+  /**
+   * Parses characters to a primitive value (or a value encoded as a <code>long</code>).
+   */
+  interface LongParser {
+
+    long parse(char[] chars, int offset, int length);
+
+  }
+
+}
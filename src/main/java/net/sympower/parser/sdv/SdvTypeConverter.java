@@ -4,4 +4,12 @@ public interface SdvTypeConverter<T> {
 
   T convert(String value);
 
+  /**
+   * Appends the value in a form {@link #convert(String)} converts back to it, for {@link SdvWriter}. By default
+   * the string form of the value.
+   */
+  default void format(T value, StringBuilder out) {
+    out.append(value);
+  }
+
 }
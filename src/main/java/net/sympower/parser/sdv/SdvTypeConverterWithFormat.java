@@ -9,4 +9,12 @@ public interface SdvTypeConverterWithFormat<T, F extends Annotation> {
 
   T convert(String value, F format, Locale locale);
 
+  /**
+   * Appends the value in a form {@link #convert(String, Annotation, Locale)} converts back to it, for
+   * {@link SdvWriter}. By default the string form of the value.
+   */
+  default void format(T value, F format, Locale locale, StringBuilder out) {
+    out.append(value);
+  }
+
 }
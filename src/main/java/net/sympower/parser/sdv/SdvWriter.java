@@ -0,0 +1,119 @@
+package net.sympower.parser.sdv;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+
+/**
+ * Writes rows of {@link SdvRow} classes as SDV lines, the reverse of parsing them (see
+ * {@link SdvReader#newWriter(Path)}). Each column is formatted by the converter the reader parses it with,
+ * honouring the format annotations of the constructor parameters, so the reader parses the lines back to equal rows.
+ * Null values are written as empty columns.
+ * <p>
+ * Rows are formatted into a reused buffer, integers and plain decimals without intermediate strings, and the buffer
+ * is written to the output when it is full. SDV has no quoting: a value containing the column delimiter or a line
+ * break can not be written. Instances are not thread-safe.
+ */
+public class SdvWriter implements Closeable, Flushable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final SdvReader reader;
+  private final Writer out;
+  private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE * 2);
+  private final char[] chars = new char[BUFFER_SIZE];
+
+  private Class<?> lastRowType;
+  private SdvWriterBinding lastBinding;
+  private long rowCount;
+
+  SdvWriter(SdvReader reader, Writer out) {
+    this.reader = reader;
+    this.out = out;
+  }
+
+  /**
+   * @throws SdvParsingException if the row type can not be written or a value contains a column delimiter or a
+   * line break, nothing of the row is then written
+   */
+  public void write(Object row) throws IOException {
+    Class<?> rowType = row.getClass();
+    if (rowType != this.lastRowType) {
+      this.lastBinding = reader.getWriterBinding(rowType);
+      this.lastRowType = rowType;
+    }
+    int start = buffer.length();
+    try {
+      lastBinding.write(row, buffer);
+    }
+    catch (RuntimeException e) {
+      buffer.setLength(start);
+      throw e;
+    }
+    this.rowCount++;
+    if (buffer.length() >= BUFFER_SIZE) {
+      writeBuffer();
+    }
+  }
+
+  public void writeAll(Iterable<?> rows) throws IOException {
+    for (Object row : rows) {
+      write(row);
+    }
+  }
+
+  /**
+   * Writes a comment line, which the reader skips.
+   */
+  public void writeComment(String comment) throws IOException {
+    for (int i = 0; i < comment.length(); i++) {
+      char c = comment.charAt(i);
+      if (c == '\n' || c == '\r') {
+        throw new SdvParsingException(String.format("Comment '%s' contains a line break", comment));
+      }
+    }
+    buffer.append(SdvReader.COMMENT_PREFIX).append(' ').append(comment).append('\n');
+    if (buffer.length() >= BUFFER_SIZE) {
+      writeBuffer();
+    }
+  }
+
+  /**
+   * @return number of rows written
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  private void writeBuffer() throws IOException {
+    int length = buffer.length();
+    for (int offset = 0; offset < length; offset += chars.length) {
+      int count = Math.min(chars.length, length - offset);
+      buffer.getChars(offset, offset + count, chars, 0);
+      out.write(chars, 0, count);
+    }
+    buffer.setLength(0);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writeBuffer();
+    out.flush();
+  }
+
+  /**
+   * Writes the buffered rows and closes the output.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      writeBuffer();
+    }
+    finally {
+      out.close();
+    }
+  }
+
+}
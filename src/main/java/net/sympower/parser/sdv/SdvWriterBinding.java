@@ -0,0 +1,259 @@
+package net.sympower.parser.sdv;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+
+/**
+ * Writing plan of a row type for {@link SdvWriter}: the row type name and, for each column, the field holding its
+ * value and the formatting of the value. Resolved once per row type.
+ * <p>
+ * The columns are the parameters of the constructor the reader binds: the one with {@link SdvColumn} parameters,
+ * otherwise the one with the most parameters. Each parameter is read back from the field of the same name. Without
+ * parameter names in the class file (<code>javac -parameters</code>) the parameters are matched with the instance
+ * fields in declaration order, which then have to have the same types.
+ */
+class SdvWriterBinding {
+
+  private final Class<?> rowType;
+  private final String rowTypeName;
+  private final Column[] columns;
+
+  SdvWriterBinding(SdvReader reader, Class<?> rowType) {
+    this.rowType = rowType;
+    this.rowTypeName = SdvReader.getRowTypeName(rowType);
+    Constructor<?> constructor = SdvRowBinding.findConstructor(rowType);
+    Field[] fields = findFields(rowType, constructor);
+    Annotation[][] parameterAnnotations = constructor.getParameterAnnotations();
+    boolean projected = SdvRowBinding.isProjected(constructor);
+    List<Column> columns = new ArrayList<>();
+    boolean[] bound = new boolean[0];
+    for (int i = 0; i < fields.length; i++) {
+      int index = projected ? getColumnIndex(parameterAnnotations[i]) : i;
+      if (index < 0) {
+        continue;
+      }
+      if (index >= bound.length) {
+        bound = Arrays.copyOf(bound, index + 1);
+      }
+      if (!bound[index]) {
+        bound[index] = true;
+        columns.add(newColumn(reader, i, index, fields[i], parameterAnnotations[i]));
+      }
+    }
+    columns.sort(Comparator.comparingInt(column -> column.index));
+    this.columns = columns.toArray(new Column[0]);
+  }
+
+  private static Field[] findFields(Class<?> rowType, Constructor<?> constructor) {
+    Parameter[] parameters = constructor.getParameters();
+    Field[] fields = new Field[parameters.length];
+    if (parameters.length > 0 && parameters[0].isNamePresent()) {
+      for (int i = 0; i < parameters.length; i++) {
+        fields[i] = findField(rowType, parameters[i].getName());
+      }
+    }
+    else {
+      List<Field> instanceFields = new ArrayList<>();
+      for (Field field : rowType.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+          instanceFields.add(field);
+        }
+      }
+      if (instanceFields.size() == parameters.length) {
+        instanceFields.toArray(fields);
+      }
+    }
+    for (int i = 0; i < parameters.length; i++) {
+      if (fields[i] == null || fields[i].getType() != parameters[i].getType()) {
+        throw new SdvParsingException(
+          String.format("Constructor parameter #%s has no field of the same name and type to write it from, on class %s"
+            + " (without parameter names, compiled with -parameters, the fields have to match the parameters in order)", i+1, rowType));
+      }
+      try {
+        fields[i].setAccessible(true);
+      }
+      catch (RuntimeException e) {
+        // public fields are readable anyway
+      }
+    }
+    return fields;
+  }
+
+  private static Field findField(Class<?> rowType, String name) {
+    for (Class<?> klass = rowType; klass != null; klass = klass.getSuperclass()) {
+      try {
+        return klass.getDeclaredField(name);
+      }
+      catch (NoSuchFieldException e) {
+        // look in the superclass
+      }
+    }
+    return null;
+  }
+
+  private static int getColumnIndex(Annotation[] annotations) {
+    Annotation column = SdvColumnBinding.findAnnotation(annotations, SdvColumn.class);
+    return column != null ? ((SdvColumn) column).value() : -1;
+  }
+
+  private Column newColumn(SdvReader reader, int parameterIndex, int index, Field field, Annotation[] annotations) {
+    Class<?> type = field.getType();
+    SdvTypeConverter<?> converter = reader.getConverter(type);
+    if (type == Integer.TYPE && converter instanceof IntegerConverter) {
+      return new IntColumn(index, field);
+    }
+    if (type == Long.TYPE && converter instanceof LongConverter) {
+      return new LongColumn(index, field);
+    }
+    if (type == SdvLazy.class) {
+      return new ValueColumn(index, field, null);
+    }
+    return new ValueColumn(index, field, getFormatter(reader, parameterIndex, type, annotations));
+  }
+
+  private BiConsumer<Object, StringBuilder> getFormatter(SdvReader reader, int parameterIndex, Class<?> type, Annotation[] annotations) {
+    SdvTypeConverter<Object> converter = (SdvTypeConverter<Object>) reader.getConverter(type);
+    if (converter != null) {
+      return converter::format;
+    }
+    SdvTypeConverterWithFormat<Object, Annotation> converterWithFormat =
+      (SdvTypeConverterWithFormat<Object, Annotation>) reader.getConverterWithFormat(type);
+    if (converterWithFormat == null) {
+      throw new SdvParsingException(
+        String.format("Constructor parameter #%s type %s not supported, on class %s", parameterIndex+1, type, rowType));
+    }
+    Annotation format = SdvColumnBinding.findAnnotation(annotations, converterWithFormat.getAnnotationType());
+    Locale locale = reader.getDefaultLocale();
+    if (converterWithFormat instanceof AbstractNumberConverter) {
+      AbstractNumberConverter<Number> numberConverter = (AbstractNumberConverter<Number>) (SdvTypeConverterWithFormat<?, ?>) converterWithFormat;
+      SdvDecimalFormat pattern = (SdvDecimalFormat) format;
+      char decimalSeparator = numberConverter.getPlainDecimalSeparator(pattern, locale);
+      return (value, out) -> {
+        if (decimalSeparator == 0 || !AbstractNumberConverter.appendPlain((Number) value, decimalSeparator, out)) {
+          numberConverter.formatWithFormat((Number) value, pattern, locale, out);
+        }
+      };
+    }
+    return (value, out) -> converterWithFormat.format(value, format, locale, out);
+  }
+
+  Class<?> getRowType() {
+    return rowType;
+  }
+
+  /**
+   * Appends the row as a line.
+   */
+  void write(Object row, StringBuilder out) {
+    out.append(rowTypeName);
+    int next = 0;
+    try {
+      for (Column column : columns) {
+        for (; next <= column.index; next++) {
+          out.append(SdvReader.COLUMN_DELIMITER);
+        }
+        column.write(row, out);
+      }
+    }
+    catch (IllegalAccessException e) {
+      throw new SdvParsingReflectionException(String.format("Error while reading fields of class %s", rowType), e);
+    }
+    out.append('\n');
+  }
+
+  private abstract static class Column {
+
+    final int index;
+    final Field field;
+
+    Column(int index, Field field) {
+      this.index = index;
+      this.field = field;
+    }
+
+    abstract void write(Object row, StringBuilder out) throws IllegalAccessException;
+
+  }
+
+  /**
+   * Column of a primitive <code>int</code> written without boxing.
+   */
+  private static final class IntColumn extends Column {
+
+    IntColumn(int index, Field field) {
+      super(index, field);
+    }
+
+    @Override
+    void write(Object row, StringBuilder out) throws IllegalAccessException {
+      out.append(field.getInt(row));
+    }
+
+  }
+
+  /**
+   * Column of a primitive <code>long</code> written without boxing.
+   */
+  private static final class LongColumn extends Column {
+
+    LongColumn(int index, Field field) {
+      super(index, field);
+    }
+
+    @Override
+    void write(Object row, StringBuilder out) throws IllegalAccessException {
+      out.append(field.getLong(row));
+    }
+
+  }
+
+  /**
+   * Column of an object, written by its converter, or as its text if it is a {@link SdvLazy}. Null values are
+   * written as empty columns.
+   */
+  private static final class ValueColumn extends Column {
+
+    private final BiConsumer<Object, StringBuilder> formatter;
+
+    ValueColumn(int index, Field field, BiConsumer<Object, StringBuilder> formatter) {
+      super(index, field);
+      this.formatter = formatter;
+    }
+
+    @Override
+    void write(Object row, StringBuilder out) throws IllegalAccessException {
+      Object value = field.get(row);
+      if (value == null) {
+        return;
+      }
+      int start = out.length();
+      if (this.formatter == null) {
+        String text = ((SdvLazy<?>) value).getText();
+        if (text != null) {
+          out.append(text);
+        }
+      }
+      else {
+        this.formatter.accept(value, out);
+      }
+      for (int i = start; i < out.length(); i++) {
+        char c = out.charAt(i);
+        if (c == SdvReader.COLUMN_DELIMITER || c == '\n' || c == '\r') {
+          throw new SdvParsingException(String.format("Value '%s' of field %s contains a column delimiter or a line break, on class %s",
+            out.substring(start), field.getName(), field.getDeclaringClass()));
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,10 @@
+package net.sympower.parser.sdv;
+
+public class StringConverter implements SdvTypeConverter<String> {
+
+  @Override
+  public String convert(String value) {
+    return value;
+  }
+
+}
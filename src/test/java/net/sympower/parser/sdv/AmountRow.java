@@ -0,0 +1,16 @@
+package net.sympower.parser.sdv;
+
+import java.math.BigDecimal;
+
+@SdvRow("AM")
+public class AmountRow {
+
+  public final String unit;
+  public final BigDecimal amount;
+
+  public AmountRow(@SdvIntern String unit, @SdvDecimalFormat(groupingSeparator = ",", decimalSeparator = ".") BigDecimal amount) {
+    this.unit = unit;
+    this.amount = amount;
+  }
+
+}
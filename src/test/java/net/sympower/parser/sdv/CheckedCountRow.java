@@ -0,0 +1,26 @@
+package net.sympower.parser.sdv;
+
+@SdvRow("CC")
+public class CheckedCountRow {
+
+  public final int count;
+
+  public CheckedCountRow(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Negative count " + count);
+    }
+    this.count = count;
+  }
+
+  /**
+   * Not accessible to public method handles.
+   */
+  static class Hidden extends CheckedCountRow {
+
+    public Hidden(int count) {
+      super(count);
+    }
+
+  }
+
+}
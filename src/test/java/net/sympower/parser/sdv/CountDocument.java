@@ -0,0 +1,18 @@
+package net.sympower.parser.sdv;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CountDocument {
+
+  final List<LineCountRow> counts = new ArrayList<>();
+  LineCountRow last;
+
+  void addCount(LineCountRow count) {
+    if (count.count < 0) {
+      throw new IllegalArgumentException("Negative count " + count.count);
+    }
+    this.counts.add(count);
+  }
+
+}
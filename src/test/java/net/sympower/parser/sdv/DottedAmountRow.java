@@ -0,0 +1,14 @@
+package net.sympower.parser.sdv;
+
+import java.math.BigDecimal;
+
+@SdvRow("DA")
+public class DottedAmountRow {
+
+  public final BigDecimal amount;
+
+  public DottedAmountRow(@SdvDecimalFormat(groupingSeparator = " ") BigDecimal amount) {
+    this.amount = amount;
+  }
+
+}
@@ -0,0 +1,14 @@
+package net.sympower.parser.sdv;
+
+import java.math.BigDecimal;
+
+@SdvRow("GA")
+public class GroupedAmountRow {
+
+  public final BigDecimal amount;
+
+  public GroupedAmountRow(@SdvDecimalFormat(groupingSeparator = " ", decimalSeparator = SdvDecimalFormat.LOCALE) BigDecimal amount) {
+    this.amount = amount;
+  }
+
+}
@@ -0,0 +1,25 @@
+package net.sympower.parser.sdv;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@SdvRow("PR")
+public class PriceTotalRow {
+
+  public final LocalDate date;
+  public final String unit;
+  public final SdvLazy<BigDecimal> hour1;
+  public final BigDecimal total;
+  public final String missing;
+
+  public PriceTotalRow(@SdvColumn(4) @SdvColumnFormat("dd.MM.yyyy") LocalDate date, @SdvColumn(6) String unit,
+                       @SdvColumn(7) SdvLazy<BigDecimal> hour1, @SdvColumn(32) BigDecimal total,
+                       @SdvColumn(40) String missing) {
+    this.date = date;
+    this.unit = unit;
+    this.hour1 = hour1;
+    this.total = total;
+    this.missing = missing;
+  }
+
+}
@@ -0,0 +1,21 @@
+package net.sympower.parser.sdv;
+
+import java.math.BigDecimal;
+
+@SdvRow("PA")
+public class ProjectedAmountRow {
+
+  public final String unit;
+  public final BigDecimal amount;
+
+  public ProjectedAmountRow(String unit, BigDecimal amount, String note) {
+    this.unit = unit;
+    this.amount = amount;
+  }
+
+  public ProjectedAmountRow(@SdvColumn(0) String unit, @SdvColumn(2) BigDecimal amount) {
+    this.unit = unit;
+    this.amount = amount;
+  }
+
+}
@@ -1,18 +1,50 @@
 package net.sympower.parser.sdv;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 public class SdvReaderTest {
 
@@ -67,6 +99,548 @@ public class SdvReaderTest {
     assertThat(iterator.hasNext()).as("Should not have more rows").isFalse();
   }
 
+  @Test
+  public void parseMixedLineTerminatorsAndLongLines() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.registerRowType(AreaDescriptionRow.class);
+    StringBuilder longDescription = new StringBuilder();
+    while (longDescription.length() < 20000) {
+      longDescription.append("Finland ");
+    }
+    String text = "# comment\r\nBE;SP1;SYSTEMPRICE\r\n\r\n  BE;BG;Bulgaria  \rST;2017\nBE;FI;" + longDescription + "\nBE;EE;";
+    List<?> results = sut.parse(new StringReader(text), Object.class);
+    Iterator<?> iterator = results.iterator();
+    assertAreaEquals("SP1", "SYSTEMPRICE", iterator);
+    assertAreaEquals("BG", "Bulgaria", iterator);
+    assertAreaEquals("FI", longDescription.toString().trim(), iterator);
+    assertAreaEquals("EE", null, iterator);
+    assertThat(iterator.hasNext()).as("Should not have more rows").isFalse();
+  }
+
+  @Test
+  public void parseValuesWithAndWithoutFastPath() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    sut.registerRowType(ValuesRow.class);
+    String text = "VA;+12;2121,6;-289,70;22.03.2017 11:58\n" +
+      "VA;-9223372036854775808;-0,0;0,000;29.02.2017 00:00\n" +
+      "VA;7;1\u00a0234,5;12345678901234567890,5;26.03.2017 02:00\n";
+    List<ValuesRow> results = sut.parse(new StringReader(text), ValuesRow.class);
+    assertThat(results).hasSize(3);
+    assertThat(results.get(0).count).isEqualTo(12L);
+    assertThat(results.get(0).volume).isEqualTo(2121.6d);
+    assertThat(results.get(0).price).isEqualTo(new BigDecimal("-289.70"));
+    assertThat(results.get(0).time).isEqualTo(LocalDateTime.of(2017, 3, 22, 11, 58));
+    assertThat(results.get(1).count).isEqualTo(Long.MIN_VALUE);
+    assertThat(Double.doubleToLongBits(results.get(1).volume)).isEqualTo(Double.doubleToLongBits(-0.0d));
+    assertThat(results.get(1).price).isEqualTo(new BigDecimal("0.000"));
+    assertThat(results.get(1).time).isEqualTo(LocalDateTime.of(2017, 2, 28, 0, 0));
+    assertThat(results.get(2).volume).isEqualTo(1234.5d);
+    assertThat(results.get(2).price).isEqualTo(new BigDecimal("12345678901234567890.5"));
+    assertThatThrownBy(() -> sut.parse(new StringReader("VA;1;1;1;26.03.2017 2:00"), ValuesRow.class))
+      .isInstanceOf(SdvParsingException.class)
+      .hasMessageContaining("value '26.03.2017 2:00'");
+  }
+
+  @Test
+  public void parseDecimalFormatAnnotationSeparators() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    sut.registerRowType(AmountRow.class);
+    List<AmountRow> results = sut.parse(new StringReader("AM;EUR;1,234.50\nAM;EUR;-0.25\n"), AmountRow.class);
+    assertThat(results).extracting(row -> row.amount).containsExactly(new BigDecimal("1234.50"), new BigDecimal("-0.25"));
+  }
+
+  @Test
+  public void parseDecimalFormatAnnotationWithLocaleDecimalSeparator() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    sut.registerRowType(GroupedAmountRow.class);
+    List<GroupedAmountRow> results = sut.parse(new StringReader("GA;12,5\nGA;1 234,75\nGA;-0,25\n"), GroupedAmountRow.class);
+    assertThat(results).extracting(row -> row.amount)
+      .containsExactly(new BigDecimal("12.5"), new BigDecimal("1234.75"), new BigDecimal("-0.25"));
+
+    sut.registerRowType(DottedAmountRow.class);
+    assertThat(sut.parse(new StringReader("DA;1 234.75\nDA;-0.25\n"), DottedAmountRow.class)).as("Decimal separator should default to '.'")
+      .extracting(row -> row.amount).containsExactly(new BigDecimal("1234.75"), new BigDecimal("-0.25"));
+  }
+
+  @Test
+  public void parseInternedStrings() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.registerRowType(AmountRow.class);
+    sut.registerRowType(AreaDescriptionRow.class);
+    String text = "AM;EUR;1\nAM;EUR;2\nBE;FI;Finland\nBE;FI;Finland\n";
+    List<AmountRow> amounts = sut.parse(new StringReader(text), AmountRow.class);
+    assertThat(amounts.get(0).unit).isEqualTo("EUR").isSameAs(amounts.get(1).unit);
+    List<AreaDescriptionRow> areas = sut.parse(new StringReader(text), AreaDescriptionRow.class);
+    assertThat(areas.get(0).alias).isEqualTo("FI").isNotSameAs(areas.get(1).alias);
+
+    sut.setInternStrings(true);
+    areas = sut.parse(new StringReader(text), AreaDescriptionRow.class);
+    assertThat(areas.get(0).alias).isSameAs(areas.get(1).alias);
+    assertThat(areas.get(0).description).isSameAs(areas.get(1).description);
+
+    sut.setStringCacheSize(2);
+    areas = sut.parse(new StringReader(text + "BE;SE;Sweden\nBE;NO;Norway\nBE;FI;Finland\n"), AreaDescriptionRow.class);
+    assertThat(areas).extracting(area -> area.alias).containsExactly("FI", "FI", "SE", "NO", "FI");
+    assertThat(areas).extracting(area -> area.description).containsExactly("Finland", "Finland", "Sweden", "Norway", "Finland");
+  }
+
+  @Test
+  public void parseConcurrentlyWithSharedReader() throws Exception {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    sut.registerRowType(ValuesRow.class);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      text.append("VA;").append(i).append(";1\u00a0").append(i % 900 + 100).append(",5;-2\u00a0")
+        .append(i % 900 + 100).append(",25;22.03.2017 11:58\n");
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<ValuesRow>>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> sut.parse(new StringReader(text.toString()), ValuesRow.class)));
+      }
+      for (Future<List<ValuesRow>> future : futures) {
+        List<ValuesRow> results = future.get();
+        assertThat(results).hasSize(2000);
+        for (ValuesRow row : results) {
+          int value = (int) row.count % 900 + 100;
+          assertThat(row.volume).isEqualTo(1000 + value + 0.5d);
+          assertThat(row.price).isEqualTo(BigDecimal.valueOf(-(2000 + value) * 100 - 25, 2));
+        }
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void parseMappedFileAcrossWindows(@TempDir Path dir) throws Exception {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    sut.setMappedWindowSize(16);
+    Path file = dir.resolve("prices.sdv");
+    Files.copy(Paths.get(getClass().getResource("prices.sdv").toURI()), file);
+    SpotPriceDocument doc = sut.parseDocument(file, SpotPriceDocument.class);
+    assertPriceRows(doc.prices.iterator());
+    assertLineCountRow(223, Arrays.asList(doc.lineCount).iterator());
+    try (SdvRowIterator<PricesRow> iterator = sut.iterate(file, PricesRow.class)) {
+      assertThat(iterator.hasNext()).isTrue();
+      assertThat(iterator.next()).isNotNull();
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.truncate(0);
+      }
+      assertThatThrownBy(() -> iterator.forEachRemaining(row -> { }))
+        .hasMessageContaining("truncated");
+    }
+    Files.copy(Paths.get(getClass().getResource("prices.sdv").toURI()), file, StandardCopyOption.REPLACE_EXISTING);
+    sut.setMappedThreshold(0);
+    doc = sut.parseDocument(file, SpotPriceDocument.class);
+    assertPriceRows(doc.prices.iterator());
+    assertLineCountRow(223, Arrays.asList(doc.lineCount).iterator());
+
+    sut.registerRowType(AreaDescriptionRow.class);
+    String text = "BE;SE;Ruotsi \u00e4\u00f6\r\n\r\nBE;DK;\u20ac\r# comment\nBE;FI;Suomi";
+    for (Charset charset : Arrays.asList(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16)) {
+      String euro = charset.newEncoder().canEncode('\u20ac') ? "\u20ac" : "E";
+      Files.write(file, text.replace("\u20ac", euro).getBytes(charset));
+      sut.setCharset(charset);
+      Iterator<?> iterator = sut.parse(file).iterator();
+      assertAreaEquals("SE", "Ruotsi \u00e4\u00f6", iterator);
+      assertAreaEquals("DK", euro, iterator);
+      assertAreaEquals("FI", "Suomi", iterator);
+      assertThat(iterator.hasNext()).isFalse();
+    }
+  }
+
+  @Test
+  public void parseParallelInChunks(@TempDir Path dir) throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    sut.setParallelChunkSize(1000);
+    sut.registerRowType(ValuesRow.class);
+    sut.registerRowType(LineCountRow.class);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      text.append(i % 100 == 0 ? "# comment\r\n" : "").append("VA;").append(i).append(";1,5;-2,25;22.03.2017 11:58\r\n");
+    }
+    text.append("AL;5000");
+    Path file = dir.resolve("values.sdv");
+    Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+
+    List<ValuesRow> rows = sut.parseParallel(file, ValuesRow.class);
+    assertThat(rows).extracting(row -> row.count).containsExactlyElementsOf(
+      LongStream.range(0, 5000).boxed().collect(Collectors.toList()));
+    assertThat(rows).extracting(row -> row.price).containsOnly(new BigDecimal("-2.25"));
+    List<ValuesRow> unordered = sut.parseParallel(file, ValuesRow.class, SdvResultOrder.COMPLETION);
+    assertThat(unordered).extracting(row -> row.count).containsExactlyInAnyOrderElementsOf(
+      LongStream.range(0, 5000).boxed().collect(Collectors.toList()));
+    List<Object> all = sut.parseParallel(file, Object.class);
+    assertThat(all).hasSize(5001);
+    assertLineCountRow(5000, all.subList(5000, 5001).iterator());
+  }
+
+  @Test
+  public void parseAsync() throws Exception {
+    SdvReader sut = SdvReader.builder().defaultLocale(new Locale("fi")).rowType(LineCountRow.class).build();
+    List<CompletableFuture<SpotPriceDocument>> futures = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      futures.add(sut.parseDocumentAsync(getClass().getResourceAsStream("prices.sdv"), SpotPriceDocument.class, SdvReader.defaultAsyncExecutor()));
+    }
+    for (CompletableFuture<SpotPriceDocument> future : futures) {
+      assertThat(future.get().prices).hasSize(10);
+    }
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      CompletableFuture<List<LineCountRow>> rows = sut.parseAsync(new StringReader("AL;1\nAL;2"), LineCountRow.class, executor);
+      assertThat(rows.get()).hasSize(2);
+      CompletableFuture<List<LineCountRow>> failed = sut.parseAsync(Paths.get("missing.sdv"), LineCountRow.class, executor);
+      assertThatThrownBy(failed::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(IOException.class);
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void parseFilesConcurrently(@TempDir Path dir) throws IOException {
+    for (int i = 0; i < 5; i++) {
+      Files.write(dir.resolve("spot" + i + ".sdv"), ("BE;FI;Finland\nAL;" + (i == 3 ? "x" : i) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+    Files.write(dir.resolve("other.sdv"), "AL;9\n".getBytes(StandardCharsets.UTF_8));
+    SdvReader sut = SdvReader.builder().fileParallelism(2).build();
+
+    List<SdvFileResult<SpotPriceDocument>> documents = sut.parseDocuments(dir, "spot*.sdv", SpotPriceDocument.class, SdvResultOrder.INPUT);
+    assertThat(documents).extracting(result -> result.getPath().getFileName().toString())
+      .containsExactly("spot0.sdv", "spot1.sdv", "spot2.sdv", "spot3.sdv", "spot4.sdv");
+    assertThat(documents).extracting(SdvFileResult::isSuccess).containsExactly(true, true, true, false, true);
+    assertThat(documents.get(4).get().lineCount.count).isEqualTo(4);
+    assertThat(documents.get(3).getError()).isInstanceOf(SdvParsingException.class);
+    assertThatThrownBy(() -> documents.get(3).get())
+      .isInstanceOf(SdvParsingException.class)
+      .hasMessageContaining("spot3.sdv");
+
+    List<Path> paths = Arrays.asList(dir.resolve("spot0.sdv"), dir.resolve("missing.sdv"), dir.resolve("other.sdv"));
+    List<SdvFileResult<Long>> counts = sut.parseFiles(paths,
+      (reader, path) -> reader.handle(path, new SdvRowDispatcher().on(LineCountRow.class, row -> {})), SdvResultOrder.COMPLETION);
+    assertThat(counts).hasSize(3);
+    assertThat(counts).filteredOn(SdvFileResult::isSuccess).extracting(SdvFileResult::getResult).containsOnly(1L);
+    assertThat(counts).filteredOn(result -> !result.isSuccess()).extracting(SdvFileResult::getError)
+      .hasOnlyElementsOfType(IOException.class).hasSize(1);
+
+    Files.write(dir.resolve("counts.sdv"), "AL;1\nAL;2\nAL;3\nAL;4\n".getBytes(StandardCharsets.UTF_8));
+    ForkJoinPool singleWorker = new ForkJoinPool(1);
+    try {
+      SdvReader nested = SdvReader.builder().forkJoinPool(singleWorker).parallelChunkSize(4).rowType(LineCountRow.class).build();
+      List<SdvFileResult<List<LineCountRow>>> rows = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> nested.parseFiles(
+        Arrays.asList(dir.resolve("counts.sdv"), dir.resolve("counts.sdv")), (reader, path) -> reader.parseParallel(path, LineCountRow.class), SdvResultOrder.INPUT));
+      assertThat(rows).as("Parallel parses within a file parse should not starve a single worker")
+        .allSatisfy(result -> assertThat(result.get()).extracting(row -> row.count).containsExactly(1, 2, 3, 4));
+    }
+    finally {
+      singleWorker.shutdown();
+    }
+  }
+
+  @Test
+  public void streamFileInParallel(@TempDir Path dir) throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.setParallelChunkSize(1000);
+    sut.registerRowType(LineCountRow.class);
+    StringBuilder text = new StringBuilder();
+    for (int i = 1; i <= 10000; i++) {
+      text.append("AL;").append(i).append('\n');
+    }
+    Path file = dir.resolve("counts.sdv");
+    Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+    try (Stream<LineCountRow> rows = sut.stream(file, LineCountRow.class)) {
+      assertThat(rows.spliterator().trySplit()).as("Should split the file").isNotNull();
+    }
+    try (Stream<LineCountRow> rows = sut.stream(file, LineCountRow.class)) {
+      assertThat(rows.parallel().mapToLong(row -> row.count).sum()).isEqualTo(10000L * 10001 / 2);
+    }
+    try (Stream<LineCountRow> rows = sut.stream(file, LineCountRow.class)) {
+      assertThat(rows.parallel().map(row -> row.count).collect(Collectors.toList()))
+        .containsExactlyElementsOf(IntStream.rangeClosed(1, 10000).boxed().collect(Collectors.toList()));
+    }
+    try (Stream<LineCountRow> rows = sut.stream(new StringReader(text.toString()), LineCountRow.class)) {
+      assertThat(rows.limit(3).map(row -> row.count)).containsExactly(1, 2, 3);
+    }
+  }
+
+  @Test
+  public void handleRowsByType() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    List<PricesRow> prices = new ArrayList<>();
+    List<Object> lineCounts = new ArrayList<>();
+    List<Object> all = new ArrayList<>();
+    SdvRowDispatcher dispatcher = new SdvRowDispatcher()
+      .on(PricesRow.class, prices::add)
+      .on(LineCountRow.class, lineCounts::add)
+      .on(Object.class, all::add);
+    long count = sut.handle(getClass().getResource("prices.sdv"), dispatcher);
+    assertThat(count).isEqualTo(11);
+    assertPriceRows(prices.iterator());
+    assertLineCountRow(223, lineCounts.iterator());
+    assertThat(all).hasSize(11);
+  }
+
+  @Test
+  public void followAppendedRows(@TempDir Path dir) throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.registerRowType(LineCountRow.class);
+    Path file = dir.resolve("follow.sdv");
+    Files.write(file, "AL;1\nAL;2\nAL;".getBytes(StandardCharsets.UTF_8));
+    SdvFileFollower follower = sut.follow(file);
+    assertThat(follower.poll(LineCountRow.class)).extracting(row -> row.count).containsExactly(1, 2);
+    assertThat(follower.poll(LineCountRow.class)).isEmpty();
+
+    Files.write(file, "3\r".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    assertThat(follower.poll(LineCountRow.class)).extracting(row -> row.count).containsExactly(3);
+    Files.write(file, "\nAL;4\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    List<Object> handled = new ArrayList<>();
+    assertThat(follower.poll(new SdvRowDispatcher().on(LineCountRow.class, handled::add))).isEqualTo(1);
+    assertThat(follower.getOffset()).isEqualTo(Files.size(file));
+
+    Files.write(file, "AL;5\n".getBytes(StandardCharsets.UTF_8));
+    assertThat(follower.poll(LineCountRow.class)).as("Truncated file should be parsed from the beginning")
+      .extracting(row -> row.count).containsExactly(5);
+    Files.write(file, "AL;6\nAL;7\n".getBytes(StandardCharsets.UTF_8));
+    assertThat(follower.poll(LineCountRow.class)).as("Replaced file should be parsed from the beginning")
+      .extracting(row -> row.count).containsExactly(6, 7);
+
+    String header = "# " + String.join("", Collections.nCopies(70, "-")) + "\n";
+    Files.write(file, (header + "AL;8\n").getBytes(StandardCharsets.UTF_8));
+    assertThat(follower.poll(LineCountRow.class)).extracting(row -> row.count).containsExactly(8);
+    Files.write(file, (header + "AL;9\nAL;10\n").getBytes(StandardCharsets.UTF_8));
+    assertThat(follower.poll(LineCountRow.class)).as("Replaced file with the same header should be parsed from the beginning")
+      .extracting(row -> row.count).containsExactly(9, 10);
+  }
+
+  @Test
+  public void parseChunks() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.registerRowType(AreaDescriptionRow.class);
+    sut.registerRowType(LineCountRow.class);
+    byte[] bytes = "BE;SE;Sverige\r\nBE;FI;Suomi \u2013 Finland\r\n# comment\nBE;\u00c5L;\u00c5land\nAL;3".getBytes(StandardCharsets.UTF_8);
+    for (int chunkSize = 1; chunkSize <= 4; chunkSize++) {
+      List<AreaDescriptionRow> areas = new ArrayList<>();
+      SdvChunkParser parser = sut.parseChunks(AreaDescriptionRow.class, areas::add);
+      for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+        parser.feed(ByteBuffer.wrap(bytes, offset, Math.min(chunkSize, bytes.length - offset)));
+      }
+      assertThat(parser.finish()).isZero();
+      assertThat(areas).extracting(row -> row.description).containsExactly("Sverige", "Suomi \u2013 Finland", "\u00c5land");
+    }
+
+    List<Object> handled = new ArrayList<>();
+    SdvChunkParser parser = sut.parseChunks(new SdvRowDispatcher().on(LineCountRow.class, handled::add));
+    assertThat(parser.feed(ByteBuffer.wrap("AL;1\nAL;2\nAL;".getBytes(StandardCharsets.UTF_8)))).isEqualTo(2);
+    assertThat(parser.feed(ByteBuffer.wrap("3".getBytes(StandardCharsets.UTF_8)))).isZero();
+    assertThat(parser.finish()).isEqualTo(1);
+    assertThat(handled).extracting(row -> ((LineCountRow) row).count).containsExactly(1, 2, 3);
+    assertThatThrownBy(() -> parser.feed(ByteBuffer.allocate(1))).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void parseWithStatistics(@TempDir Path dir) throws IOException {
+    SdvParseStatistics statistics = new SdvParseStatistics();
+    SdvReader sut = SdvReader.builder()
+      .rowType(AreaDescriptionRow.class)
+      .rowType(LineCountRow.class)
+      .parseListener(statistics)
+      .build();
+    byte[] bytes = "# comment\n\nBE;SE;Sweden\nXX;1\nBE;FI;Finland\nAL;3\n".getBytes(StandardCharsets.UTF_8);
+    assertThat(sut.parse(new ByteArrayInputStream(bytes), AreaDescriptionRow.class)).hasSize(2);
+    assertThat(statistics.getLines()).isEqualTo(6);
+    assertThat(statistics.getBytes()).isEqualTo(bytes.length);
+    assertThat(statistics.getRows()).isEqualTo(2);
+    assertThat(statistics.getRows(AreaDescriptionRow.class)).isEqualTo(2);
+    assertThat(statistics.getSkippedRows(SdvSkipReason.BLANK_OR_COMMENT)).isEqualTo(2);
+    assertThat(statistics.getSkippedRows(SdvSkipReason.UNKNOWN_ROW_TYPE)).isEqualTo(1);
+    assertThat(statistics.getSkippedRows(SdvSkipReason.FILTERED)).isEqualTo(1);
+    assertThat(statistics.getConverterClasses()).containsExactly(StringConverter.class);
+    SdvParseStatistics.Histogram conversions = statistics.getConversionTimes(StringConverter.class);
+    assertThat(conversions.getCount()).isEqualTo(4);
+    assertThat(conversions.getPercentileNanos(100)).isGreaterThanOrEqualTo(conversions.getPercentileNanos(50));
+
+    statistics.reset();
+    Path file = dir.resolve("statistics.sdv");
+    Files.write(file, bytes);
+    assertThat(sut.parse(file, LineCountRow.class)).extracting(row -> row.count).containsExactly(3);
+    assertThat(statistics.getLines()).isEqualTo(6);
+    assertThat(statistics.getBytes()).isEqualTo(bytes.length);
+    assertThat(statistics.getRowTypes()).containsExactly(LineCountRow.class);
+    assertThat(statistics.getSkippedRows(SdvSkipReason.FILTERED)).isEqualTo(2);
+  }
+
+  @Test
+  public void parseWithErrors() throws IOException {
+    SdvReader sut = SdvReader.builder().rowType(LineCountRow.class).ignoreUnknownRows(false).build();
+    String text = "AL;1\n# comment\nAL;x\nXX;2\nAL;3;4\nAL;5";
+    SdvParseResult<List<LineCountRow>> result = sut.parseWithErrors(new StringReader(text), LineCountRow.class, 3);
+    assertThat(result.getResult()).extracting(row -> row.count).containsExactly(1, 5);
+    assertThat(result.getErrors()).extracting(SdvRowError::getLineNumber).containsExactly(3L, 4L, 5L);
+    SdvRowError error = result.getErrors().get(0);
+    assertThat(error.getRowType()).isEqualTo(LineCountRow.class);
+    assertThat(error.getColumn()).isEqualTo(1);
+    assertThat(error.getValue()).isEqualTo("x");
+    assertThat(error.getCause()).isInstanceOf(SdvParsingException.class).hasMessageContaining("'x' is not an integer");
+    assertThat(error.getCause().getStackTrace()).as("Invalid integer should be recorded without a stack trace").isEmpty();
+    assertThat(error.toException()).hasMessageContaining("on line 3").hasCause(error.getCause());
+    assertThat(error.toException().getStackTrace()).isEmpty();
+    assertThat(result.getErrors().get(1).getRowType()).isNull();
+    assertThat(result.getErrors().get(2).getColumn()).isEqualTo(-1);
+    assertThat(result.getErrors().get(2).getValue()).isEqualTo("AL;3;4");
+    assertThat(result.getErrors().get(2).getCause().getStackTrace()).isEmpty();
+    assertThat(sut.parseWithErrors(new StringReader("AL;+7\nAL;\u0661\u0662\nAL;2147483648\nAL;-2147483648\nAL;-"), LineCountRow.class, 2))
+      .satisfies(integers -> assertThat(integers.getResult()).extracting(row -> row.count).containsExactly(7, 12, Integer.MIN_VALUE))
+      .satisfies(integers -> assertThat(integers.getErrors()).extracting(SdvRowError::getValue).containsExactly("2147483648", "-"));
+
+    assertThatThrownBy(() -> sut.parseWithErrors(new StringReader(text), LineCountRow.class, 2))
+      .isInstanceOf(SdvErrorBudgetException.class)
+      .hasMessageContaining("Error budget (2) exceeded")
+      .satisfies(e -> assertThat(((SdvErrorBudgetException) e).getErrors()).hasSize(3));
+
+    SdvParseResult<SpotPriceDocument> document = sut.parseDocumentWithErrors(
+      new StringReader("BE;SE;Sweden\nAL;x"), SpotPriceDocument.class, 1);
+    assertThat(document.getResult().areas).hasSize(1);
+    assertThat(document.getResult().lineCount).isNull();
+    assertThat(document.hasErrors()).isTrue();
+  }
+
+  @Test
+  public void parseProjectedAndLazyColumns() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    sut.registerRowType(PriceTotalRow.class);
+    List<PriceTotalRow> results = sut.parse(getClass().getResource("prices.sdv"), PriceTotalRow.class);
+    assertThat(results).hasSize(10);
+    PriceTotalRow row = results.get(1);
+    assertThat(row.date).isEqualTo(LocalDate.of(2017, 3, 22));
+    assertThat(row.unit).isEqualTo("NOK");
+    assertThat(row.hour1.getText()).isEqualTo("-289,70");
+    assertThat(row.hour1.get()).isEqualTo(new BigDecimal("-289.70"));
+    assertThat(row.missing).isNull();
+    assertThat(results.get(0).hour1.get()).isNull();
+
+    PriceTotalRow invalid = sut.parse(new StringReader("PR;SO;2017;12;3;22.03.2017;FI;EUR;x"), PriceTotalRow.class).get(0);
+    assertThat(invalid.total).isNull();
+    assertThatThrownBy(invalid.hour1::get)
+      .isInstanceOf(SdvParsingException.class)
+      .hasMessageContaining("value 'x'");
+  }
+
+  @Test
+  public void parseColumns() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    SdvColumnBatch<PriceTotalRow> prices = sut.parseColumns(getClass().getResource("prices.sdv"), PriceTotalRow.class);
+    assertThat(prices.size()).isEqualTo(10);
+    assertThat(prices.getColumnType(0)).isEqualTo(SdvColumnType.DATE);
+    assertThat(prices.getEpochDays(0)[1]).isEqualTo((int) LocalDate.of(2017, 3, 22).toEpochDay());
+    assertThat(prices.getDictionary(1)).contains("NOK");
+    assertThat(prices.getDictionary(1).get(prices.getCodes(1)[1])).isEqualTo("NOK");
+    assertThat(prices.get(2, 1)).isEqualTo(new BigDecimal("-289.70"));
+    assertThat(prices.getScale(2)).isEqualTo(2);
+    assertThat(prices.isNull(2, 0)).isTrue();
+    assertThat(prices.getCodes(4)).containsOnly(-1);
+
+    String text = "VA;+12;2121,6;-289,7;22.03.2017 11:58\n" +
+      "VA;-9223372036854775808;-0,0;0,000;29.02.2017 00:00\n" +
+      "VA;7;1\u00a0234,5;;26.03.2017 02:00\n";
+    SdvColumnBatch<ValuesRow> values = sut.parseColumns(new StringReader(text), ValuesRow.class);
+    assertThat(values.getLongs(0)).containsExactly(12L, Long.MIN_VALUE, 7L);
+    assertThat(values.getDoubles(1)).containsExactly(2121.6d, -0.0d, 1234.5d);
+    assertThat(values.getUnscaled(2)).containsExactly(-289700L, 0L, 0L);
+    assertThat(values.getScale(2)).isEqualTo(3);
+    assertThat(values.isNull(2, 2)).isTrue();
+    assertThat(values.getObjects(3)[0]).isEqualTo(LocalDateTime.of(2017, 3, 22, 11, 58));
+    assertThatThrownBy(() -> values.getInts(0))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void newRows() throws Exception {
+    SdvRowFactory<CheckedCountRow> factory = new SdvRowFactory<>(CheckedCountRow.class.getConstructor(int.class));
+    assertThat(factory.newRow(new Object[] {2}).count).isEqualTo(2);
+    assertThatThrownBy(() -> factory.newRow(new Object[] {-1}))
+      .isInstanceOf(SdvParsingReflectionException.class)
+      .hasMessageContaining("CheckedCountRow")
+      .hasCauseInstanceOf(IllegalArgumentException.class);
+
+    SdvRowFactory<CheckedCountRow.Hidden> hidden = new SdvRowFactory<>(CheckedCountRow.Hidden.class.getConstructor(int.class));
+    assertThat(hidden.newRow(new Object[] {3}).count).isEqualTo(3);
+    assertThatThrownBy(() -> hidden.newRow(new Object[] {-1}))
+      .as("Constructor of a non-public class should be invoked reflectively")
+      .isInstanceOf(SdvParsingReflectionException.class)
+      .hasCauseInstanceOf(InvocationTargetException.class)
+      .hasRootCauseInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void handleRows() throws Exception {
+    CountDocument document = new CountDocument();
+    SdvRowHandler handler = SdvRowHandler.forMethod(CountDocument.class.getDeclaredMethod("addCount", LineCountRow.class));
+    handler.handle(document, new LineCountRow(1));
+    assertThat(document.counts).extracting(row -> row.count).containsExactly(1);
+    assertThatThrownBy(() -> handler.handle(document, new LineCountRow(-1)))
+      .isInstanceOf(SdvParsingReflectionException.class)
+      .hasMessageContaining("addCount")
+      .hasCauseInstanceOf(IllegalArgumentException.class);
+    SdvRowHandler.forField(CountDocument.class.getDeclaredField("last")).handle(document, new LineCountRow(2));
+    assertThat(document.last.count).isEqualTo(2);
+
+    Method privateMethod = SpotPriceDocument.class.getDeclaredMethod("setLastUpdated", LastUpdatedRow.class);
+    assertThatThrownBy(() -> SdvRowHandler.forMethod(privateMethod).handle(new SpotPriceDocument(), null))
+      .as("Private method should be invoked reflectively, and fail as it is not made accessible")
+      .isInstanceOf(SdvParsingReflectionException.class)
+      .hasCauseInstanceOf(IllegalAccessException.class);
+    privateMethod.setAccessible(true);
+    SpotPriceDocument spotPrices = new SpotPriceDocument();
+    SdvRowHandler.forMethod(privateMethod).handle(spotPrices, null);
+    assertThat(spotPrices.lastUpdatedSetViaMethod).isTrue();
+  }
+
+  @Test
+  public void parseColumnsLikeRows() throws IOException {
+    SdvReader sut = SdvReader.builder().defaultLocale(Locale.ENGLISH).rowType(ProjectedAmountRow.class)
+      .converter(BigDecimal.class, new BigDecimalConverter() {
+
+        @Override
+        protected BigDecimal parseDefault(String value) {
+          return super.parseDefault(value).setScale(4);
+        }
+
+        @Override
+        protected BigDecimal fromDecimal(long unscaled, int scale, boolean negative) {
+          return super.fromDecimal(unscaled, scale, negative).setScale(4);
+        }
+
+      })
+      .build();
+    String text = "PA;EUR;2.5;1.5\nPA;EUR;;-3.25\n";
+    List<ProjectedAmountRow> rows = sut.parse(new StringReader(text), ProjectedAmountRow.class);
+    assertThat(rows).extracting(row -> row.amount).containsExactly(new BigDecimal("1.5000"), new BigDecimal("-3.2500"));
+    SdvColumnBatch<ProjectedAmountRow> batch = sut.parseColumns(new StringReader(text), ProjectedAmountRow.class);
+    assertThat(batch.toRows()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(rows);
+    assertThat(batch.getUnscaled(1)).containsExactly(15000L, -32500L);
+
+    StringWriter out = new StringWriter();
+    try (SdvWriter writer = sut.newWriter(out)) {
+      writer.writeAll(rows);
+    }
+    assertThat(out.toString()).isEqualTo("PA;EUR;;1.5000\nPA;EUR;;-3.2500\n");
+  }
+
   private void assertAreaEquals(String alias, String desc, Iterator<?> iterator) {
     assertThat(iterator.hasNext()).as("Should have area with alias '%s' and description '%s'", alias, desc).isTrue();
     AreaDescriptionRow result = (AreaDescriptionRow) iterator.next();
@@ -74,6 +648,197 @@ public class SdvReaderTest {
     assertThat(result.description).isEqualTo(desc);
   }
 
+  @Test
+  public void parseSmallNumbersWithSnapshot(@TempDir Path dir) throws Exception {
+    SdvReader sut = SdvReader.builder().defaultLocale(new Locale("fi")).build();
+    Path file = dir.resolve("numbers.sdv");
+    Files.write(file, "SN;12;-3;0,75;0,5\nSN;-32768;;1,5;\n".getBytes(StandardCharsets.UTF_8));
+    List<SmallNumbersRow> parsed = sut.parseWithSnapshot(file, SmallNumbersRow.class);
+    assertThat(dir.resolve("numbers.sdv.snapshot")).exists();
+    List<SmallNumbersRow> loaded = sut.parseWithSnapshot(file, SmallNumbersRow.class);
+    for (List<SmallNumbersRow> rows : Arrays.asList(parsed, loaded)) {
+      assertThat(rows).extracting(row -> row.count).containsExactly((short) 12, (short) -32768);
+      assertThat(rows).extracting(row -> row.flags).containsExactly((byte) -3, null);
+      assertThat(rows).extracting(row -> row.ratio).containsExactly(0.75f, 1.5f);
+      assertThat(rows).extracting(row -> row.share.get()).containsExactly(0.5f, null);
+    }
+  }
+
+  @Test
+  public void parseDecimalsWithSnapshot(@TempDir Path dir) throws Exception {
+    SdvReader sut = SdvReader.builder().defaultLocale(Locale.ENGLISH).rowType(AmountRow.class).build();
+    Path file = dir.resolve("amounts.sdv");
+    Files.write(file, "AM;EUR;1.5\nAM;EUR;2.25\nAM;EUR;\nAM;EUR;-3\n".getBytes(StandardCharsets.UTF_8));
+    List<BigDecimal> parsed = sut.parse(file, AmountRow.class).stream().map(row -> row.amount).collect(Collectors.toList());
+    assertThat(sut.parseWithSnapshot(file, AmountRow.class)).extracting(row -> row.amount).isEqualTo(parsed);
+    assertThat(dir.resolve("amounts.sdv.snapshot")).exists();
+    assertThat(sut.parseWithSnapshot(file, AmountRow.class)).extracting(row -> row.amount)
+      .containsExactly(new BigDecimal("1.5"), new BigDecimal("2.25"), null, new BigDecimal("-3"));
+
+    Path large = dir.resolve("large.sdv");
+    Files.write(large, "AM;EUR;1.25\nAM;EUR;12345678901234567890.5\n".getBytes(StandardCharsets.UTF_8));
+    assertThat(sut.parseWithSnapshot(large, AmountRow.class)).extracting(row -> row.amount)
+      .containsExactly(new BigDecimal("1.25"), new BigDecimal("12345678901234567890.5"));
+    assertThat(dir.resolve("large.sdv.snapshot")).doesNotExist();
+    SdvColumnBatch<AmountRow> batch = sut.parseColumns(large, AmountRow.class);
+    assertThat(batch.get(1, 0)).isEqualTo(new BigDecimal("1.25"));
+    assertThatThrownBy(() -> batch.getUnscaled(1))
+      .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  public void parseWithSnapshot(@TempDir Path dir) throws Exception {
+    SdvParseStatistics statistics = new SdvParseStatistics();
+    SdvReader sut = SdvReader.builder().defaultLocale(new Locale("fi")).parseListener(statistics).build();
+    Path file = dir.resolve("prices.sdv");
+    Files.copy(Paths.get(getClass().getResource("prices.sdv").toURI()), file);
+    List<PriceTotalRow> parsed = sut.parseWithSnapshot(file, PriceTotalRow.class);
+    assertThat(dir.resolve("prices.sdv.snapshot")).exists();
+    assertThat(statistics.getLines()).isGreaterThan(0);
+
+    statistics.reset();
+    List<PriceTotalRow> loaded = sut.parseWithSnapshot(file, PriceTotalRow.class);
+    assertThat(statistics.getLines()).as("Rows should be loaded from the snapshot").isZero();
+    assertThat(loaded).hasSameSizeAs(parsed);
+    for (int i = 0; i < parsed.size(); i++) {
+      assertThat(loaded.get(i).date).isEqualTo(parsed.get(i).date);
+      assertThat(loaded.get(i).unit).isEqualTo(parsed.get(i).unit);
+      assertThat(loaded.get(i).missing).isNull();
+    }
+    assertThat(loaded.get(1).hour1.get()).isEqualTo(new BigDecimal("-289.70"));
+    assertThat(loaded.get(1).hour1.getText()).isEqualTo("-289,70");
+    assertThat(loaded.get(0).hour1.get()).isNull();
+    assertThat(loaded.get(0).hour1.getText()).isNull();
+    StringWriter out = new StringWriter();
+    try (SdvWriter writer = sut.newWriter(out)) {
+      writer.writeAll(loaded);
+    }
+    assertThat(out.toString()).contains(";NOK;-289,70;");
+
+    Files.write(file, "PR;SO;2017;12;3;23.03.2017;FI;EUR;31,76\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    assertThat(sut.parseColumnsWithSnapshot(file, PriceTotalRow.class).size()).as("Modified file should be parsed again").isEqualTo(11);
+    assertThat(statistics.getLines()).isGreaterThan(0);
+    assertThat(SdvReader.builder().defaultLocale(Locale.ENGLISH).build().parseColumnsWithSnapshot(file, PriceTotalRow.class).getScale(2))
+      .as("Snapshot of other settings should not be used").isEqualTo(0);
+
+    sut.parseColumnsWithSnapshot(file, PriceTotalRow.class);
+    statistics.reset();
+    DecimalFormat format = new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+    SdvReader otherFormat = SdvReader.builder().defaultLocale(new Locale("fi")).defaultDecimalFormat(format).parseListener(statistics).build();
+    otherFormat.parseColumnsWithSnapshot(file, PriceTotalRow.class);
+    assertThat(statistics.getLines()).as("Snapshot of another default decimal format should not be used").isGreaterThan(0);
+
+    statistics.reset();
+    SdvReader customConverter = SdvReader.builder().defaultLocale(new Locale("fi"))
+      .converter(String.class, value -> value.toLowerCase(Locale.ROOT)).parseListener(statistics).build();
+    assertThat(customConverter.parseColumnsWithSnapshot(file, PriceTotalRow.class).getDictionary(1)).contains("nok");
+    assertThat(statistics.getLines()).as("Snapshot should not be used with a lambda converter").isGreaterThan(0);
+  }
+
+  @Test
+  public void writeRows() throws IOException {
+    SdvReader sut = SdvReader.builder().defaultLocale(new Locale("fi")).rowType(PricesRow.class).rowType(ValuesRow.class).build();
+    List<PricesRow> prices = sut.parse(getClass().getResource("prices.sdv"), PricesRow.class);
+    String text = "VA;+12;2121,6;-289,7;22.03.2017 11:58\n" +
+      "VA;-9223372036854775808;0,125;12345678901234567890,12;29.02.2017 00:00\n" +
+      "VA;7;1\u00a0234,5;;26.03.2017 02:00\n";
+    List<ValuesRow> values = sut.parse(new StringReader(text), ValuesRow.class);
+
+    StringWriter out = new StringWriter();
+    try (SdvWriter writer = sut.newWriter(out)) {
+      writer.writeComment("Prices and values");
+      writer.writeAll(prices);
+      writer.writeAll(values);
+      assertThatThrownBy(() -> writer.write(new AreaDescriptionRow("FI", "Finland; Helsinki")))
+        .isInstanceOf(SdvParsingException.class)
+        .hasMessageContaining("column delimiter");
+      assertThat(writer.getRowCount()).isEqualTo(13);
+    }
+    assertThat(out.toString())
+      .startsWith("# Prices and values\nPR;SO;2017;12;3;22.03.2017;FRE;NOK;;;;;")
+      .contains("VA;12;2121,6;-289,7;22.03.2017 11:58\n")
+      .endsWith("VA;7;1234,5;;26.03.2017 02:00\n");
+    assertThat(sut.parse(new StringReader(out.toString()), PricesRow.class))
+      .usingRecursiveFieldByFieldElementComparator()
+      .containsExactlyElementsOf(prices);
+    assertThat(sut.parse(new StringReader(out.toString()), ValuesRow.class))
+      .usingRecursiveFieldByFieldElementComparator()
+      .containsExactlyElementsOf(values);
+
+    SdvReader projected = SdvReader.builder().defaultLocale(new Locale("fi")).rowType(PriceTotalRow.class).build();
+    out = new StringWriter();
+    try (SdvWriter writer = projected.newWriter(out)) {
+      writer.writeAll(projected.parse(getClass().getResource("prices.sdv"), PriceTotalRow.class));
+    }
+    List<PriceTotalRow> totals = projected.parse(new StringReader(out.toString()), PriceTotalRow.class);
+    assertThat(totals).hasSize(10);
+    assertThat(totals.get(1).hour1.get()).isEqualByComparingTo("-289.70");
+    assertThat(totals.get(1).total).isEqualTo(prices.get(1).total);
+  }
+
+  @Test
+  public void parseWithCache(@TempDir Path dir) throws Exception {
+    SdvParseCache cache = new SdvParseCache(1024 * 1024, SdvParseCache.DEFAULT_BYTES_PER_SOURCE_BYTE, 64);
+    SdvReader sut = SdvReader.builder().defaultLocale(new Locale("fi"))
+      .rowType(PriceTotalRow.class).rowType(LineCountRow.class).parseCache(cache).build();
+    Path file = dir.resolve("prices.sdv");
+    Files.copy(Paths.get(getClass().getResource("prices.sdv").toURI()), file);
+    SpotPriceDocument document = sut.parseDocument(file, SpotPriceDocument.class);
+    document.prices.clear();
+    SpotPriceDocument cached = sut.parseDocument(file, SpotPriceDocument.class);
+    assertThat(cached).as("Each caller should get its own document").isNotSameAs(document);
+    assertThat(cached.prices).hasSize(10);
+    assertThat(cached.lastUpdated).isSameAs(document.lastUpdated);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<PriceTotalRow>>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> sut.parse(file, PriceTotalRow.class)));
+      }
+      List<PriceTotalRow> prices = futures.get(0).get();
+      for (Future<List<PriceTotalRow>> future : futures) {
+        assertThat(future.get()).containsExactlyElementsOf(prices);
+      }
+      assertThat(prices).hasSize(10);
+    }
+    finally {
+      executor.shutdown();
+    }
+    assertThat(cache.getMissCount()).as("Concurrent requests should parse once").isEqualTo(2);
+    assertThat(cache.getHitCount()).isEqualTo(8);
+
+    Files.write(file, "PR;SO;2017;12;3;23.03.2017;FI;EUR;31,76\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    assertThat(sut.parse(file, PriceTotalRow.class)).as("Modified file should be parsed again").hasSize(11);
+    assertThat(cache.getEvictionCount()).as("Result of the previous version should be removed").isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(2);
+
+    byte[] content = "AL;223\n".getBytes(StandardCharsets.UTF_8);
+    List<LineCountRow> counts = sut.parse(new ByteArrayInputStream(content), LineCountRow.class);
+    counts.clear();
+    assertThat(sut.parse(new ByteArrayInputStream(content.clone()), LineCountRow.class)).as("Each caller should get its own list").hasSize(1);
+    assertThat(cache.getHitCount()).isEqualTo(9);
+    byte[] large = String.join("", Collections.nCopies(20, "AL;223\n")).getBytes(StandardCharsets.UTF_8);
+    assertThat(sut.parse(new ByteArrayInputStream(large), LineCountRow.class)).as("Stream over the limit should be parsed").hasSize(20);
+    assertThat(cache.getMissCount()).as("Stream over the limit should not be cached").isEqualTo(4);
+
+    Path spot = dir.resolve("spot.sdv");
+    Files.copy(Paths.get(getClass().getResource("prices.sdv").toURI()), spot);
+    SdvParseCache small = new SdvParseCache(Files.size(spot) * 6);
+    SdvReader limited = SdvReader.builder().defaultLocale(new Locale("fi")).rowType(PriceTotalRow.class).parseCache(small).build();
+    limited.parse(new ByteArrayInputStream(content), LineCountRow.class);
+    assertThat(small.size()).as("Streams should not be cached by default").isZero();
+    limited.parse(spot, PriceTotalRow.class);
+    limited.parseDocument(spot, SpotPriceDocument.class);
+    assertThat(small.getEvictionCount()).as("Least recently used result should be evicted over the budget").isEqualTo(1);
+    assertThat(small.size()).isEqualTo(1);
+    assertThat(small.getRetainedBytes()).isLessThanOrEqualTo(small.getMaxRetainedBytes());
+    limited.parseDocument(spot, SpotPriceDocument.class);
+    assertThat(small.getHitCount()).isEqualTo(1);
+  }
+
   @Test
   public void parseLineCount() throws IOException {
     SdvReader sut = new SdvReader();
@@ -84,6 +849,15 @@ public class SdvReaderTest {
     assertThat(iterator.hasNext()).as("Should not have more rows").isFalse();
   }
 
+  @Test
+  public void parseLineCountAfterConverterRegistered() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.registerRowType(LineCountRow.class);
+    assertLineCountRow(223, sut.parse(getClass().getResource("lineCount.sdv")).iterator());
+    sut.registerConverter(Integer.TYPE, value -> Integer.valueOf(value) * 2);
+    assertLineCountRow(446, sut.parse(getClass().getResource("lineCount.sdv")).iterator());
+  }
+
   private void assertLineCountRow(int lineCount, Iterator<?> iterator) {
     assertThat(iterator.hasNext()).as("Should have line count row with value %s", lineCount).isTrue();
     LineCountRow result = (LineCountRow) iterator.next();
@@ -129,6 +903,49 @@ public class SdvReaderTest {
     assertLineCountRow(223, Arrays.asList(doc.lineCount).iterator());
   }
 
+  @Test
+  public void parseDocumentsOfSameClass() throws IOException {
+    SdvReader sut = new SdvReader();
+    sut.setDefaultLocale(new Locale("fi"));
+    SpotPriceDocument first = sut.parseDocument(getClass().getResource("prices.sdv"), SpotPriceDocument.class);
+    SpotPriceDocument second = sut.parseDocument(getClass().getResource("prices.sdv"), new SpotPriceDocument());
+    assertThat(second.areas).hasSize(2).isNotSameAs(first.areas);
+    assertThat(second.prices).hasSize(first.prices.size());
+    assertThat(first.prices).hasSize(10);
+    assertThat(second.lastUpdatedSetViaMethod).isTrue();
+  }
+
+  @Test
+  public void parseWithImmutableReader() throws Exception {
+    SdvReader sut = SdvReader.builder()
+      .defaultLocale(new Locale("fi"))
+      .rowType(LineCountRow.class)
+      .build();
+    assertThat(sut.isImmutable()).isTrue();
+    assertThatThrownBy(() -> sut.registerRowType(AreaDescriptionRow.class))
+      .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> sut.setDefaultLocale(Locale.ROOT))
+      .isInstanceOf(IllegalStateException.class);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<SpotPriceDocument>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> sut.parseDocument(getClass().getResource("prices.sdv"), SpotPriceDocument.class)));
+      }
+      for (Future<SpotPriceDocument> future : futures) {
+        SpotPriceDocument doc = future.get();
+        assertThat(doc.areas).hasSize(2);
+        assertPriceRows(doc.prices.iterator());
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+    // row types of the document are registered for the document parses only
+    assertThat(sut.parse(getClass().getResource("prices.sdv"))).hasSize(1).first().isInstanceOf(LineCountRow.class);
+  }
+
   private void assertPriceRows(Iterator<?> iterator) {
     assertPriceRowEquals("SO", 2017, 12, 3, LocalDate.of(2017, 3, 22), "FRE", "NOK",
       new BigDecimal[] {null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null},
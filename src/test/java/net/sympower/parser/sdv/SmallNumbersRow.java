@@ -0,0 +1,18 @@
+package net.sympower.parser.sdv;
+
+@SdvRow("SN")
+public class SmallNumbersRow {
+
+  public final short count;
+  public final Byte flags;
+  public final float ratio;
+  public final SdvLazy<Float> share;
+
+  public SmallNumbersRow(short count, Byte flags, float ratio, SdvLazy<Float> share) {
+    this.count = count;
+    this.flags = flags;
+    this.ratio = ratio;
+    this.share = share;
+  }
+
+}
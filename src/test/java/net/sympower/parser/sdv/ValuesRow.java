@@ -0,0 +1,22 @@
+package net.sympower.parser.sdv;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@SdvRow("VA")
+public class ValuesRow {
+
+  public final long count;
+  public final double volume;
+  public final BigDecimal price;
+  public final LocalDateTime time;
+
+  public ValuesRow(long count, double volume, BigDecimal price,
+                   @SdvColumnFormat("dd.MM.yyyy HH:mm") LocalDateTime time) {
+    this.count = count;
+    this.volume = volume;
+    this.price = price;
+    this.time = time;
+  }
+
+}